@@ -0,0 +1,36 @@
+package org.aravind.oss.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the JMH command line options, always adding the {@link GCProfiler} so that the allocation
+ * rate (<i>gc.alloc.rate.norm</i> is bytes per operation) is reported next to the average time per operation.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+        if (cmdOptions.shouldList()) {
+            new Runner(cmdOptions).list();
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(cmdOptions).addProfiler(GCProfiler.class).build()).run();
+    }
+}
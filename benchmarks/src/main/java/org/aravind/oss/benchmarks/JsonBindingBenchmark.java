@@ -0,0 +1,60 @@
+package org.aravind.oss.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aravind.oss.jenkins.StreamingJsonReader;
+import org.aravind.oss.jenkins.domain.BuildCollection;
+import org.aravind.oss.jenkins.domain.Jenkins;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the all jobs and the job resources with the {@link StreamingJsonReader} the connector uses, and with a plain
+ * {@link ObjectMapper} as the baseline.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBindingBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Param({"1", "10", "100"})
+    public int scale;
+
+    private byte[] allJobs;
+    private byte[] jobBuilds;
+
+    @Setup
+    public void setUp() {
+        allJobs = Payloads.allJobs(scale);
+        jobBuilds = Payloads.jobBuilds(scale);
+    }
+
+    @Benchmark
+    public Jenkins streamJenkins() throws IOException {
+        return StreamingJsonReader.read(new ByteArrayInputStream(allJobs), Jenkins.class);
+    }
+
+    @Benchmark
+    public Jenkins bindJenkins() throws IOException {
+        return mapper.readValue(new ByteArrayInputStream(allJobs), Jenkins.class);
+    }
+
+    @Benchmark
+    public BuildCollection streamBuildCollection() throws IOException {
+        return StreamingJsonReader.read(new ByteArrayInputStream(jobBuilds), BuildCollection.class);
+    }
+
+    @Benchmark
+    public BuildCollection bindBuildCollection() throws IOException {
+        return mapper.readValue(new ByteArrayInputStream(jobBuilds), BuildCollection.class);
+    }
+}
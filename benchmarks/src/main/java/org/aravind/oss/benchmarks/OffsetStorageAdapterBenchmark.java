@@ -0,0 +1,126 @@
+package org.aravind.oss.benchmarks;
+
+import org.apache.kafka.connect.storage.OffsetStorageReader;
+import org.aravind.oss.kafka.connect.jenkins.JenkinsSourceTask;
+import org.aravind.oss.kafka.connect.jenkins.ReadYourWritesOffsetStorageAdapter;
+import org.aravind.oss.kafka.connect.lib.Partitions;
+import org.aravind.oss.kafka.connect.lib.SourceOffset;
+import org.aravind.oss.kafka.connect.lib.SourcePartition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the offsets of a task into the {@link ReadYourWritesOffsetStorageAdapter}, then looks them up and updates
+ * them as the fetcher threads do in every poll cycle.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OffsetStorageAdapterBenchmark {
+    @Param({"100000"})
+    public int jobCount;
+
+    private List<SourcePartition> partitions;
+    private OffsetStorageReader reader;
+    private ReadYourWritesOffsetStorageAdapter adapter;
+
+    /**
+     * Each benchmark thread walks the partitions from its own position.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup
+        public void setUp(OffsetStorageAdapterBenchmark benchmark) {
+            next = (int) (Thread.currentThread().getId() % benchmark.jobCount);
+        }
+
+        SourcePartition nextPartition(List<SourcePartition> partitions) {
+            SourcePartition partition = partitions.get(next);
+            next = next + 1 == partitions.size() ? 0 : next + 1;
+            return partition;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Partitions ps = new Partitions(JenkinsSourceTask.JOB_NAME);
+        partitions = new ArrayList<>(jobCount);
+        //Every other job has a stored offset
+        Map<Map<String, String>, Map<String, Object>> stored = new HashMap<>();
+        for (int i = 0; i < jobCount; i++) {
+            SourcePartition partition = ps.make("job-" + i);
+            partitions.add(partition);
+            if (i % 2 == 0) {
+                Map<String, String> key = new HashMap<>();
+                key.put(partition.key, partition.value);
+                stored.put(key, SourceOffset.make(JenkinsSourceTask.BUILD_NUMBER, (long) i).encoded);
+            }
+        }
+        reader = new InMemoryOffsetStorageReader(stored);
+        adapter = new ReadYourWritesOffsetStorageAdapter(reader, partitions);
+    }
+
+    @Benchmark
+    public ReadYourWritesOffsetStorageAdapter load() {
+        return new ReadYourWritesOffsetStorageAdapter(reader, partitions);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<SourceOffset> getOffset(Cursor cursor) {
+        return adapter.getOffset(cursor.nextPartition(partitions));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<SourceOffset> getOffsetConcurrently(Cursor cursor) {
+        return adapter.getOffset(cursor.nextPartition(partitions));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SourceOffset cacheConcurrently(Cursor cursor) {
+        SourceOffset offset = SourceOffset.make(JenkinsSourceTask.BUILD_NUMBER, 42L);
+        adapter.cache(cursor.nextPartition(partitions), offset);
+        return offset;
+    }
+
+    private static class InMemoryOffsetStorageReader implements OffsetStorageReader {
+        private final Map<Map<String, String>, Map<String, Object>> stored;
+
+        InMemoryOffsetStorageReader(Map<Map<String, String>, Map<String, Object>> stored) {
+            this.stored = stored;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Map<String, Object> offset(Map<String, T> partition) {
+            return stored.get(partition);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Map<Map<String, T>, Map<String, Object>> offsets(Collection<Map<String, T>> partitions) {
+            Map<Map<String, T>, Map<String, Object>> offsets = new HashMap<>();
+            for (Map<String, T> partition : partitions) {
+                offsets.put(partition, stored.get(partition));
+            }
+            return offsets;
+        }
+    }
+}
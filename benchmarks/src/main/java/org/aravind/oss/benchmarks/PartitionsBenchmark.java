@@ -0,0 +1,76 @@
+package org.aravind.oss.benchmarks;
+
+import org.aravind.oss.kafka.connect.jenkins.JenkinsSourceTask;
+import org.aravind.oss.kafka.connect.lib.Partitions;
+import org.aravind.oss.kafka.connect.lib.SourcePartition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the cached partitions of the jobs with {@link Partitions#make(String)}, and creates them uncached with
+ * {@link SourcePartition#make(String, String)} as the baseline.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionsBenchmark {
+    private final Partitions partitions = new Partitions(JenkinsSourceTask.JOB_NAME);
+
+    @Param({"100000"})
+    public int jobCount;
+
+    private String[] jobNames;
+
+    /**
+     * Each benchmark thread walks the job names from its own position, as the fetcher threads of a task do.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup
+        public void setUp(PartitionsBenchmark benchmark) {
+            next = (int) (Thread.currentThread().getId() % benchmark.jobCount);
+        }
+
+        String nextJobName(String[] jobNames) {
+            String name = jobNames[next];
+            next = next + 1 == jobNames.length ? 0 : next + 1;
+            return name;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        jobNames = new String[jobCount];
+        for (int i = 0; i < jobCount; i++) {
+            jobNames[i] = "job-" + i;
+            partitions.make(jobNames[i]);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SourcePartition make(Cursor cursor) {
+        return partitions.make(cursor.nextJobName(jobNames));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public SourcePartition makeConcurrently(Cursor cursor) {
+        return partitions.make(cursor.nextJobName(jobNames));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public SourcePartition makeUncached(Cursor cursor) {
+        return SourcePartition.make(JenkinsSourceTask.JOB_NAME, cursor.nextJobName(jobNames));
+    }
+}
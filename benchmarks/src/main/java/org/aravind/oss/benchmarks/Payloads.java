@@ -0,0 +1,83 @@
+package org.aravind.oss.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Realistic Jenkins responses, scaled up from the fixtures of the functional tests.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+final class Payloads {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private Payloads() {
+    }
+
+    /**
+     * @param scale The copies of the 1359 jobs of <i>all-jobs.json</i> in the response
+     * @return The all jobs resource
+     */
+    static byte[] allJobs(int scale) {
+        ObjectNode root = load("all-jobs.json");
+        ArrayNode jobs = (ArrayNode) root.get("jobs");
+        ArrayNode scaled = mapper.createArrayNode();
+        for (int copy = 0; copy < scale; copy++) {
+            for (int i = 0; i < jobs.size(); i++) {
+                ObjectNode job = jobs.get(i).deepCopy();
+                String name = job.get("name").asText() + "-" + copy;
+                job.put("name", name);
+                job.put("url", "http://localhost:8181/job/" + name + "/");
+                scaled.add(job);
+            }
+        }
+        root.set("jobs", scaled);
+        return write(root);
+    }
+
+    /**
+     * @param scale The copies of the 5 builds of <i>accumulo-trunk-builds.json</i> in the build history
+     * @return The job resource of Accumulo-1.8
+     */
+    static byte[] jobBuilds(int scale) {
+        ObjectNode root = load("accumulo-trunk-builds.json");
+        ArrayNode builds = (ArrayNode) root.get("builds");
+        ArrayNode scaled = mapper.createArrayNode();
+        int number = builds.size() * scale;
+        for (int copy = 0; copy < scale; copy++) {
+            for (int i = 0; i < builds.size(); i++, number--) {
+                ObjectNode build = builds.get(i).deepCopy();
+                build.put("number", number);
+                build.put("url", "http://localhost:8181/job/Accumulo-1.8/" + number + "/");
+                scaled.add(build);
+            }
+        }
+        root.set("builds", scaled);
+        return write(root);
+    }
+
+    private static ObjectNode load(String resource) {
+        try (InputStream is = Payloads.class.getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IllegalStateException(resource + " isn't on the classpath");
+            }
+            return (ObjectNode) mapper.readTree(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] write(ObjectNode root) {
+        try {
+            return mapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
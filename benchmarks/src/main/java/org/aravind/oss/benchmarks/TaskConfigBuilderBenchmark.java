@@ -0,0 +1,78 @@
+package org.aravind.oss.benchmarks;
+
+import org.aravind.oss.jenkins.domain.Build;
+import org.aravind.oss.jenkins.domain.Job;
+import org.aravind.oss.kafka.connect.jenkins.JenkinsSourceConfig;
+import org.aravind.oss.kafka.connect.jenkins.JenkinsSourceTask;
+import org.aravind.oss.kafka.connect.jenkins.JobTaskConfigExtractor;
+import org.aravind.oss.kafka.connect.jenkins.JobWeightExtractor;
+import org.aravind.oss.kafka.connect.lib.TaskConfigBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the task configs of a connector with a large number of jobs, by count and by the estimated cost of the jobs.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskConfigBuilderBenchmark {
+    private static final long NOW = 1_500_000_000_000L;
+
+    @Param({"100000"})
+    public int jobCount;
+
+    @Param({"1", "16", "128"})
+    public int maxTasks;
+
+    @Param({JenkinsSourceConfig.TASK_ASSIGNMENT_COUNT, JenkinsSourceConfig.TASK_ASSIGNMENT_WEIGHTED})
+    public String assignment;
+
+    private JenkinsSourceConfig config;
+    private List<Job> jobs;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> props = new HashMap<>();
+        props.put(JenkinsSourceConfig.JENKINS_BASE_URL_CONFIG, "http://localhost:8181");
+        props.put(JenkinsSourceConfig.TOPIC_CONFIG, "jenkins-builds");
+        props.put(JenkinsSourceConfig.TASK_ASSIGNMENT_CONFIG, assignment);
+        config = new JenkinsSourceConfig(props);
+
+        //Build ages spread from minutes to months, so that every weight class is present
+        Random random = new Random(42);
+        jobs = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            Job job = new Job();
+            job.setName("job-" + i);
+            job.setUrl("http://localhost:8181/job/job-" + i + "/");
+            job.setColor("blue");
+            Build lastBuild = new Build();
+            lastBuild.setNumber((long) random.nextInt(5000));
+            lastBuild.setTimestamp(NOW - (long) (Math.pow(random.nextDouble(), 3) * TimeUnit.DAYS.toMillis(90)));
+            job.setLastBuild(lastBuild);
+            jobs.add(job);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, String>> build() {
+        TaskConfigBuilder<Job> builder = new TaskConfigBuilder<Job>(maxTasks, JenkinsSourceTask.JOB_URLS, config, new JobTaskConfigExtractor());
+        if (config.isWeightedTaskAssignment()) {
+            builder.setTaskWeightExtractor(new JobWeightExtractor(NOW));
+        }
+        return builder.build(jobs);
+    }
+}
@@ -0,0 +1,130 @@
+package org.aravind.oss.jenkins;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Circuit breaker of a single Jenkins host. Thread-safe.
+ * <p>
+ * <ul>
+ * <li><b>CLOSED</b>: requests are let through. Opens after <i>failureThreshold</i> consecutive failures.</li>
+ * <li><b>OPEN</b>: requests fail fast without connecting to the host, until the backoff elapses.</li>
+ * <li><b>HALF_OPEN</b>: a single probe request is let through. It closes the circuit if it succeeds and opens it
+ * again if it fails.</li>
+ * </ul>
+ * <p>
+ * The backoff doubles each time the circuit opens again without closing in between, up to the max backoff. The backoff
+ * is jittered between half and the whole of it, so that the tasks of a worker don't probe a recovering host all at once.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class CircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final String host;
+    private final int failureThreshold;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final Random random;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private int trips;
+    private long openUntil;
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * @param host             Only used for logging
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param backoffMillis    How long the circuit stays open the first time
+     * @param maxBackoffMillis Maximum time the circuit stays open
+     */
+    public CircuitBreaker(String host, int failureThreshold, long backoffMillis, long maxBackoffMillis) {
+        this(host, failureThreshold, backoffMillis, maxBackoffMillis, null);
+    }
+
+    CircuitBreaker(String host, int failureThreshold, long backoffMillis, long maxBackoffMillis, Random random) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold should be at least 1 but was " + failureThreshold);
+        }
+        if (backoffMillis < 1 || maxBackoffMillis < backoffMillis) {
+            throw new IllegalArgumentException("Invalid backoff " + backoffMillis + " ms with max backoff " + maxBackoffMillis + " ms");
+        }
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.random = random;
+    }
+
+    /**
+     * @return True if the request can be sent to the host. Moves an open circuit to half-open once its backoff elapsed.
+     */
+    public synchronized boolean allowRequest(long now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now >= openUntil) {
+                    logger.info("Circuit of {} is half-open. Probing it.", host);
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                //the probe is in flight
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit of {} is closed", host);
+        }
+        state = State.CLOSED;
+        failures = 0;
+        trips = 0;
+    }
+
+    public synchronized void onFailure(long now) {
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            trips++;
+            long backoff = jitter(backoff(trips));
+            openUntil = now + backoff;
+            state = State.OPEN;
+            logger.warn("Circuit of {} is open for {} ms after {} consecutive failure(s)", host, backoff, failures);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return Time in millis until which the requests fail fast. Only meaningful while the circuit is open.
+     */
+    public synchronized long getOpenUntil() {
+        return openUntil;
+    }
+
+    private long backoff(int trips) {
+        //doubles on each trip, without overflowing
+        int doublings = Math.min(trips - 1, 62);
+        long backoff = backoffMillis << doublings;
+        return backoff <= 0 || backoff >> doublings != backoffMillis ? maxBackoffMillis : Math.min(backoff, maxBackoffMillis);
+    }
+
+    private long jitter(long backoff) {
+        long half = backoff / 2;
+        Random r = random != null ? random : ThreadLocalRandom.current();
+        return half + (long) (r.nextDouble() * (backoff - half + 1));
+    }
+}
@@ -0,0 +1,67 @@
+package org.aravind.oss.jenkins;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the validators (<i>ETag</i> and <i>Last-Modified</i>) of the last response of each resource url,
+ * along with the value bound from that response. The least recently used resources are evicted once the cache is full.
+ * Used by {@link JenkinsClient#getIfModified(URL, Class)}.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class ConditionalGetCache {
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param maxEntries Maximum number of resource urls cached.
+     */
+    public ConditionalGetCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size should be at least 1 but was " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        //access order makes it an LRU
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ConditionalGetCache.this.maxEntries;
+            }
+        };
+    }
+
+    public synchronized Entry get(String resourceUrl) {
+        return entries.get(resourceUrl);
+    }
+
+    public synchronized void put(String resourceUrl, Entry entry) {
+        entries.put(resourceUrl, entry);
+    }
+
+    public synchronized void evict(String resourceUrl) {
+        entries.remove(resourceUrl);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public static class Entry {
+        public final String etag;
+        public final String lastModified;
+        public final Object value;
+
+        public Entry(String etag, String lastModified, Object value) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.aravind.oss.jenkins;
+
+import java.net.URL;
+
+/**
+ * Notified by the {@link JenkinsClient} once a response is read, for e.g. to record the metrics of the requests.
+ * Called by the requesting thread and so should be thread-safe and cheap.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public interface ExchangeListener {
+    /**
+     * @param url          The requested resource
+     * @param status       HTTP response code. -1 if there was no valid response.
+     * @param latencyNanos Time until the response headers were received, including the connection setup
+     * @param readNanos    Time spent reading and parsing the body
+     * @param bytes        Bytes of the body received, compressed if the response was compressed
+     */
+    void onExchange(URL url, int status, long latencyNanos, long readNanos, long bytes);
+}
@@ -0,0 +1,136 @@
+package org.aravind.oss.jenkins;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the requests to a single Jenkins host: a token bucket caps the requests per second and a semaphore caps the
+ * requests in flight. Thread-safe.
+ * <p>
+ * The bucket holds up to a second worth of requests, so short bursts are let through at once. Once it is empty the
+ * callers wait in the order they asked for a token. A limiter can be {@link #shared(String, int, double) shared} by
+ * all the clients of the JVM, i.e. by all the tasks of a worker, so that their requests add up to the limits. The
+ * shared limiters are counted by their users and dropped once all of them {@link #unshare() gave them back}.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class HostLimiter {
+    private static final Map<String, HostLimiter> shared = new ConcurrentHashMap<>();
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    //Null unless shared
+    private final String sharedKey;
+    //The clients sharing this limiter. Only changed while the registry entry is locked
+    private int references;
+    private final Semaphore inFlight;
+    private final double requestsPerSecond;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+
+    private static final Logger logger = LoggerFactory.getLogger(HostLimiter.class);
+
+    /**
+     * @param maxInFlight       Maximum number of concurrent requests
+     * @param requestsPerSecond Maximum rate of the requests. 0 doesn't limit the rate.
+     */
+    public HostLimiter(int maxInFlight, double requestsPerSecond) {
+        this(maxInFlight, requestsPerSecond, System.nanoTime(), null);
+    }
+
+    HostLimiter(int maxInFlight, double requestsPerSecond, long now) {
+        this(maxInFlight, requestsPerSecond, now, null);
+    }
+
+    private HostLimiter(int maxInFlight, double requestsPerSecond, long now, String sharedKey) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Maximum requests in flight should be at least 1 but was " + maxInFlight);
+        }
+        if (requestsPerSecond < 0) {
+            throw new IllegalArgumentException("Requests per second should be at least 0 but was " + requestsPerSecond);
+        }
+        this.sharedKey = sharedKey;
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = Math.max(1, requestsPerSecond);
+        this.tokens = burst;
+        this.lastRefill = now;
+    }
+
+    /**
+     * @return The limiter of the host shared by all the clients of this JVM with the same limits. Must be given back
+     * with {@link #unshare()} once the client no longer uses it.
+     */
+    public static HostLimiter shared(String host, int maxInFlight, double requestsPerSecond) {
+        return shared.compute(host + "|" + maxInFlight + "|" + requestsPerSecond, (k, limiter) -> {
+            if (limiter == null) {
+                logger.info("Sharing the limits of {}: {} requests per second and {} in flight", host, requestsPerSecond, maxInFlight);
+                limiter = new HostLimiter(maxInFlight, requestsPerSecond, System.nanoTime(), k);
+            }
+            limiter.references++;
+            return limiter;
+        });
+    }
+
+    /**
+     * Gives back a limiter got from {@link #shared(String, int, double)}. It is dropped once none of the clients use it.
+     * Does nothing if the limiter isn't shared.
+     */
+    public void unshare() {
+        if (sharedKey != null) {
+            shared.computeIfPresent(sharedKey, (k, limiter) -> limiter != this || --limiter.references > 0 ? limiter : null);
+        }
+    }
+
+    /**
+     * @return The number of limiters currently shared
+     */
+    static int sharedCount() {
+        return shared.size();
+    }
+
+    /**
+     * Waits for a token and then for a free slot. {@link #release()} must be called once the request completes.
+     */
+    public void acquire() throws InterruptedException {
+        if (requestsPerSecond > 0) {
+            long wait = reserve(System.nanoTime());
+            if (wait > 0) {
+                logger.trace("Rate limited. Waiting {} ns", wait);
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+        inFlight.acquire();
+    }
+
+    public void release() {
+        inFlight.release();
+    }
+
+    /**
+     * Takes a token, possibly one that is yet to be added to the bucket.
+     *
+     * @return Nanos to wait until the token is available
+     */
+    synchronized long reserve(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefill) * requestsPerSecond / NANOS_PER_SECOND);
+        lastRefill = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * NANOS_PER_SECOND / requestsPerSecond);
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public int getAvailableSlots() {
+        return inFlight.availablePermits();
+    }
+}
@@ -1,33 +1,98 @@
 package org.aravind.oss.jenkins;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.aravind.oss.jenkins.domain.Jenkins;
+import org.aravind.oss.jenkins.domain.ProgressiveText;
+import org.aravind.oss.jenkins.domain.TestReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Represents one single running instance of Jenkins. You will create one object per running Jenkins instance.
+ * <p>
+ * A client is meant to be long-lived and shared: it is thread-safe, the Basic authentication header is computed only
+ * once and every request can target a different resource url with {@link #get(URL)}. The connections are pooled by the
+ * keep-alive cache of {@link HttpURLConnection} (see the <i>http.maxConnections</i> system property), as long as the
+ * response streams are fully read and closed, which this client always does. The number of concurrent connections to a
+ * single host is bounded by {@link #setMaxConnectionsPerHost(int)} and their rate by {@link #setRateLimit(double, boolean)}. Responses are requested gzip or deflate compressed,
+ * see {@link #setCompressionEnabled(boolean)}.
+ * </p>
+ * <p>
+ * Resources polled for changes can be requested with {@link #getIfModified(URL, Class)} so that unchanged resources
+ * aren't transferred and parsed again.
+ * </p>
+ * <p>
+ * A {@link CircuitBreaker} per host can be enabled with {@link #setCircuitBreaker(int, long, long)}, so that a slow or
+ * unavailable host fails fast instead of every request waiting out the timeouts.
+ * </p>
  *
  * @author Aravind R Yarram
  * @since 0.5.0
  */
 public class JenkinsClient {
+    public static final int MAX_CONNECTIONS_PER_HOST_DEFAULT = 5;
+    /**
+     * Bytes of a response left unread by a reader that are still read, so that the connection can be reused.
+     */
+    static final long DRAIN_MAX_BYTES = 64 * 1024;
+
     private final int connTimeoutInMillis;
     private final int readTimeoutInMillis;
     private final URL resourceUrl;
     private Optional<String> userName = Optional.empty();
-    private Optional<String> passwordOrApiToken = Optional.empty();
-    private ObjectMapper mapper = new ObjectMapper();
+    private Optional<String> authorization = Optional.empty();
+    private volatile int maxConnectionsPerHost = MAX_CONNECTIONS_PER_HOST_DEFAULT;
+    private volatile double requestsPerSecond;
+    private volatile boolean sharedLimits;
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private volatile ConditionalGetCache responseCache;
+    private volatile boolean compressionEnabled = true;
+    private volatile ExchangeListener exchangeListener;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private volatile int circuitFailureThreshold;
+    private volatile long circuitBackoffMillis;
+    private volatile long circuitMaxBackoffMillis;
     private static final Logger logger = LoggerFactory.getLogger(JenkinsClient.class);
 
+    /**
+     * Creates a shared client that isn't bound to any resource. Use {@link #get(URL)} to GET the resources.
+     *
+     * @param connTimeout Connection timeout in milliseconds.
+     * @param readTimeout Response read timeout in milliseconds.
+     */
+    public JenkinsClient(int connTimeout, int readTimeout) {
+        this(null, connTimeout, readTimeout);
+    }
+
+    /**
+     * Creates a shared client that isn't bound to any resource. Use {@link #get(URL)} to GET the resources.
+     *
+     * @param uname       username if authentication is enabled in jenkins instance
+     * @param password    password or API token if authentication is enabled in jenkins instance
+     * @param connTimeout Connection timeout in milliseconds.
+     * @param readTimeout Response read timeout in milliseconds.
+     */
+    public JenkinsClient(String uname, String password, int connTimeout, int readTimeout) throws JenkinsException {
+        this(null, uname, password, connTimeout, readTimeout);
+    }
+
     /**
      * @param url         resource url of the jenkins item
      * @param connTimeout Connection timeout in milliseconds. This denotes the time elapsed before the connection established or Server responded to connection request.
@@ -55,55 +120,356 @@ public class JenkinsClient {
         }
         resourceUrl = url;
         userName = Optional.of(uname);
-        passwordOrApiToken = Optional.of(password);
+        authorization = Optional.of("Basic " + getAuthenticationString(uname, password));
         connTimeoutInMillis = connTimeout;
         readTimeoutInMillis = readTimeout;
     }
 
+    /**
+     * @param max Maximum number of concurrent connections to a single host. Callers exceeding it wait for a free connection.
+     */
+    public void setMaxConnectionsPerHost(int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("Maximum connections per host should be at least 1 but was " + max);
+        }
+        maxConnectionsPerHost = max;
+        releaseLimiters();
+    }
+
+    /**
+     * @param rps    Maximum requests per second to a single host. 0 doesn't limit the rate.
+     * @param shared If true the limits of each host, including the max connections, are shared by all the clients of
+     *               this JVM configured with the same limits. So the tasks of a worker add up to the limits.
+     */
+    public void setRateLimit(double rps, boolean shared) {
+        if (rps < 0) {
+            throw new IllegalArgumentException("Requests per second should be at least 0 but was " + rps);
+        }
+        requestsPerSecond = rps;
+        sharedLimits = shared;
+        releaseLimiters();
+    }
+
+    /**
+     * Gives back the limiters shared with the other clients. Meant to be called once the client is no longer used.
+     */
+    public void close() {
+        releaseLimiters();
+    }
+
+    private void releaseLimiters() {
+        hostLimiters.values().forEach(HostLimiter::unshare);
+        hostLimiters.clear();
+    }
+
+    public double getRateLimit() {
+        return requestsPerSecond;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public int getConnTimeoutInMillis() {
+        return connTimeoutInMillis;
+    }
+
+    public int getReadTimeoutInMillis() {
+        return readTimeoutInMillis;
+    }
+
     public HttpURLConnection connect() throws JenkinsException {
-        logger.trace("Connecting to {} with conn timeout {} ms and read timeout {} ms", resourceUrl, connTimeoutInMillis, readTimeoutInMillis);
+        return connect(resourceUrl);
+    }
+
+    public HttpURLConnection connect(URL url) throws JenkinsException {
+        return connect(url, Collections.emptyMap());
+    }
+
+    private HttpURLConnection connect(URL url, Map<String, String> headers) throws JenkinsException {
+        logger.trace("Connecting to {} with conn timeout {} ms and read timeout {} ms", url, connTimeoutInMillis, readTimeoutInMillis);
         HttpURLConnection conn = null;
         try {
-	    logger.trace("Using username {} for connection.", userName);
-	    conn = (HttpURLConnection) resourceUrl.openConnection();
+            conn = (HttpURLConnection) url.openConnection();
             conn.setConnectTimeout(connTimeoutInMillis);
             conn.setReadTimeout(readTimeoutInMillis);
-	    if (userName.isPresent()) {
-                conn.setRequestProperty("Authorization", "Basic " + getAuthenticationString());
+            if (authorization.isPresent()) {
+                conn.setRequestProperty("Authorization", authorization.get());
                 logger.trace("Using Basic Authentication with username {}", userName);
             }
+            if (compressionEnabled) {
+                conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
+            }
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
             conn.connect();
 
             return conn;
         } catch (IOException e) {
-            logger.error("Error while connecting to {}", resourceUrl, e);
-            throw new JenkinsException("Error while opening a connection to " + resourceUrl, e);
+            logger.error("Error while connecting to {}", url, e);
+            throw new JenkinsException("Error while opening a connection to " + url, e);
         }
     }
 
-    private String getAuthenticationString() {
-        String authString = userName.get() + ":" + passwordOrApiToken.get();
+    private static String getAuthenticationString(String uname, String password) {
+        String authString = uname + ":" + password;
         return Base64.getEncoder().encodeToString(authString.getBytes());
     }
 
+    /**
+     * @param enabled If true (the default) gzip or deflate compressed responses are requested with the <i>Accept-Encoding</i>
+     *                header. Compressed responses are decompressed while they are read.
+     */
+    public void setCompressionEnabled(boolean enabled) {
+        compressionEnabled = enabled;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * @param cache The cache of the validators used by {@link #getIfModified(URL, Class)}. Null disables the conditional requests.
+     */
+    public void setResponseCache(ConditionalGetCache cache) {
+        responseCache = cache;
+    }
+
+    public ConditionalGetCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * @param listener Notified of every response read by this client. Null to stop notifying.
+     */
+    public void setExchangeListener(ExchangeListener listener) {
+        exchangeListener = listener;
+    }
+
+    /**
+     * Enables a circuit breaker per host. Connection failures, timeouts and 5xx responses count as failures of the host.
+     *
+     * @param failureThreshold Consecutive failures that open the circuit of a host. 0 disables the circuit breakers.
+     * @param backoffMillis    How long the circuit stays open the first time. Doubles each time the probe fails.
+     * @param maxBackoffMillis Maximum time the circuit stays open
+     */
+    public void setCircuitBreaker(int failureThreshold, long backoffMillis, long maxBackoffMillis) {
+        if (failureThreshold > 0) {
+            //fail early on invalid settings
+            new CircuitBreaker("", failureThreshold, backoffMillis, maxBackoffMillis);
+        }
+        circuitFailureThreshold = failureThreshold;
+        circuitBackoffMillis = backoffMillis;
+        circuitMaxBackoffMillis = maxBackoffMillis;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * @return The state of the circuit of each host requested so far, keyed by the host (and port). Empty if the circuit
+     * breakers are disabled.
+     */
+    public Map<String, CircuitBreaker.State> getCircuitStates() {
+        Map<String, CircuitBreaker.State> states = new HashMap<>();
+        circuitBreakers.forEach((host, breaker) -> states.put(host, breaker.getState()));
+        return states;
+    }
+
     public Optional<String> get() throws JenkinsException {
-        logger.trace("GET to {}", resourceUrl);
-        HttpURLConnection conn = connect();
+        return get(resourceUrl);
+    }
+
+    public Optional<String> get(URL url) throws JenkinsException {
+        return exchange(url, Collections.emptyMap(), (conn, is) -> IOUtils.toString(is, Charset.forName("UTF-8")));
+    }
 
+    /**
+     * GETs the console log of a build from the byte offset <i>start</i> with its <i>logText/progressiveText</i> resource.
+     * At most <i>maxBytes</i> are kept. The rest of the response is drained, up to {@link #DRAIN_MAX_BYTES}, so that the
+     * connection can be reused. A longer rest is not worth reading and the connection is closed instead.
+     *
+     * @param buildUrl The url of the build, for e.g. https://builds.apache.org/job/Accumulo-1.8/18/
+     */
+    public Optional<ProgressiveText> getProgressiveText(String buildUrl, long start, int maxBytes) throws JenkinsException {
+        URL url;
         try {
-            InputStream is = conn.getInputStream();
-            String resp = IOUtils.toString(is, Charset.forName("UTF-8"));
+            url = new URL(buildUrl + "logText/progressiveText?start=" + start);
+        } catch (MalformedURLException e) {
+            throw new JenkinsException("Can't create the console log url of " + buildUrl, e);
+        }
+        return exchange(url, Collections.emptyMap(), (conn, is) -> {
+            //Grows with the text read, so that a short log doesn't cost maxBytes
+            ByteArrayOutputStream text = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+            long read = IOUtils.copyLarge(is, text, 0, maxBytes);
+            boolean truncated = read == maxBytes && is.read() != -1;
+            if (truncated && IOUtils.skip(is, DRAIN_MAX_BYTES) == DRAIN_MAX_BYTES) {
+                conn.disconnect();
+            }
+            String textSize = conn.getHeaderField("X-Text-Size");
+            return new ProgressiveText(start, text.toByteArray(),
+                    textSize == null ? -1 : Long.parseLong(textSize), Boolean.parseBoolean(conn.getHeaderField("X-More-Data")), truncated);
+        });
+    }
+
+    /**
+     * GETs the test results of a build with its <i>testReport</i> resource and reads them while the response is read.
+     * See {@link StreamingJsonReader#readTestReport(InputStream, int, int)}.
+     *
+     * @param buildUrl The url of the build, for e.g. https://builds.apache.org/job/Accumulo-1.8/18/
+     * @param tree     True to request only the fields of {@link TestReport#TREE}
+     * @return Empty if the build has no test results
+     */
+    public Optional<TestReport> getTestReport(String buildUrl, boolean tree, int maxFailedCases, int maxTextLength) throws JenkinsException {
+        String resource = buildUrl + "testReport/api/json";
+        URL url;
+        try {
+            url = new URL(tree ? withTree(resource, TestReport.TREE) : resource);
+        } catch (MalformedURLException e) {
+            throw new JenkinsException("Can't create the test report url of " + buildUrl, e);
+        }
+        return exchange(url, Collections.emptyMap(), (conn, is) -> StreamingJsonReader.readTestReport(is, maxFailedCases, maxTextLength));
+    }
+
+    /**
+     * GETs the JSON resource and keeps only the fields kept by the filter while the response is read. The full
+     * response is never held in memory.
+     */
+    public Optional<String> get(URL url, JsonFieldFilter filter) throws JenkinsException {
+        if (filter == null || filter.isPassThrough()) {
+            return get(url);
+        }
+        return exchange(url, Collections.emptyMap(), (conn, is) -> filter.filter(is));
+    }
+
+    /**
+     * GETs the JSON resource and binds it to the given type while the response is read. See {@link StreamingJsonReader}.
+     */
+    public <T> Optional<T> get(URL url, Class<T> type) throws JenkinsException {
+        return exchange(url, Collections.emptyMap(), (conn, is) -> StreamingJsonReader.read(is, type));
+    }
+
+    /**
+     * Conditional GET of the JSON resource. The <i>ETag</i> and <i>Last-Modified</i> validators of the previous response
+     * are sent as <i>If-None-Match</i> and <i>If-Modified-Since</i>. If Jenkins answers <i>304 Not Modified</i> the resource is
+     * unchanged: no body is transferred and the value bound from the previous response is returned without parsing again.
+     * Behaves like {@link #get(URL, Class)} if no {@link #setResponseCache(ConditionalGetCache) cache} is set.
+     * <p>
+     * The returned values are shared across the calls and so shouldn't be modified.
+     * </p>
+     */
+    public <T> Optional<T> getIfModified(URL url, Class<T> type) throws JenkinsException {
+        ConditionalGetCache cache = responseCache;
+        if (cache == null) {
+            return get(url, type);
+        }
+
+        String key = url.toString();
+        ConditionalGetCache.Entry cached = cache.get(key);
+        Map<String, String> headers = new HashMap<>();
+        if (cached != null && type.isInstance(cached.value)) {
+            if (cached.etag != null) headers.put("If-None-Match", cached.etag);
+            if (cached.lastModified != null) headers.put("If-Modified-Since", cached.lastModified);
+        }
+
+        return exchange(url, headers, (conn, is) -> {
+            if (conn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED && !headers.isEmpty()) {
+                logger.debug("{} is unchanged since the last GET", url);
+                return type.cast(cached.value);
+            }
+            T value = StreamingJsonReader.read(is, type);
+            String etag = conn.getHeaderField("ETag");
+            String lastModified = conn.getHeaderField("Last-Modified");
+            if (etag != null || lastModified != null) {
+                cache.put(key, new ConditionalGetCache.Entry(etag, lastModified, value));
+            }
+            return value;
+        });
+    }
 
-            // close the input stream so that the connection can be reused
-            is.close();
+    /**
+     * Reads the body of a successful response.
+     */
+    private interface ResponseReader<T> {
+        T read(HttpURLConnection conn, InputStream is) throws IOException;
+    }
 
-            return Optional.of(resp);
+    private <T> Optional<T> exchange(URL url, Map<String, String> headers, ResponseReader<T> reader) throws JenkinsException {
+        //The shared limiter of a host is got once per client, so that it is counted once
+        HostLimiter limiter = hostLimiters.computeIfAbsent(url.getAuthority(), h -> sharedLimits
+                ? HostLimiter.shared(h, maxConnectionsPerHost, requestsPerSecond) : new HostLimiter(maxConnectionsPerHost, requestsPerSecond));
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JenkinsException("Interrupted while waiting for a connection to " + url, e);
+        }
+        try {
+            //Asked only once the request can be sent. A half-open circuit then always learns the outcome of its probe,
+            //even if waiting for the limiter was interrupted.
+            CircuitBreaker breaker = circuitFailureThreshold > 0 ? circuitBreakers.computeIfAbsent(url.getAuthority(),
+                    h -> new CircuitBreaker(h, circuitFailureThreshold, circuitBackoffMillis, circuitMaxBackoffMillis)) : null;
+            if (breaker != null && !breaker.allowRequest(System.currentTimeMillis())) {
+                throw new JenkinsException("Circuit of " + url.getAuthority() + " is " + breaker.getState() + ". Not requesting " + url);
+            }
+            return doGet(url, headers, reader, breaker);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private <T> Optional<T> doGet(URL url, Map<String, String> headers, ResponseReader<T> reader, CircuitBreaker breaker) throws JenkinsException {
+        logger.trace("GET to {}", url);
+        //Only the failures of the host count against its circuit. So an unexpected error is taken as healthy.
+        boolean hostHealthy = true;
+        try {
+            return doGet(url, headers, reader);
+        } catch (HostException e) {
+            hostHealthy = false;
+            return Optional.empty();
+        } catch (JenkinsException e) {
+            hostHealthy = false;
+            throw e;
+        } finally {
+            if (breaker != null) {
+                if (hostHealthy) {
+                    breaker.onSuccess();
+                } else {
+                    breaker.onFailure(System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    /**
+     * The host timed out or responded with a server error.
+     */
+    private static class HostException extends Exception {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private <T> Optional<T> doGet(URL url, Map<String, String> headers, ResponseReader<T> reader) throws JenkinsException, HostException {
+        long start = System.nanoTime();
+        HttpURLConnection conn = connect(url, headers);
+
+        int respCode = -1;
+        boolean timedOut = false;
+        long received = start;
+        CountingInputStream body = null;
+        try {
+            body = new CountingInputStream(conn.getInputStream());
+            received = System.nanoTime();
+            respCode = conn.getResponseCode();
+            // close the input stream, even if the response can't be read, so that the connection can be reused
+            try (InputStream raw = body; InputStream is = decode(conn, raw)) {
+                return Optional.of(reader.read(conn, is));
+            }
         } catch (IOException e) {
-            logger.warn("IGNORING this exception. Just a WARNING to debug this issue. Error while HTTP GET to {}", resourceUrl, e);
+            timedOut = e instanceof SocketTimeoutException;
+            logger.warn("IGNORING this exception. Just a WARNING to debug this issue. Error while HTTP GET to {}", url, e);
             //Need to read even the error stream so that we can take advantage of socket reuse in Keep-Alive
             //http://docs.oracle.com/javase/7/docs/technotes/guides/net/http-keepalive.html
             try {
-                int respCode = ((HttpURLConnection) conn).getResponseCode();
+                respCode = ((HttpURLConnection) conn).getResponseCode();
                 logger.warn("HTTP response code {}", respCode);
                 InputStream es = ((HttpURLConnection) conn).getErrorStream();
 
@@ -117,22 +483,57 @@ public class JenkinsClient {
             } catch (IOException ex) {
                 // ignore the exception
             }
+        } finally {
+            ExchangeListener listener = exchangeListener;
+            if (listener != null) {
+                long end = System.nanoTime();
+                if (body == null) {
+                    //the error responses are timed up to their end
+                    received = end;
+                }
+                listener.onExchange(url, timedOut ? -1 : respCode, received - start, end - received, body == null ? 0 : body.getByteCount());
+            }
+        }
+        if (timedOut || respCode < 0 || respCode >= HttpURLConnection.HTTP_INTERNAL_ERROR) {
+            throw new HostException();
         }
         return Optional.empty();
     }
 
-    public Optional<Jenkins> getJenkins() throws JenkinsException {
-        Optional<String> resp = get();
+    /**
+     * @return The stream decompressing the body as per the <i>Content-Encoding</i> of the response
+     */
+    private static InputStream decode(HttpURLConnection conn, InputStream is) throws IOException {
+        String encoding = conn.getContentEncoding();
+        if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+            return new GZIPInputStream(is);
+        }
+        if ("deflate".equalsIgnoreCase(encoding)) {
+            return new InflaterInputStream(is);
+        }
+        return is;
+    }
 
-        if (resp.isPresent()) {
-            try {
-                Jenkins j = mapper.readValue(resp.get(), Jenkins.class);
-                return Optional.of(j);
-            } catch (IOException e) {
-                logger.error("Error while parsing the JSON {}", resp.get(), e);
-                return Optional.empty();
-            }
+    /**
+     * Restricts the JSON returned by a Jenkins REST resource to the given fields using the <i>tree</i> query parameter.
+     * For e.g. <code>withTree("https://builds.apache.org/api/json", "jobs[name,url]")</code>
+     *
+     * @param resource REST resource without any query parameters
+     * @param tree     Jenkins tree expression. Null or empty returns the resource as is.
+     * @return resource with the tree query parameter
+     */
+    public static String withTree(String resource, String tree) {
+        if (tree == null || tree.isEmpty()) {
+            return resource;
         }
-        return Optional.empty();
+        try {
+            return resource + "?tree=" + URLEncoder.encode(tree, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is always supported", e);
+        }
+    }
+
+    public Optional<Jenkins> getJenkins() throws JenkinsException {
+        return get(resourceUrl, Jenkins.class);
     }
 }
@@ -0,0 +1,225 @@
+package org.aravind.oss.jenkins;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filters the fields of a JSON document while it is read from the response stream, so that only the kept fields are
+ * ever held in memory. Useful to keep the build details small when a Jenkins <i>tree</i> expression can't express it,
+ * for e.g. to drop the <i>changeSet</i> or to keep only the first few <i>artifacts</i> of a build.
+ * <p>
+ * A path is the dot separated field names from the root, for e.g. <code>changeSet.items.affectedPaths</code>. The
+ * arrays don't add to the path: a path continues into the fields of the array elements. <code>*</code> matches any
+ * single field name. A rule matches the field it names and everything below it.
+ * </p>
+ * <ul>
+ * <li>Includes: if any, only the matched fields (and the objects and arrays leading to them) are kept. The objects and
+ * arrays, including the array elements, left without any included field are dropped.</li>
+ * <li>Excludes: the matched fields are dropped, even if they are included.</li>
+ * <li>Max array elements: only the first kept elements of every array are kept. 0 keeps all of them.</li>
+ * </ul>
+ * <p>
+ * Immutable and so safe to share between threads.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public final class JsonFieldFilter {
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final List<String[]> includes;
+    private final List<String[]> excludes;
+    private final int maxArrayElements;
+
+    private enum Match {
+        /**
+         * The field and everything below it is dropped
+         */
+        SKIP,
+        /**
+         * The field leads to an included field. Only its included fields are kept.
+         */
+        PARTIAL,
+        /**
+         * The field and everything below it is kept, except for the excluded fields
+         */
+        COVERED
+    }
+
+    /**
+     * @param includes         The paths to keep. Empty keeps all the paths.
+     * @param excludes         The paths to drop
+     * @param maxArrayElements Elements of each array to keep. 0 keeps all of them.
+     */
+    public JsonFieldFilter(List<String> includes, List<String> excludes, int maxArrayElements) {
+        if (maxArrayElements < 0) {
+            throw new IllegalArgumentException("maxArrayElements can't be negative: " + maxArrayElements);
+        }
+        this.includes = parse(includes);
+        this.excludes = parse(excludes);
+        this.maxArrayElements = maxArrayElements;
+    }
+
+    private static List<String[]> parse(List<String> paths) {
+        if (paths == null) {
+            return Collections.emptyList();
+        }
+        List<String[]> parsed = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            if (path != null && !path.trim().isEmpty()) {
+                parsed.add(path.trim().split("\\."));
+            }
+        }
+        return Collections.unmodifiableList(parsed);
+    }
+
+    /**
+     * @return True if the filter keeps every document as it is
+     */
+    public boolean isPassThrough() {
+        return includes.isEmpty() && excludes.isEmpty() && maxArrayElements == 0;
+    }
+
+    /**
+     * Reads the JSON document and writes the kept fields.
+     *
+     * @return The filtered document. Empty if the stream has no content.
+     */
+    public String filter(InputStream is) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonParser p = factory.createParser(is); JsonGenerator g = factory.createGenerator(out)) {
+            if (p.nextToken() != null) {
+                copy(p, g, new ArrayList<>(), includes.isEmpty());
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Copies the value at the current token, which is reached by the given path.
+     */
+    private void copy(JsonParser p, JsonGenerator g, List<String> path, boolean covered) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            g.writeStartObject();
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.getCurrentName();
+                path.add(field);
+                JsonToken value = p.nextToken();
+                Match match = match(path, covered);
+                if (match == Match.SKIP || (match == Match.PARTIAL && value.isScalarValue())) {
+                    p.skipChildren();
+                } else if (match == Match.COVERED) {
+                    g.writeFieldName(field);
+                    copy(p, g, path, true);
+                } else {
+                    String kept = copyPartial(p, path);
+                    if (kept != null) {
+                        g.writeFieldName(field);
+                        g.writeRawValue(kept);
+                    }
+                }
+                path.remove(path.size() - 1);
+            }
+            g.writeEndObject();
+        } else if (token == JsonToken.START_ARRAY) {
+            g.writeStartArray();
+            int elements = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (maxArrayElements > 0 && elements >= maxArrayElements) {
+                    p.skipChildren();
+                } else if (covered) {
+                    copy(p, g, path, true);
+                    elements++;
+                } else {
+                    String kept = copyPartial(p, path);
+                    if (kept != null) {
+                        g.writeRawValue(kept);
+                        elements++;
+                    }
+                }
+            }
+            g.writeEndArray();
+        } else {
+            g.copyCurrentEvent(p);
+        }
+    }
+
+    /**
+     * Copies a value reached by a partial match aside, as it may have none of the included fields. Only its kept
+     * fields are held in memory.
+     *
+     * @return The kept value. Null if it is an object or array left empty, so that it is dropped.
+     */
+    private String copyPartial(JsonParser p, List<String> path) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator aside = factory.createGenerator(out)) {
+            copy(p, aside, path, false);
+        }
+        String kept = out.toString();
+        return "{}".equals(kept) || "[]".equals(kept) ? null : kept;
+    }
+
+    private Match match(List<String> path, boolean covered) {
+        for (String[] exclude : excludes) {
+            if (isPrefix(exclude, path)) {
+                return Match.SKIP;
+            }
+        }
+        if (covered) {
+            return Match.COVERED;
+        }
+        boolean partial = false;
+        for (String[] include : includes) {
+            if (isPrefix(include, path)) {
+                return Match.COVERED;
+            }
+            partial |= isPrefix(path, include);
+        }
+        return partial ? Match.PARTIAL : Match.SKIP;
+    }
+
+    /**
+     * @return True if every segment of the rule matches the path, which may be longer
+     */
+    private static boolean isPrefix(String[] rule, List<String> path) {
+        if (rule.length > path.size()) {
+            return false;
+        }
+        for (int i = 0; i < rule.length; i++) {
+            if (!segmentMatches(rule[i], path.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the path is shorter than the rule and leads to it
+     */
+    private static boolean isPrefix(List<String> path, String[] rule) {
+        if (path.size() >= rule.length) {
+            return false;
+        }
+        for (int i = 0; i < path.size(); i++) {
+            if (!segmentMatches(rule[i], path.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean segmentMatches(String rule, String field) {
+        return "*".equals(rule) || rule.equals(field);
+    }
+}
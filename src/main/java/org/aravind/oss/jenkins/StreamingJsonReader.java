@@ -0,0 +1,294 @@
+package org.aravind.oss.jenkins;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aravind.oss.jenkins.domain.Build;
+import org.aravind.oss.jenkins.domain.BuildCollection;
+import org.aravind.oss.jenkins.domain.Jenkins;
+import org.aravind.oss.jenkins.domain.Job;
+import org.aravind.oss.jenkins.domain.TestReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the Jenkins REST responses directly from the response stream using the Jackson streaming {@link JsonParser}.
+ * The response is never buffered as a String. Only the fields read by the connector are bound; every other subtree,
+ * for e.g. the whole <i>builds</i> history of a job, is skipped token by token without being materialized.
+ * <p>
+ * {@link Jenkins}, {@link BuildCollection}, {@link Job} and {@link Build} have hand written readers. Any other type is
+ * bound with an {@link ObjectMapper}, which streams as well but builds the whole object.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public final class StreamingJsonReader {
+    private static final JsonFactory factory = new JsonFactory();
+    private static final ObjectMapper mapper = new ObjectMapper(factory);
+
+    private StreamingJsonReader() {
+    }
+
+    public static <T> T read(InputStream is, Class<T> type) throws IOException {
+        if (type != Jenkins.class && type != BuildCollection.class && type != Job.class && type != Build.class) {
+            return mapper.readValue(is, type);
+        }
+        try (JsonParser p = factory.createParser(is)) {
+            if (p.nextToken() == null) {
+                throw new JsonParseException(p, "No content to bind to " + type.getSimpleName());
+            }
+            Object value;
+            if (type == Jenkins.class) {
+                value = readJenkins(p);
+            } else if (type == BuildCollection.class) {
+                value = readBuildCollection(p);
+            } else if (type == Job.class) {
+                value = readJob(p);
+            } else {
+                value = readBuild(p);
+            }
+            return type.cast(value);
+        }
+    }
+
+    /**
+     * Reads the <i>jobs</i> of the all jobs (or folder) resource.
+     */
+    public static Jenkins readJenkins(JsonParser p) throws IOException {
+        Jenkins jenkins = new Jenkins();
+        return readObject(p, jenkins, (field, v) -> {
+            if ("jobs".equals(field)) {
+                List<Job> jobs = readList(v, StreamingJsonReader::readJob);
+                if (jobs != null) jenkins.setJobs(jobs);
+            } else {
+                v.skipChildren();
+            }
+        });
+    }
+
+    /**
+     * Reads the <i>name</i>, <i>lastBuild</i> and <i>allBuilds</i> of a job. The <i>builds</i> history is skipped.
+     */
+    public static BuildCollection readBuildCollection(JsonParser p) throws IOException {
+        BuildCollection builds = new BuildCollection();
+        return readObject(p, builds, (field, v) -> {
+            switch (field) {
+                case "name":
+                    builds.setName(v.getValueAsString());
+                    break;
+                case "lastBuild":
+                    builds.setLastBuild(readBuild(v));
+                    break;
+                case "allBuilds":
+                    builds.setAllBuilds(readList(v, StreamingJsonReader::readBuild));
+                    break;
+                default:
+                    v.skipChildren();
+            }
+        });
+    }
+
+    public static Job readJob(JsonParser p) throws IOException {
+        Job job = new Job();
+        return readObject(p, job, (field, v) -> {
+            switch (field) {
+                case "_class":
+                    job.setType(v.getValueAsString());
+                    break;
+                case "name":
+                    job.setName(v.getValueAsString());
+                    break;
+                case "url":
+                    job.setUrl(v.getValueAsString());
+                    break;
+                case "color":
+                    job.setColor(v.getValueAsString());
+                    break;
+                case "lastBuild":
+                    job.setLastBuild(readBuild(v));
+                    break;
+                default:
+                    v.skipChildren();
+            }
+        });
+    }
+
+    public static Build readBuild(JsonParser p) throws IOException {
+        Build build = new Build();
+        return readObject(p, build, (field, v) -> {
+            switch (field) {
+                case "_class":
+                    build.setType(v.getValueAsString());
+                    break;
+                case "number":
+                    build.setNumber(v.currentToken() == JsonToken.VALUE_NULL ? null : v.getLongValue());
+                    break;
+                case "url":
+                    build.setUrl(v.getValueAsString());
+                    break;
+                case "timestamp":
+                    build.setTimestamp(v.currentToken() == JsonToken.VALUE_NULL ? null : v.getLongValue());
+                    break;
+                case "building":
+                    build.setBuilding(v.currentToken() == JsonToken.VALUE_NULL ? null : v.getBooleanValue());
+                    break;
+                default:
+                    v.skipChildren();
+            }
+        });
+    }
+
+    /**
+     * Reads the <i>suites</i> of a <i>testReport</i> resource one case at a time. Only the totals of each suite and the
+     * first <i>maxFailedCases</i> failed cases are kept, so the memory doesn't grow with the number of tests.
+     *
+     * @param maxTextLength The error details and stack traces are truncated to this many characters
+     */
+    public static TestReport readTestReport(InputStream is, int maxFailedCases, int maxTextLength) throws IOException {
+        try (JsonParser p = factory.createParser(is)) {
+            if (p.nextToken() == null) {
+                throw new JsonParseException(p, "No content to bind to " + TestReport.class.getSimpleName());
+            }
+            TestReport report = new TestReport();
+            return readObject(p, report, (field, v) -> {
+                if ("suites".equals(field) && v.currentToken() == JsonToken.START_ARRAY) {
+                    while (v.nextToken() != JsonToken.END_ARRAY) {
+                        report.addSuite(readSuite(v, report, maxFailedCases, maxTextLength));
+                    }
+                } else {
+                    v.skipChildren();
+                }
+            });
+        }
+    }
+
+    private static TestReport.Suite readSuite(JsonParser p, TestReport report, int maxFailedCases, int maxTextLength) throws IOException {
+        TestReport.Suite suite = new TestReport.Suite();
+        //the cases may be listed before the name of the suite
+        List<TestReport.FailedCase> failed = new ArrayList<>();
+        readObject(p, suite, (field, v) -> {
+            switch (field) {
+                case "name":
+                    suite.name = v.getValueAsString();
+                    break;
+                case "duration":
+                    suite.duration = v.getValueAsDouble();
+                    break;
+                case "cases":
+                    if (v.currentToken() != JsonToken.START_ARRAY) {
+                        v.skipChildren();
+                        break;
+                    }
+                    while (v.nextToken() != JsonToken.END_ARRAY) {
+                        TestReport.FailedCase c = readCase(v, maxTextLength);
+                        if (TestReport.isFailed(c.status)) {
+                            suite.failCount++;
+                            if (report.getFailedCases().size() + failed.size() < maxFailedCases) {
+                                failed.add(c);
+                            } else {
+                                report.dropFailedCase();
+                            }
+                        } else if ("SKIPPED".equals(c.status)) {
+                            suite.skipCount++;
+                        } else {
+                            suite.passCount++;
+                        }
+                    }
+                    break;
+                default:
+                    v.skipChildren();
+            }
+        });
+        for (TestReport.FailedCase c : failed) {
+            c.suite = suite.name;
+            report.addFailedCase(c);
+        }
+        return suite;
+    }
+
+    /**
+     * @return The case, whether it failed or not
+     */
+    private static TestReport.FailedCase readCase(JsonParser p, int maxTextLength) throws IOException {
+        TestReport.FailedCase c = new TestReport.FailedCase();
+        readObject(p, c, (field, v) -> {
+            switch (field) {
+                case "className":
+                    c.className = v.getValueAsString();
+                    break;
+                case "name":
+                    c.name = v.getValueAsString();
+                    break;
+                case "duration":
+                    c.duration = v.getValueAsDouble();
+                    break;
+                case "status":
+                    c.status = v.getValueAsString();
+                    break;
+                case "errorDetails":
+                    c.errorDetails = truncate(v.getValueAsString(), maxTextLength);
+                    break;
+                case "errorStackTrace":
+                    c.errorStackTrace = truncate(v.getValueAsString(), maxTextLength);
+                    break;
+                default:
+                    v.skipChildren();
+            }
+        });
+        return c;
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text == null || text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+
+    /**
+     * Reads the value of a single field. The parser is positioned on the first token of the value and the reader must
+     * consume the whole value.
+     */
+    private interface FieldReader {
+        void read(String field, JsonParser p) throws IOException;
+    }
+
+    private interface ValueReader<T> {
+        T read(JsonParser p) throws IOException;
+    }
+
+    /**
+     * @return The given object populated from the object at the current token, or null for a JSON null
+     */
+    private static <T> T readObject(JsonParser p, T object, FieldReader reader) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(p, "Expected an object for " + object.getClass().getSimpleName() + " but was " + p.currentToken());
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.getCurrentName();
+            p.nextToken();
+            reader.read(field, p);
+        }
+        return object;
+    }
+
+    private static <T> List<T> readList(JsonParser p, ValueReader<T> reader) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(p, "Expected an array but was " + p.currentToken());
+        }
+        List<T> values = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            values.add(reader.read(p));
+        }
+        return values;
+    }
+}
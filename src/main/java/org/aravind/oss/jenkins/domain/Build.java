@@ -1,14 +1,7 @@
 package org.aravind.oss.jenkins.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import org.aravind.oss.jenkins.JenkinsClient;
-import org.aravind.oss.jenkins.JenkinsException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.Optional;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * @author Aravind R Yarram
@@ -16,9 +9,35 @@ import java.util.Optional;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Build extends JenkinsItem {
+    /**
+     * The <i>_class</i> of the builds of the Pipeline jobs
+     */
+    public static final String PIPELINE_RUN = "org.jenkinsci.plugins.workflow.job.WorkflowRun";
+
+    @JsonProperty("_class")
+    private String type;
     private Long number;
     private String url;
-    private static final Logger logger = LoggerFactory.getLogger(Build.class);
+    private Long timestamp;
+    private Boolean building;
+
+    /**
+     * @return The <i>_class</i> of the build, for e.g. hudson.model.FreeStyleBuild. Null for Jenkins versions that don't report it.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * @return False if the build is known not to be a Pipeline run. A build of unknown type may be one.
+     */
+    public boolean mayBePipelineRun() {
+        return type == null || PIPELINE_RUN.equals(type);
+    }
 
     public Long getNumber() {
         return number;
@@ -36,26 +55,26 @@ public class Build extends JenkinsItem {
         this.url = url;
     }
 
-    public String getBuildDetailsResource() {
-        return getUrl() != null ? getUrl() + "api/json" : null;
+    /**
+     * @return Start time of the build in milliseconds since epoch, if it was requested
+     */
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * @return True while the build is running, if it was requested
+     */
+    public Boolean getBuilding() {
+        return building;
     }
 
-    public Optional<String> getDetails() {
-        logger.debug("GET build details for {}", getBuildDetailsResource());
-	String username = getUsername();
-	String password = getPassword();
-        try {
-            if (username != null && !username.isEmpty()) {
-	    setClient(new JenkinsClient(new URL(getBuildDetailsResource()), username, password, getConnTimeoutInMillis(), getReadTimeoutInMillis()));
-	}	
-	else {
-	    setClient(new JenkinsClient(new URL(getBuildDetailsResource()), getConnTimeoutInMillis(), getReadTimeoutInMillis()));
-	}
-	    return getClient().get();
-        } catch (MalformedURLException | JenkinsException e) {
-            logger.error("WARNING only. Unable to get the build details from {}", getUrl(), e);
-            return Optional.empty();
-        }
+    public void setBuilding(Boolean building) {
+        this.building = building;
     }
 
     @Override
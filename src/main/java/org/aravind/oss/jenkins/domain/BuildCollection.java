@@ -10,9 +10,16 @@ import java.util.List;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class BuildCollection {
+    /**
+     * Projection of the fields needed to detect a new build. Used with the <i>tree</i> query parameter.
+     * This leaves out the {@link #getBuilds()} which can have hundreds of entries for busy jobs.
+     */
+    public static final String TREE = "name,lastBuild[number,url]";
+
     private String name;
     private List<Build> builds;
     private Build lastBuild;
+    private List<Build> allBuilds;
 
     public String getName() {
         return name;
@@ -22,6 +29,9 @@ public class BuildCollection {
         this.name = name;
     }
 
+    /**
+     * @return The build history. Not bound when read by the {@link org.aravind.oss.jenkins.StreamingJsonReader}, which skips it.
+     */
     public List<Build> getBuilds() {
         return builds;
     }
@@ -30,6 +40,17 @@ public class BuildCollection {
         this.builds = builds;
     }
 
+    /**
+     * @return The builds requested with a ranged <i>allBuilds</i> tree, for e.g. <code>allBuilds[number,url]{0,10}</code>. Newest first.
+     */
+    public List<Build> getAllBuilds() {
+        return allBuilds;
+    }
+
+    public void setAllBuilds(List<Build> allBuilds) {
+        this.allBuilds = allBuilds;
+    }
+
     public Build getLastBuild() {
         return lastBuild;
     }
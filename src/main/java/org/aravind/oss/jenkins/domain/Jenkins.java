@@ -6,13 +6,29 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * Domain object representing the all jobs resource: /api/json
+ * Domain object representing the all jobs resource: /api/json. The same resource of a folder lists the jobs of the folder.
  *
  * @author Aravind R Yarram
  * @since 0.5.0
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Jenkins {
+    /**
+     * Projection of the fields read from this resource. Used with the <i>tree</i> query parameter.
+     */
+    public static final String TREE = "jobs[name,url,color]";
+
+    /**
+     * Projection of the fields read from this resource along with the start time of the lastBuild of every job. Used to
+     * estimate how busy each job is.
+     */
+    public static final String ACTIVITY_TREE = "jobs[name,url,color,lastBuild[timestamp]]";
+
+    /**
+     * Projection of the lastBuild of every job. Used to detect the changed jobs with a single request.
+     */
+    public static final String LAST_BUILDS_TREE = "jobs[name,url,lastBuild[number,url]]";
+
     private List<Job> jobs;
 
     public List<Job> getJobs() {
@@ -1,17 +1,14 @@
 package org.aravind.oss.jenkins.domain;
 
-import org.aravind.oss.jenkins.JenkinsClient;
-
 /**
  * Base abstraction that all Jenkin's domain classes extend from.
- * This encapsulates the properties required to fetch dependent parts of the whole.
- * For e.g. A {@link Build} need to obtain {@link Build#getDetails()}.
+ * This encapsulates the credentials and timeouts of the item. Its dependent parts are fetched by the task with the
+ * shared client of the controller.
  *
  * @author Aravind R Yarram
  * @since 0.5.0
  */
 public class JenkinsItem {
-    protected JenkinsClient client;
     protected int connTimeoutInMillis;
     protected int readTimeoutInMillis;
     protected String username;
@@ -33,20 +30,12 @@ public class JenkinsItem {
         this.connTimeoutInMillis = connTimeoutInMillis;
     }
 
-    public JenkinsClient getClient() {
-        return client;
-    }
-
-    public void setClient(JenkinsClient client) {
-        this.client = client;
-    }
-
     public String getUsername() {
         return username;
     }
 
     public void setUsername(String username) {
-        this.username  = username;
+        this.username = username;
     }
 
     public String getPassword() {
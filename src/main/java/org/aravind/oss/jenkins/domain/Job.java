@@ -1,6 +1,8 @@
 package org.aravind.oss.jenkins.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * @author Aravind R Yarram
@@ -8,9 +10,33 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Job extends JenkinsItem {
+    @JsonProperty("_class")
+    private String type;
     private String name;
     private String url;
     private String color;
+    private Build lastBuild;
+    @JsonIgnore
+    private String controller;
+
+    /**
+     * @return The <i>_class</i> of the item, for e.g. hudson.model.FreeStyleProject. Null for Jenkins versions that don't report it.
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * @return True if the item is a folder of jobs instead of a job, for e.g. a CloudBees Folder, an organization folder
+     * or a multibranch project (whose jobs are the branches).
+     */
+    public boolean isFolder() {
+        return type != null && (type.endsWith("Folder") || type.endsWith("MultiBranchProject"));
+    }
 
     public String getColor() {
         return color;
@@ -20,6 +46,29 @@ public class Job extends JenkinsItem {
         this.color = color;
     }
 
+    /**
+     * @return The lastBuild if it was requested, for e.g. with {@link Jenkins#LAST_BUILDS_TREE}. Null otherwise or if the job has no builds.
+     */
+    public Build getLastBuild() {
+        return lastBuild;
+    }
+
+    public void setLastBuild(Build lastBuild) {
+        this.lastBuild = lastBuild;
+    }
+
+    /**
+     * @return Alias of the controller the job was listed from. Not part of the Jenkins API. Null if the connector polls
+     * a single controller.
+     */
+    public String getController() {
+        return controller;
+    }
+
+    public void setController(String controller) {
+        this.controller = controller;
+    }
+
     public String getName() {
         return name;
     }
@@ -39,9 +88,11 @@ public class Job extends JenkinsItem {
     @Override
     public String toString() {
         return "Job{" +
-                "name='" + name + '\'' +
+                "type='" + type + '\'' +
+                ", name='" + name + '\'' +
                 ", url='" + url + '\'' +
                 ", color='" + color + '\'' +
+                ", lastBuild=" + lastBuild +
                 '}';
     }
 }
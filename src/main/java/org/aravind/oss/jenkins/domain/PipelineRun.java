@@ -0,0 +1,85 @@
+package org.aravind.oss.jenkins.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * A build of a Pipeline job along with its stages, as described by the <i>wfapi/describe</i> resource of the Pipeline
+ * Stage View plugin. The times are in milliseconds.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PipelineRun {
+    private String id;
+    private String name;
+    private String status;
+    private Long startTimeMillis;
+    private Long durationMillis;
+    private List<PipelineStage> stages;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return For e.g. SUCCESS, FAILED, ABORTED or IN_PROGRESS
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public void setStartTimeMillis(Long startTimeMillis) {
+        this.startTimeMillis = startTimeMillis;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return The stages in the order they ran. Null if the run has none.
+     */
+    public List<PipelineStage> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<PipelineStage> stages) {
+        this.stages = stages;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineRun{" +
+                "id='" + id + '\'' +
+                ", status='" + status + '\'' +
+                ", stages=" + stages +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package org.aravind.oss.jenkins.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * A stage of a {@link PipelineRun}. The times are in milliseconds.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PipelineStage {
+    private String id;
+    private String name;
+    private String status;
+    private Long startTimeMillis;
+    private Long durationMillis;
+    private Long pauseDurationMillis;
+
+    /**
+     * @return Id of the flow node of the stage, unique within its run
+     */
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return For e.g. SUCCESS, FAILED, ABORTED, NOT_EXECUTED or IN_PROGRESS
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    public void setStartTimeMillis(Long startTimeMillis) {
+        this.startTimeMillis = startTimeMillis;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * @return Time the stage waited for an input or a lock, included in its duration
+     */
+    public Long getPauseDurationMillis() {
+        return pauseDurationMillis;
+    }
+
+    public void setPauseDurationMillis(Long pauseDurationMillis) {
+        this.pauseDurationMillis = pauseDurationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineStage{" +
+                "name='" + name + '\'' +
+                ", status='" + status + '\'' +
+                ", durationMillis=" + durationMillis +
+                '}';
+    }
+}
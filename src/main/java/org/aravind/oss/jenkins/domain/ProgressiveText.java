@@ -0,0 +1,151 @@
+package org.aravind.oss.jenkins.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A slice of the console log of a build, read from the <i>logText/progressiveText?start=N</i> resource. Jenkins answers
+ * with the log from the byte offset <i>N</i>, the size of the whole log so far in the <i>X-Text-Size</i> header and
+ * <i>X-More-Data: true</i> while the build is running and so the log still grows.
+ * <p>
+ * Only the whole lines of a growing log are consumed, so that a line is never split between two reads. The offsets
+ * are in bytes, and a chunk never splits a UTF-8 encoded character.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class ProgressiveText {
+    private final long start;
+    private final byte[] bytes;
+    private final long textSize;
+    private final boolean moreData;
+    private final boolean truncated;
+
+    /**
+     * @param start     Byte offset of the slice in the log
+     * @param bytes     The slice
+     * @param textSize  Size in bytes of the log so far. Negative if not known.
+     * @param moreData  True if the build is running
+     * @param truncated True if the response had more bytes than were read
+     */
+    public ProgressiveText(long start, byte[] bytes, long textSize, boolean moreData, boolean truncated) {
+        this.start = start;
+        this.bytes = bytes;
+        this.textSize = textSize;
+        this.moreData = moreData;
+        this.truncated = truncated;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getTextSize() {
+        return textSize;
+    }
+
+    public boolean isMoreData() {
+        return moreData;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public int getLength() {
+        return bytes.length;
+    }
+
+    /**
+     * @return This slice taken as the end of the log, for e.g. to stop following a log that grew too large
+     */
+    public ProgressiveText asComplete() {
+        return new ProgressiveText(start, bytes, textSize, false, false);
+    }
+
+    /**
+     * @return True if the slice reaches the end of the log of a completed build
+     */
+    public boolean isComplete() {
+        return !moreData && !truncated;
+    }
+
+    /**
+     * @return Bytes of the slice to consume now. All of them for the end of a completed log. Otherwise up to the last
+     * line break, or all of them (up to a character boundary) if a single line doesn't fit in a chunk or in the read.
+     */
+    int consumable(int maxChunkBytes) {
+        if (isComplete()) {
+            return bytes.length;
+        }
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return bytes.length >= maxChunkBytes || truncated ? characterBoundary(bytes.length) : 0;
+    }
+
+    /**
+     * Splits the consumable bytes into chunks of at most <i>maxChunkBytes</i>, at the line breaks where possible.
+     */
+    public List<Chunk> chunks(int maxChunkBytes) {
+        if (maxChunkBytes < 4) {
+            throw new IllegalArgumentException("A chunk must fit any UTF-8 encoded character: " + maxChunkBytes);
+        }
+        int consumable = consumable(maxChunkBytes);
+        if (consumable == 0) {
+            return Collections.emptyList();
+        }
+        List<Chunk> chunks = new ArrayList<>();
+        int from = 0;
+        while (from < consumable) {
+            int to = Math.min(from + maxChunkBytes, consumable);
+            if (to < consumable) {
+                to = lineBoundary(from, to);
+            }
+            chunks.add(new Chunk(start + from, start + to, new String(bytes, from, to - from, StandardCharsets.UTF_8)));
+            from = to;
+        }
+        return chunks;
+    }
+
+    //after the last line break in (from, to], else the last character boundary
+    private int lineBoundary(int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return characterBoundary(to);
+    }
+
+    //before the last character if it doesn't end by 'to'. UTF-8 continuation bytes are 10xxxxxx.
+    private int characterBoundary(int to) {
+        int lead = to - 1;
+        while (lead > 0 && (bytes[lead] & 0xC0) == 0x80) {
+            lead--;
+        }
+        int b = bytes[lead] & 0xFF;
+        int length = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+        return lead + length <= to || lead == 0 ? to : lead;
+    }
+
+    /**
+     * Text of the log between two byte offsets.
+     */
+    public static class Chunk {
+        public final long start;
+        public final long end;
+        public final String text;
+
+        Chunk(long start, long end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+}
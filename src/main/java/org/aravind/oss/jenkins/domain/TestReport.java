@@ -0,0 +1,109 @@
+package org.aravind.oss.jenkins.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The compact test results of a build, read from the <i>testReport</i> resource by
+ * {@link org.aravind.oss.jenkins.StreamingJsonReader#readTestReport(java.io.InputStream, int, int)}. Only a summary of
+ * each suite and the failed cases are kept, so a report with tens of thousands of tests takes the memory of its suites
+ * and of at most <i>maxFailedCases</i> failures.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class TestReport {
+    /**
+     * Jenkins tree expression of the fields read from the <i>testReport</i> resource. Leaves out the stdout and stderr
+     * of the suites and the cases.
+     */
+    public static final String TREE = "suites[name,duration,cases[className,name,duration,status,errorDetails,errorStackTrace]]";
+
+    private final List<Suite> suites = new ArrayList<>();
+    private final List<FailedCase> failedCases = new ArrayList<>();
+    private int droppedFailedCases;
+
+    public List<Suite> getSuites() {
+        return suites;
+    }
+
+    /**
+     * @return The failed cases in the order they are listed, up to <i>maxFailedCases</i>
+     */
+    public List<FailedCase> getFailedCases() {
+        return failedCases;
+    }
+
+    /**
+     * @return The failed cases left out once <i>maxFailedCases</i> were kept
+     */
+    public int getDroppedFailedCases() {
+        return droppedFailedCases;
+    }
+
+    public void addSuite(Suite suite) {
+        suites.add(suite);
+    }
+
+    public void addFailedCase(FailedCase failedCase) {
+        failedCases.add(failedCase);
+    }
+
+    /**
+     * Counts a failed case left out of the report.
+     */
+    public void dropFailedCase() {
+        droppedFailedCases++;
+    }
+
+    /**
+     * @return True if the status is that of a failed case. Jenkins reports <i>REGRESSION</i> for a case that failed
+     * after passing in the previous build.
+     */
+    public static boolean isFailed(String status) {
+        return "FAILED".equals(status) || "REGRESSION".equals(status);
+    }
+
+    /**
+     * The totals of a test suite. The durations are in seconds, as reported by Jenkins.
+     */
+    public static class Suite {
+        public String name;
+        public double duration;
+        public int passCount;
+        public int failCount;
+        public int skipCount;
+
+        @Override
+        public String toString() {
+            return "Suite{" +
+                    "name='" + name + '\'' +
+                    ", passCount=" + passCount +
+                    ", failCount=" + failCount +
+                    ", skipCount=" + skipCount +
+                    '}';
+        }
+    }
+
+    /**
+     * A failed test case. The error details and stack trace are truncated to <i>maxTextLength</i> characters.
+     */
+    public static class FailedCase {
+        public String suite;
+        public String className;
+        public String name;
+        public double duration;
+        public String status;
+        public String errorDetails;
+        public String errorStackTrace;
+
+        @Override
+        public String toString() {
+            return "FailedCase{" +
+                    "className='" + className + '\'' +
+                    ", name='" + name + '\'' +
+                    ", status='" + status + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the build details JSON to a Connect {@link Struct} so that the converters (Avro, JSON etc.) can serialize
+ * them compactly and the consumers can read the fields without parsing JSON again.
+ * <p>
+ * The schema of the build details is named after the build type, the <i>_class</i> of the details for e.g.
+ * <i>hudson.model.FreeStyleBuild</i> or <i>org.jenkinsci.plugins.workflow.job.WorkflowRun</i>, so that the schema
+ * registries keep one schema per build type. The schemas are built once per build type and then reused for every record.
+ * All the fields are optional as a build detail tree ({@link JenkinsSourceConfig#JENKINS_BUILD_DETAILS_TREE_CONFIG})
+ * can leave any of them out.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class BuildDetailsStructs {
+    public static final String DEFAULT_BUILD_TYPE = "hudson.model.Run";
+
+    static final Schema CAUSE_SCHEMA = SchemaBuilder.struct().name("org.aravind.oss.kafka.connect.jenkins.Cause").optional()
+            .field("shortDescription", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("userId", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("userName", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("upstreamProject", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("upstreamBuild", Schema.OPTIONAL_INT64_SCHEMA)
+            .build();
+
+    static final Schema TEST_RESULTS_SCHEMA = SchemaBuilder.struct().name("org.aravind.oss.kafka.connect.jenkins.TestResults").optional()
+            .field("failCount", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("skipCount", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("totalCount", Schema.OPTIONAL_INT32_SCHEMA)
+            .build();
+
+    private final Map<String, Schema> schemas = new ConcurrentHashMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * @param buildType <i>_class</i> of the build details
+     * @return The cached schema of the build type
+     */
+    public Schema schema(String buildType) {
+        return schemas.computeIfAbsent(buildType, BuildDetailsStructs::newSchema);
+    }
+
+    private static Schema newSchema(String buildType) {
+        return SchemaBuilder.struct().name(buildType).doc("Details of a " + buildType)
+                .field("_class", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("number", Schema.OPTIONAL_INT64_SCHEMA)
+                .field("id", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("displayName", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("fullDisplayName", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("description", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("url", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("result", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("building", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+                .field("keepLog", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+                .field("timestamp", Timestamp.builder().optional().build())
+                .field("duration", Schema.OPTIONAL_INT64_SCHEMA)
+                .field("estimatedDuration", Schema.OPTIONAL_INT64_SCHEMA)
+                .field("queueId", Schema.OPTIONAL_INT64_SCHEMA)
+                .field("builtOn", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("causes", SchemaBuilder.array(CAUSE_SCHEMA).optional().build())
+                .field("parameters", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+                .field("culprits", SchemaBuilder.array(Schema.STRING_SCHEMA).optional().build())
+                .field("testResults", TEST_RESULTS_SCHEMA)
+                .build();
+    }
+
+    /**
+     * @param details Build details JSON
+     * @throws IOException if the details are not a JSON object
+     */
+    public Struct toStruct(String details) throws IOException {
+        JsonNode build = mapper.readTree(details);
+        if (build == null || !build.isObject()) {
+            throw new IOException("Build details should be a JSON object");
+        }
+
+        String buildType = text(build, "_class");
+        Schema schema = schema(buildType != null ? buildType : DEFAULT_BUILD_TYPE);
+        Struct struct = new Struct(schema)
+                .put("_class", buildType)
+                .put("number", int64(build, "number"))
+                .put("id", text(build, "id"))
+                .put("displayName", text(build, "displayName"))
+                .put("fullDisplayName", text(build, "fullDisplayName"))
+                .put("description", text(build, "description"))
+                .put("url", text(build, "url"))
+                .put("result", text(build, "result"))
+                .put("building", bool(build, "building"))
+                .put("keepLog", bool(build, "keepLog"))
+                .put("timestamp", build.hasNonNull("timestamp") ? new Date(build.get("timestamp").asLong()) : null)
+                .put("duration", int64(build, "duration"))
+                .put("estimatedDuration", int64(build, "estimatedDuration"))
+                .put("queueId", int64(build, "queueId"))
+                .put("builtOn", text(build, "builtOn"));
+
+        //causes, parameters and test results are reported by the actions
+        List<Struct> causes = null;
+        Map<String, String> parameters = null;
+        for (JsonNode action : build.path("actions")) {
+            for (JsonNode cause : action.path("causes")) {
+                if (causes == null) causes = new ArrayList<>();
+                causes.add(new Struct(CAUSE_SCHEMA)
+                        .put("shortDescription", text(cause, "shortDescription"))
+                        .put("userId", text(cause, "userId"))
+                        .put("userName", text(cause, "userName"))
+                        .put("upstreamProject", text(cause, "upstreamProject"))
+                        .put("upstreamBuild", int64(cause, "upstreamBuild")));
+            }
+            for (JsonNode parameter : action.path("parameters")) {
+                if (parameter.hasNonNull("name")) {
+                    if (parameters == null) parameters = new LinkedHashMap<>();
+                    JsonNode value = parameter.get("value");
+                    parameters.put(parameter.get("name").asText(), value == null || value.isNull() ? null : value.isValueNode() ? value.asText() : value.toString());
+                }
+            }
+            if ("testReport".equals(text(action, "urlName"))) {
+                struct.put("testResults", new Struct(TEST_RESULTS_SCHEMA)
+                        .put("failCount", int32(action, "failCount"))
+                        .put("skipCount", int32(action, "skipCount"))
+                        .put("totalCount", int32(action, "totalCount")));
+            }
+        }
+        struct.put("causes", causes);
+        struct.put("parameters", parameters);
+
+        if (build.has("culprits")) {
+            List<String> culprits = new ArrayList<>();
+            for (JsonNode culprit : build.get("culprits")) {
+                if (culprit.hasNonNull("fullName")) culprits.add(culprit.get("fullName").asText());
+            }
+            struct.put("culprits", culprits);
+        }
+
+        struct.validate();
+        return struct;
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private static Long int64(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asLong() : null;
+    }
+
+    private static Integer int32(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asInt() : null;
+    }
+
+    private static Boolean bool(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asBoolean() : null;
+    }
+}
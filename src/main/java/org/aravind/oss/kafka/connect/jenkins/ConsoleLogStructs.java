@@ -0,0 +1,41 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.aravind.oss.jenkins.domain.ProgressiveText;
+
+/**
+ * Maps a chunk of the console log of a build to a Connect {@link Struct}. The byte offsets of the chunk let a consumer
+ * detect a gap or a chunk written twice, for e.g. after a restart.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class ConsoleLogStructs {
+    public static final Schema CONSOLE_LOG_SCHEMA = SchemaBuilder.struct().name("org.aravind.oss.kafka.connect.jenkins.ConsoleLog")
+            .doc("A chunk of the console log of a build")
+            .field("job", Schema.STRING_SCHEMA)
+            .field("build", Schema.INT64_SCHEMA)
+            .field("start", Schema.INT64_SCHEMA)
+            .field("end", Schema.INT64_SCHEMA)
+            .field("text", Schema.STRING_SCHEMA)
+            .field("complete", Schema.BOOLEAN_SCHEMA)
+            .build();
+
+    private ConsoleLogStructs() {
+    }
+
+    /**
+     * @param complete True if the chunk is the end of the log of a completed build
+     */
+    public static Struct toStruct(String job, long build, ProgressiveText.Chunk chunk, boolean complete) {
+        return new Struct(CONSOLE_LOG_SCHEMA)
+                .put("job", job)
+                .put("build", build)
+                .put("start", chunk.start)
+                .put("end", chunk.end)
+                .put("text", chunk.text)
+                .put("complete", complete);
+    }
+}
@@ -0,0 +1,158 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.aravind.oss.jenkins.JenkinsClient;
+import org.aravind.oss.jenkins.JenkinsException;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.valueOf;
+import static org.aravind.oss.kafka.connect.jenkins.JenkinsSourceConfig.*;
+
+/**
+ * One Jenkins controller polled by the connector, along with its credentials and timeouts.
+ * <p>
+ * Without <i>jenkins.controllers</i> the connector polls the single controller at <i>jenkins.base.url</i>, whose alias is
+ * empty. Otherwise each alias of <i>jenkins.controllers</i> is configured with the <i>jenkins.controller.&lt;alias&gt;.</i>
+ * prefixed properties, which default to the top level ones. For e.g.
+ * </p>
+ * <pre>
+ * jenkins.controllers=ci1,ci2
+ * jenkins.controller.ci1.base.url=https://ci1.example.com
+ * jenkins.controller.ci2.base.url=https://ci2.example.com
+ * jenkins.controller.ci2.username=bot
+ * jenkins.controller.ci2.password.or.api.token=secret
+ * </pre>
+ * <p>
+ * The partitions, and so the offsets and the record keys, of a named controller are prefixed by its alias. So the
+ * same job name on two controllers never collides.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class JenkinsController {
+    public static final String CONTROLLER_PREFIX = "jenkins.controller.";
+    public static final String BASE_URL_SUFFIX = ".base.url";
+    public static final String USERNAME_SUFFIX = ".username";
+    public static final String PASSWORD_OR_API_TOKEN_SUFFIX = ".password.or.api.token";
+    public static final String CONN_TIMEOUT_SUFFIX = ".connection.timeoutInMillis";
+    public static final String READ_TIMEOUT_SUFFIX = ".read.timeoutInMillis";
+
+    /**
+     * Separates the alias of the controller from the job url in the task configs. Never part of a Jenkins url, as
+     * Jenkins encodes it in the job names.
+     */
+    public static final char JOB_URL_SEPARATOR = '|';
+
+    private final String alias;
+    private final String baseUrl;
+    private final String username;
+    private final String passwordOrApiToken;
+    private final int connTimeout;
+    private final int readTimeout;
+
+    public JenkinsController(String alias, String baseUrl, String username, String passwordOrApiToken, int connTimeout, int readTimeout) {
+        this.alias = alias;
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.passwordOrApiToken = passwordOrApiToken;
+        this.connTimeout = connTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * @param props Connector or task properties
+     * @return The controllers listed by <i>jenkins.controllers</i>, or the single controller at <i>jenkins.base.url</i>
+     */
+    public static List<JenkinsController> fromProps(Map<String, String> props) {
+        String username = props.getOrDefault(JENKINS_USERNAME_CONFIG, "");
+        String password = props.getOrDefault(JENKINS_PASSWORD_OR_API_TOKEN_CONFIG, "");
+        int connTimeout = Integer.valueOf(props.getOrDefault(JENKINS_CONN_TIMEOUT_CONFIG, valueOf(JENKINS_CONN_TIMEOUT_DEFAULT)));
+        int readTimeout = Integer.valueOf(props.getOrDefault(JENKINS_READ_TIMEOUT_CONFIG, valueOf(JENKINS_READ_TIMEOUT_DEFAULT)));
+
+        String aliases = props.getOrDefault(JENKINS_CONTROLLERS_CONFIG, "").trim();
+        if (aliases.isEmpty()) {
+            return Collections.singletonList(new JenkinsController("", props.get(JENKINS_BASE_URL_CONFIG), username, password, connTimeout, readTimeout));
+        }
+
+        List<JenkinsController> controllers = new ArrayList<>();
+        for (String a : aliases.split(",")) {
+            String alias = a.trim();
+            if (alias.isEmpty() || alias.indexOf(':') >= 0 || alias.indexOf(JOB_URL_SEPARATOR) >= 0) {
+                throw new ConfigException(JENKINS_CONTROLLERS_CONFIG, aliases, "Aliases should be non-empty and without ':' or '" + JOB_URL_SEPARATOR + "'");
+            }
+            String prefix = CONTROLLER_PREFIX + alias;
+            String baseUrl = props.get(prefix + BASE_URL_SUFFIX);
+            if (baseUrl == null || baseUrl.isEmpty()) {
+                throw new ConfigException("Missing required configuration \"" + prefix + BASE_URL_SUFFIX + "\"");
+            }
+            controllers.add(new JenkinsController(alias, baseUrl,
+                    props.getOrDefault(prefix + USERNAME_SUFFIX, username),
+                    props.getOrDefault(prefix + PASSWORD_OR_API_TOKEN_SUFFIX, password),
+                    Integer.valueOf(props.getOrDefault(prefix + CONN_TIMEOUT_SUFFIX, valueOf(connTimeout))),
+                    Integer.valueOf(props.getOrDefault(prefix + READ_TIMEOUT_SUFFIX, valueOf(readTimeout)))));
+        }
+        return controllers;
+    }
+
+    /**
+     * @return The name of the partition of a job of this controller
+     */
+    public static String partitionValue(String alias, String jobName) {
+        return alias.isEmpty() ? jobName : alias + ":" + jobName;
+    }
+
+    /**
+     * @return The job url as it is written to the task configs
+     */
+    public static String taskJobUrl(String alias, String jobUrl) {
+        return alias == null || alias.isEmpty() ? jobUrl : alias + JOB_URL_SEPARATOR + jobUrl;
+    }
+
+    /**
+     * @param resource The resource the client is bound to. Null if it isn't bound to any resource.
+     * @return A client with the credentials and timeouts of this controller
+     */
+    public JenkinsClient newClient(URL resource) throws JenkinsException {
+        if (isProtected()) {
+            return new JenkinsClient(resource, username, passwordOrApiToken, connTimeout, readTimeout);
+        }
+        return new JenkinsClient(resource, connTimeout, readTimeout);
+    }
+
+    public boolean isProtected() {
+        return username != null && !username.isEmpty();
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getConnTimeout() {
+        return connTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "JenkinsController{" +
+                "alias='" + alias + '\'' +
+                ", baseUrl='" + baseUrl + '\'' +
+                ", username='" + username + '\'' +
+                ", connTimeout=" + connTimeout +
+                ", readTimeout=" + readTimeout +
+                '}';
+    }
+}
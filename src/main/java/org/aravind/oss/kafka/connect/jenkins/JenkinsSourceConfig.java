@@ -3,9 +3,12 @@ package org.aravind.oss.kafka.connect.jenkins;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigException;
+import org.aravind.oss.jenkins.JenkinsClient;
+import org.aravind.oss.jenkins.domain.Jenkins;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,7 +24,14 @@ public class JenkinsSourceConfig extends AbstractConfig {
     private static final String JENKINS_BASE_URL_DOC = "This is the URL of the home page of your Jenkins installation. "
             + "For e.g. https://builds.apache.org/ is the base url of the Apache Jenkins public instance. " +
             "In some installations, a context/prefix might have been specified (using the --prefix; For e.g. --prefix=/jenkins). " +
-            "If so then the url should include the prefix as well. ";
+            "If so then the url should include the prefix as well. Required unless jenkins.controllers is set.";
+
+    public static final String JENKINS_CONTROLLERS_CONFIG = "jenkins.controllers";
+    private static final String JENKINS_CONTROLLERS_DISPLAY = "Jenkins controllers.";
+    private static final String JENKINS_CONTROLLERS_DOC = "Comma separated aliases of the Jenkins controllers polled by this connector, instead of the single jenkins.base.url. " +
+            "Each controller is configured with jenkins.controller.<alias>.base.url and optionally jenkins.controller.<alias>.username, " +
+            ".password.or.api.token, .connection.timeoutInMillis and .read.timeoutInMillis, which default to the top level ones. " +
+            "The partitions (and so the offsets and record keys) are prefixed by the alias and the jobs of all the controllers are spread across the tasks.";
 
     public static final String JOBS_RESOURCE_PATH_CONFIG = "jenkins.jobs.resource.path";
     private static final String JOBS_RESOURCE_PATH_DEFAULT = "/api/json";
@@ -50,6 +60,142 @@ public class JenkinsSourceConfig extends AbstractConfig {
             "the client socket waits for response after sending the request. " +
             "This is the elapsed time since the client has sent request to the server before server responds.";
 
+    public static final String JENKINS_MAX_CONNECTIONS_PER_HOST_CONFIG = "jenkins.max.connections.per.host";
+    private static final String JENKINS_MAX_CONNECTIONS_PER_HOST_DISPLAY = "Maximum connections per host.";
+    private static final String JENKINS_MAX_CONNECTIONS_PER_HOST_DOC = "Maximum number of concurrent connections (requests in flight) a task opens to a single Jenkins host. " +
+            "Shared by all the tasks of a worker if jenkins.rate.limit.shared is true. " +
+            "Each task shares one client whose connections are kept alive and reused across the poll cycles. " +
+            "Keep it at or below the JVM's http.maxConnections (5 by default) so that all the idle connections can be pooled.";
+
+    public static final String JENKINS_TREE_PROJECTION_CONFIG = "jenkins.tree.projection.enabled";
+    private static final String JENKINS_TREE_PROJECTION_DISPLAY = "Request only the fields used by the connector.";
+    private static final String JENKINS_TREE_PROJECTION_DOC = "If true, the jobs and builds REST requests use the Jenkins \"tree\" query parameter " +
+            "so that only the fields read by the connector are returned. This avoids transferring and parsing the whole build history of every job.";
+    public static final boolean JENKINS_TREE_PROJECTION_DEFAULT = true;
+
+    public static final String JENKINS_BUILD_DETAILS_TREE_CONFIG = "jenkins.build.details.tree";
+    private static final String JENKINS_BUILD_DETAILS_TREE_DISPLAY = "Fields of the build details.";
+    private static final String JENKINS_BUILD_DETAILS_TREE_DOC = "Jenkins \"tree\" expression restricting the fields of the build details written to the topic. " +
+            "For e.g. number,result,duration,timestamp,url,actions[causes[shortDescription]]. If not specified all the fields are written.";
+    public static final String JENKINS_BUILD_DETAILS_TREE_DEFAULT = "";
+
+    public static final String JENKINS_BUILD_DETAILS_INCLUDE_CONFIG = "jenkins.build.details.include";
+    private static final String JENKINS_BUILD_DETAILS_INCLUDE_DISPLAY = "Fields of the build details to keep.";
+    private static final String JENKINS_BUILD_DETAILS_INCLUDE_DOC = "Comma separated paths of the build details fields to keep, applied while the response is read. " +
+            "A path is the dot separated field names, continuing into the elements of arrays, and * matches any field name. " +
+            "The objects and array elements left without any kept field are dropped. For e.g. number,result,actions.causes. " +
+            "If not specified all the fields are kept.";
+    public static final String JENKINS_BUILD_DETAILS_INCLUDE_DEFAULT = "";
+
+    public static final String JENKINS_BUILD_DETAILS_EXCLUDE_CONFIG = "jenkins.build.details.exclude";
+    private static final String JENKINS_BUILD_DETAILS_EXCLUDE_DISPLAY = "Fields of the build details to drop.";
+    private static final String JENKINS_BUILD_DETAILS_EXCLUDE_DOC = "Comma separated paths of the build details fields to drop, applied while the response is read. " +
+            "Same syntax as " + JENKINS_BUILD_DETAILS_INCLUDE_CONFIG + " and wins over it. For e.g. changeSet,actions.*.testResult.";
+    public static final String JENKINS_BUILD_DETAILS_EXCLUDE_DEFAULT = "";
+
+    public static final String JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_CONFIG = "jenkins.build.details.max.array.elements";
+    private static final String JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DISPLAY = "Max array elements of the build details.";
+    private static final String JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DOC = "Only the first elements of every array of the build details, for e.g. artifacts, are kept. " +
+            "The rest are skipped while the response is read. 0 keeps all the elements.";
+    public static final int JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DEFAULT = 0;
+
+    public static final String JENKINS_COMPRESSION_CONFIG = "jenkins.compression.enabled";
+    private static final String JENKINS_COMPRESSION_DISPLAY = "Request compressed responses.";
+    private static final String JENKINS_COMPRESSION_DOC = "If true, gzip or deflate compressed responses are requested from Jenkins with the Accept-Encoding header " +
+            "and decompressed while they are read. Jenkins JSON compresses well, so this cuts the transfer time of every poll.";
+    public static final boolean JENKINS_COMPRESSION_DEFAULT = true;
+
+    public static final String JENKINS_CONDITIONAL_GET_CACHE_SIZE_CONFIG = "jenkins.conditional.get.cache.size";
+    private static final String JENKINS_CONDITIONAL_GET_CACHE_SIZE_DISPLAY = "Conditional GET cache size.";
+    private static final String JENKINS_CONDITIONAL_GET_CACHE_SIZE_DOC = "Maximum number of job (and folder) resources whose ETag/Last-Modified validators and parsed response are cached by a task. " +
+            "Polls send If-None-Match/If-Modified-Since and a 304 Not Modified response is served from the cache without transferring or parsing the body. " +
+            "The least recently used resources are evicted first. 0 disables the conditional requests.";
+    public static final int JENKINS_CONDITIONAL_GET_CACHE_SIZE_DEFAULT = 0;
+
+    public static final String JENKINS_CIRCUIT_FAILURE_THRESHOLD_CONFIG = "jenkins.circuit.breaker.failure.threshold";
+    private static final String JENKINS_CIRCUIT_FAILURE_THRESHOLD_DISPLAY = "Circuit breaker failure threshold.";
+    private static final String JENKINS_CIRCUIT_FAILURE_THRESHOLD_DOC = "Consecutive failures (connection errors, timeouts and 5xx responses) of a Jenkins host after which its circuit opens. " +
+            "While the circuit is open the requests to the host fail fast instead of waiting out the timeouts. 0 disables the circuit breaker.";
+    public static final int JENKINS_CIRCUIT_FAILURE_THRESHOLD_DEFAULT = 5;
+
+    public static final String JENKINS_CIRCUIT_BACKOFF_MS_CONFIG = "jenkins.circuit.breaker.backoff.ms";
+    private static final String JENKINS_CIRCUIT_BACKOFF_MS_DISPLAY = "Circuit breaker backoff in millis.";
+    private static final String JENKINS_CIRCUIT_BACKOFF_MS_DOC = "How long the circuit of a host stays open before a single probe request is let through. " +
+            "Doubles, with jitter, each time the probe fails.";
+    public static final long JENKINS_CIRCUIT_BACKOFF_MS_DEFAULT = 10000;
+
+    public static final String JENKINS_CIRCUIT_MAX_BACKOFF_MS_CONFIG = "jenkins.circuit.breaker.max.backoff.ms";
+    private static final String JENKINS_CIRCUIT_MAX_BACKOFF_MS_DISPLAY = "Circuit breaker max backoff in millis.";
+    private static final String JENKINS_CIRCUIT_MAX_BACKOFF_MS_DOC = "Maximum time the circuit of a host stays open.";
+    public static final long JENKINS_CIRCUIT_MAX_BACKOFF_MS_DEFAULT = 300000;
+
+    public static final String JENKINS_RATE_LIMIT_RPS_CONFIG = "jenkins.rate.limit.rps";
+    private static final String JENKINS_RATE_LIMIT_RPS_DISPLAY = "Requests per second per host.";
+    private static final String JENKINS_RATE_LIMIT_RPS_DOC = "Maximum number of requests per second a task sends to a single Jenkins host. " +
+            "Requests beyond it wait for the token bucket to refill. 0 doesn't limit the rate.";
+    public static final double JENKINS_RATE_LIMIT_RPS_DEFAULT = 0;
+
+    public static final String JENKINS_RATE_LIMIT_SHARED_CONFIG = "jenkins.rate.limit.shared";
+    private static final String JENKINS_RATE_LIMIT_SHARED_DISPLAY = "Share the limits across the tasks.";
+    private static final String JENKINS_RATE_LIMIT_SHARED_DOC = "If true, the tasks of a worker share the jenkins.rate.limit.rps and jenkins.max.connections.per.host limits " +
+            "of each Jenkins host, instead of each task having its own.";
+    public static final boolean JENKINS_RATE_LIMIT_SHARED_DEFAULT = false;
+
+    public static final String CHANGE_DETECTION_MODE_CONFIG = "jenkins.change.detection.mode";
+    public static final String CHANGE_DETECTION_JOB = "job";
+    public static final String CHANGE_DETECTION_BULK = "bulk";
+    public static final String CHANGE_DETECTION_MODE_DEFAULT = CHANGE_DETECTION_JOB;
+    private static final String CHANGE_DETECTION_MODE_DISPLAY = "Change detection mode.";
+    private static final String CHANGE_DETECTION_MODE_DOC = "How a task detects the jobs with new builds. " +
+            "\"job\" requests every job in each poll cycle. \"bulk\" lists the lastBuild of all the jobs with a single request " +
+            "per folder (or the root) and then requests only the jobs whose lastBuild changed since the saved offset.";
+
+    public static final String CATCH_UP_CONFIG = "jenkins.catchup.enabled";
+    public static final boolean CATCH_UP_DEFAULT = false;
+    private static final String CATCH_UP_DISPLAY = "Catch up missed builds.";
+    private static final String CATCH_UP_DOC = "If true, every build run since the saved offset is written to the topic in build order, " +
+            "for e.g. the builds run while the connector was down. If false only the lastBuild of each job is written.";
+
+    public static final String CATCH_UP_MAX_BUILDS_PER_JOB_CONFIG = "jenkins.catchup.max.builds.per.job";
+    public static final int CATCH_UP_MAX_BUILDS_PER_JOB_DEFAULT = 10;
+    private static final String CATCH_UP_MAX_BUILDS_PER_JOB_DISPLAY = "Maximum missed builds per job and poll.";
+    private static final String CATCH_UP_MAX_BUILDS_PER_JOB_DOC = "Maximum number of missed builds of a single job written in one poll cycle. " +
+            "The remaining builds are written in the following poll cycles so that one busy job doesn't starve the others. " +
+            "Only as many builds are listed per poll, whatever the backlog of the job, unless some build numbers were skipped.";
+
+    public static final String CATCH_UP_MAX_BUILDS_PER_POLL_CONFIG = "jenkins.catchup.max.builds.per.poll";
+    public static final int CATCH_UP_MAX_BUILDS_PER_POLL_DEFAULT = 500;
+    private static final String CATCH_UP_MAX_BUILDS_PER_POLL_DISPLAY = "Maximum missed builds per task and poll.";
+    private static final String CATCH_UP_MAX_BUILDS_PER_POLL_DOC = "Maximum number of missed builds a task writes in one poll cycle across all its jobs.";
+
+    public static final String ADAPTIVE_SCHEDULING_CONFIG = "jenkins.adaptive.scheduling.enabled";
+    public static final boolean ADAPTIVE_SCHEDULING_DEFAULT = false;
+    private static final String ADAPTIVE_SCHEDULING_DISPLAY = "Poll each job as per its build activity.";
+    private static final String ADAPTIVE_SCHEDULING_DOC = "If true, each job is polled on its own schedule instead of every job at jenkins.pollIntervalInMillis. " +
+            "The build rate of a job is learnt from its new builds: active jobs are polled more often and dormant ones are backed off, " +
+            "within jenkins.poll.interval.min.ms and jenkins.poll.interval.max.ms. jenkins.pollIntervalInMillis is the interval until the build rate is learnt.";
+
+    public static final String MIN_POLL_INTERVAL_MS_CONFIG = "jenkins.poll.interval.min.ms";
+    public static final long MIN_POLL_INTERVAL_MS_DEFAULT = 10000;
+    private static final String MIN_POLL_INTERVAL_MS_DISPLAY = "Minimum poll interval of a job in milliseconds";
+    private static final String MIN_POLL_INTERVAL_MS_DOC = "Minimum interval in ms between two polls of the same job when adaptive scheduling is enabled.";
+
+    public static final String MAX_POLL_INTERVAL_MS_CONFIG = "jenkins.poll.interval.max.ms";
+    public static final long MAX_POLL_INTERVAL_MS_DEFAULT = 3600000;//every hour
+    private static final String MAX_POLL_INTERVAL_MS_DISPLAY = "Maximum poll interval of a job in milliseconds";
+    private static final String MAX_POLL_INTERVAL_MS_DOC = "Maximum interval in ms between two polls of the same job when adaptive scheduling is enabled. " +
+            "This bounds the latency of the first build of a dormant job.";
+
+    public static final String RECORD_VALUE_FORMAT_CONFIG = "jenkins.record.value.format";
+    public static final String RECORD_VALUE_FORMAT_STRING = "string";
+    public static final String RECORD_VALUE_FORMAT_STRUCT = "struct";
+    public static final String RECORD_VALUE_FORMAT_DEFAULT = RECORD_VALUE_FORMAT_STRING;
+    private static final String RECORD_VALUE_FORMAT_DISPLAY = "Record value format.";
+    private static final String RECORD_VALUE_FORMAT_DOC = "Format of the build details written to the topic. " +
+            "\"string\" writes the build details JSON as is with a string schema. \"struct\" maps the build details " +
+            "(number, result, duration, timestamp, building, url, causes, parameters, test results etc.) to a Connect Struct " +
+            "whose schema is named after the build type, so that the converters can serialize it compactly.";
+
     public static final String TOPIC_CONFIG = "topic";
     public static final String TOPIC_DISPLAY = "Topic to persist build events.";
     public static final String TOPIC_CONFIG_DOC = "This is the name of the Kafka Topic to which the source records containing Jenkins Build details are written to.";
@@ -60,6 +206,109 @@ public class JenkinsSourceConfig extends AbstractConfig {
     public static final int JENKINS_POLL_INTERVAL_MS_DEFAULT = 60000;//every minute
     private static final String JENKINS_POLL_INTERVAL_MS_DISPLAY = "Poll Interval in milliseconds";
 
+    public static final String FETCH_PARALLELISM_CONFIG = "jenkins.fetch.parallelism";
+    private static final String FETCH_PARALLELISM_DOC = "Maximum number of jobs fetched concurrently by a single task during a poll cycle. " +
+            "Each task owns a bounded pool of this many worker threads. Set it to 1 to fetch the jobs one after the other.";
+    public static final int FETCH_PARALLELISM_DEFAULT = 4;
+    private static final String FETCH_PARALLELISM_DISPLAY = "Fetch parallelism per task";
+
+    public static final String JOB_DISCOVERY_INTERVAL_MS_CONFIG = "jenkins.job.discovery.interval.ms";
+    private static final String JOB_DISCOVERY_INTERVAL_MS_DOC = "Frequency in ms to re-read the jobs of Jenkins. The tasks are reconfigured " +
+            "once jobs are created or deleted, so that they are picked up without restarting the connector. 0 disables it.";
+    public static final long JOB_DISCOVERY_INTERVAL_MS_DEFAULT = 60000;//every minute
+    private static final String JOB_DISCOVERY_INTERVAL_MS_DISPLAY = "Job discovery interval in milliseconds";
+
+    public static final String FOLDER_CRAWL_DEPTH_CONFIG = "jenkins.folder.crawl.depth";
+    private static final String FOLDER_CRAWL_DEPTH_DOC = "Maximum number of nested folders (CloudBees folders, organization folders and multibranch projects) " +
+            "crawled to discover the jobs inside them. 0 discovers only the top-level jobs.";
+    public static final int FOLDER_CRAWL_DEPTH_DEFAULT = 5;
+    private static final String FOLDER_CRAWL_DEPTH_DISPLAY = "Folder crawl depth";
+
+    public static final String FOLDER_CRAWL_PARALLELISM_CONFIG = "jenkins.folder.crawl.parallelism";
+    private static final String FOLDER_CRAWL_PARALLELISM_DOC = "Maximum number of folders listed concurrently while discovering the jobs.";
+    public static final int FOLDER_CRAWL_PARALLELISM_DEFAULT = 4;
+    private static final String FOLDER_CRAWL_PARALLELISM_DISPLAY = "Folder crawl parallelism";
+
+    public static final String TASK_ASSIGNMENT_CONFIG = "jenkins.task.assignment";
+    public static final String TASK_ASSIGNMENT_COUNT = "count";
+    public static final String TASK_ASSIGNMENT_WEIGHTED = "weighted";
+    public static final String TASK_ASSIGNMENT_DEFAULT = TASK_ASSIGNMENT_COUNT;
+    private static final String TASK_ASSIGNMENT_DISPLAY = "Job to task assignment.";
+    private static final String TASK_ASSIGNMENT_DOC = "How the jobs are assigned to the tasks. \"count\" gives each task the same number of jobs. " +
+            "\"weighted\" estimates how busy each job is from its lastBuild and bin-packs the jobs so that each task gets about the same load.";
+
+    public static final String RECORD_QUEUE_CAPACITY_CONFIG = "jenkins.record.queue.capacity";
+    private static final String RECORD_QUEUE_CAPACITY_DOC = "Maximum number of records a task buffers between its fetchers and poll(). " +
+            "The fetchers run in the background and queue the records as soon as they are created. They wait once the queue is full, " +
+            "so that a task doesn't run ahead of the Kafka producer.";
+    public static final int RECORD_QUEUE_CAPACITY_DEFAULT = 1000;
+    private static final String RECORD_QUEUE_CAPACITY_DISPLAY = "Record queue capacity per task";
+
+    public static final String CONSOLE_LOG_CONFIG = "jenkins.console.log.enabled";
+    public static final boolean CONSOLE_LOG_DEFAULT = false;
+    private static final String CONSOLE_LOG_DISPLAY = "Write the console logs.";
+    private static final String CONSOLE_LOG_DOC = "If true, the console log of the builds is followed with the logText/progressiveText resource and written " +
+            "to jenkins.console.log.topic in chunks, including the log of running builds as it grows. The byte offset of the log is saved " +
+            "in the source offset, so that the log is followed from where it was left after a restart. Only the log of the last " +
+            "saved build of a job is followed, and only in the poll cycles where the job is polled, see jenkins.adaptive.scheduling.enabled.";
+
+    public static final String CONSOLE_LOG_TOPIC_CONFIG = "jenkins.console.log.topic";
+    public static final String CONSOLE_LOG_TOPIC_DEFAULT = "jenkins.connector.console.log.topic";
+    private static final String CONSOLE_LOG_TOPIC_DISPLAY = "Console log topic.";
+    private static final String CONSOLE_LOG_TOPIC_DOC = "Name of the Kafka Topic to which the chunks of the console logs are written to.";
+
+    public static final String CONSOLE_LOG_CHUNK_MAX_BYTES_CONFIG = "jenkins.console.log.chunk.max.bytes";
+    public static final int CONSOLE_LOG_CHUNK_MAX_BYTES_DEFAULT = 65536;
+    private static final String CONSOLE_LOG_CHUNK_MAX_BYTES_DISPLAY = "Maximum bytes of a console log record.";
+    private static final String CONSOLE_LOG_CHUNK_MAX_BYTES_DOC = "Maximum bytes of the console log in a single record. The log is split at the line breaks where possible.";
+
+    public static final String CONSOLE_LOG_POLL_MAX_BYTES_CONFIG = "jenkins.console.log.poll.max.bytes";
+    public static final int CONSOLE_LOG_POLL_MAX_BYTES_DEFAULT = 1048576;
+    private static final String CONSOLE_LOG_POLL_MAX_BYTES_DISPLAY = "Maximum console log bytes per build and poll.";
+    private static final String CONSOLE_LOG_POLL_MAX_BYTES_DOC = "Maximum bytes of the console log of a build read in one poll cycle. " +
+            "The rest of the log is read in the following poll cycles.";
+
+    public static final String CONSOLE_LOG_BUILD_MAX_BYTES_CONFIG = "jenkins.console.log.build.max.bytes";
+    public static final long CONSOLE_LOG_BUILD_MAX_BYTES_DEFAULT = 0;
+    private static final String CONSOLE_LOG_BUILD_MAX_BYTES_DISPLAY = "Maximum console log bytes per build.";
+    private static final String CONSOLE_LOG_BUILD_MAX_BYTES_DOC = "The console log of a build is no longer followed once this many bytes of it are written. 0 follows the whole log.";
+
+    public static final String TEST_REPORT_CONFIG = "jenkins.test.report.enabled";
+    public static final boolean TEST_REPORT_DEFAULT = false;
+    private static final String TEST_REPORT_DISPLAY = "Write the test results.";
+    private static final String TEST_REPORT_DOC = "If true, the testReport resource of every new build is read as a stream and a compact record per test suite " +
+            "and per failed test case is written to jenkins.test.report.topic. The test results are read once the build is finished: " +
+            "every saved build of a job that is still running is checked again in the later polls. " +
+            "After a restart, the last saved build and the builds still awaited by the last written report are checked again.";
+
+    public static final String TEST_REPORT_TOPIC_CONFIG = "jenkins.test.report.topic";
+    public static final String TEST_REPORT_TOPIC_DEFAULT = "jenkins.connector.test.report.topic";
+    private static final String TEST_REPORT_TOPIC_DISPLAY = "Test results topic.";
+    private static final String TEST_REPORT_TOPIC_DOC = "Name of the Kafka Topic to which the test suites and the failed test cases are written to.";
+
+    public static final String TEST_REPORT_MAX_FAILED_CASES_CONFIG = "jenkins.test.report.max.failed.cases";
+    public static final int TEST_REPORT_MAX_FAILED_CASES_DEFAULT = 1000;
+    private static final String TEST_REPORT_MAX_FAILED_CASES_DISPLAY = "Maximum failed test cases per build.";
+    private static final String TEST_REPORT_MAX_FAILED_CASES_DOC = "Maximum number of failed test cases of a build written to the topic. " +
+            "The rest are only counted by their suites.";
+
+    public static final String TEST_REPORT_MAX_TEXT_LENGTH_CONFIG = "jenkins.test.report.max.text.length";
+    public static final int TEST_REPORT_MAX_TEXT_LENGTH_DEFAULT = 4096;
+    private static final String TEST_REPORT_MAX_TEXT_LENGTH_DISPLAY = "Maximum length of a test failure.";
+    private static final String TEST_REPORT_MAX_TEXT_LENGTH_DOC = "The error details and stack trace of a failed test case are truncated to this many characters.";
+
+    public static final String PIPELINE_STAGES_CONFIG = "jenkins.pipeline.stages.enabled";
+    public static final boolean PIPELINE_STAGES_DEFAULT = false;
+    private static final String PIPELINE_STAGES_DISPLAY = "Write the Pipeline stages.";
+    private static final String PIPELINE_STAGES_DOC = "If true, the wfapi/describe resource of every new Pipeline build is read and a record per stage, " +
+            "with its name, status, start time and duration, is written to jenkins.pipeline.stages.topic. Needs the Pipeline Stage View plugin. " +
+            "As the test results, the stages are read once the build is finished, also if a later build finishes first.";
+
+    public static final String PIPELINE_STAGES_TOPIC_CONFIG = "jenkins.pipeline.stages.topic";
+    public static final String PIPELINE_STAGES_TOPIC_DEFAULT = "jenkins.connector.pipeline.stages.topic";
+    private static final String PIPELINE_STAGES_TOPIC_DISPLAY = "Pipeline stages topic.";
+    private static final String PIPELINE_STAGES_TOPIC_DOC = "Name of the Kafka Topic to which the stages of the Pipeline builds are written to.";
+
     public static final String JENKINS_GROUP = "Jenkins";
     public static final String CONNECTOR_GROUP = "Connector";
 
@@ -67,18 +316,74 @@ public class JenkinsSourceConfig extends AbstractConfig {
 
     static {
         DEFS
-                .define(JENKINS_BASE_URL_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, JENKINS_BASE_URL_DOC, JENKINS_GROUP, 1, ConfigDef.Width.LONG, JENKINS_BASE_URL_DISPLAY)
+                .define(JENKINS_BASE_URL_CONFIG, ConfigDef.Type.STRING, "", ConfigDef.Importance.HIGH, JENKINS_BASE_URL_DOC, JENKINS_GROUP, 1, ConfigDef.Width.LONG, JENKINS_BASE_URL_DISPLAY)
                 .define(JENKINS_USERNAME_CONFIG, ConfigDef.Type.STRING, "", ConfigDef.Importance.LOW, JENKINS_USERNAME_CONFIG_DOC, JENKINS_GROUP, 5, ConfigDef.Width.MEDIUM, JENKINS_USERNAME_DISPLAY)
                 .define(JENKINS_PASSWORD_OR_API_TOKEN_CONFIG, ConfigDef.Type.STRING, "", ConfigDef.Importance.LOW, JENKINS_PASSWORD_OR_API_TOKEN_DOC, JENKINS_GROUP, 6, ConfigDef.Width.MEDIUM, JENKINS_PASSWORD_OR_API_TOKEN_DISPLAY)
                 .define(JENKINS_CONN_TIMEOUT_CONFIG, ConfigDef.Type.INT, JENKINS_CONN_TIMEOUT_DEFAULT, ConfigDef.Importance.LOW, JENKINS_CONN_TIMEOUT_DOC, JENKINS_GROUP, 3, ConfigDef.Width.SHORT, JENKINS_CONN_TIMEOUT_DISPLAY)
                 .define(JENKINS_READ_TIMEOUT_CONFIG, ConfigDef.Type.INT, JENKINS_READ_TIMEOUT_DEFAULT, ConfigDef.Importance.LOW, JENKINS_READ_TIMEOUT_DOC, JENKINS_GROUP, 4, ConfigDef.Width.SHORT, JENKINS_READ_TIMEOUT_DISPLAY)
                 .define(JOBS_RESOURCE_PATH_CONFIG, ConfigDef.Type.STRING, JOBS_RESOURCE_PATH_DEFAULT, ConfigDef.Importance.LOW, JOBS_RESOURCE_PATH_DOC, JENKINS_GROUP, 7, ConfigDef.Width.MEDIUM, JOBS_RESOURCE_PATH_DISPLAY)
+                .define(JENKINS_MAX_CONNECTIONS_PER_HOST_CONFIG, ConfigDef.Type.INT, JenkinsClient.MAX_CONNECTIONS_PER_HOST_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, JENKINS_MAX_CONNECTIONS_PER_HOST_DOC, JENKINS_GROUP, 8, ConfigDef.Width.SHORT, JENKINS_MAX_CONNECTIONS_PER_HOST_DISPLAY)
+                .define(JENKINS_TREE_PROJECTION_CONFIG, ConfigDef.Type.BOOLEAN, JENKINS_TREE_PROJECTION_DEFAULT, ConfigDef.Importance.LOW, JENKINS_TREE_PROJECTION_DOC, JENKINS_GROUP, 9, ConfigDef.Width.SHORT, JENKINS_TREE_PROJECTION_DISPLAY)
+                .define(JENKINS_BUILD_DETAILS_TREE_CONFIG, ConfigDef.Type.STRING, JENKINS_BUILD_DETAILS_TREE_DEFAULT, ConfigDef.Importance.LOW, JENKINS_BUILD_DETAILS_TREE_DOC, JENKINS_GROUP, 10, ConfigDef.Width.LONG, JENKINS_BUILD_DETAILS_TREE_DISPLAY)
+                .define(JENKINS_CONDITIONAL_GET_CACHE_SIZE_CONFIG, ConfigDef.Type.INT, JENKINS_CONDITIONAL_GET_CACHE_SIZE_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, JENKINS_CONDITIONAL_GET_CACHE_SIZE_DOC, JENKINS_GROUP, 11, ConfigDef.Width.SHORT, JENKINS_CONDITIONAL_GET_CACHE_SIZE_DISPLAY)
+                .define(JENKINS_COMPRESSION_CONFIG, ConfigDef.Type.BOOLEAN, JENKINS_COMPRESSION_DEFAULT, ConfigDef.Importance.LOW, JENKINS_COMPRESSION_DOC, JENKINS_GROUP, 12, ConfigDef.Width.SHORT, JENKINS_COMPRESSION_DISPLAY)
+                .define(JENKINS_CIRCUIT_FAILURE_THRESHOLD_CONFIG, ConfigDef.Type.INT, JENKINS_CIRCUIT_FAILURE_THRESHOLD_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, JENKINS_CIRCUIT_FAILURE_THRESHOLD_DOC, JENKINS_GROUP, 13, ConfigDef.Width.SHORT, JENKINS_CIRCUIT_FAILURE_THRESHOLD_DISPLAY)
+                .define(JENKINS_CIRCUIT_BACKOFF_MS_CONFIG, ConfigDef.Type.LONG, JENKINS_CIRCUIT_BACKOFF_MS_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, JENKINS_CIRCUIT_BACKOFF_MS_DOC, JENKINS_GROUP, 14, ConfigDef.Width.SHORT, JENKINS_CIRCUIT_BACKOFF_MS_DISPLAY)
+                .define(JENKINS_CIRCUIT_MAX_BACKOFF_MS_CONFIG, ConfigDef.Type.LONG, JENKINS_CIRCUIT_MAX_BACKOFF_MS_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, JENKINS_CIRCUIT_MAX_BACKOFF_MS_DOC, JENKINS_GROUP, 15, ConfigDef.Width.SHORT, JENKINS_CIRCUIT_MAX_BACKOFF_MS_DISPLAY)
+                .define(JENKINS_RATE_LIMIT_RPS_CONFIG, ConfigDef.Type.DOUBLE, JENKINS_RATE_LIMIT_RPS_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, JENKINS_RATE_LIMIT_RPS_DOC, JENKINS_GROUP, 16, ConfigDef.Width.SHORT, JENKINS_RATE_LIMIT_RPS_DISPLAY)
+                .define(JENKINS_RATE_LIMIT_SHARED_CONFIG, ConfigDef.Type.BOOLEAN, JENKINS_RATE_LIMIT_SHARED_DEFAULT, ConfigDef.Importance.LOW, JENKINS_RATE_LIMIT_SHARED_DOC, JENKINS_GROUP, 17, ConfigDef.Width.SHORT, JENKINS_RATE_LIMIT_SHARED_DISPLAY)
+                .define(JENKINS_CONTROLLERS_CONFIG, ConfigDef.Type.LIST, "", ConfigDef.Importance.MEDIUM, JENKINS_CONTROLLERS_DOC, JENKINS_GROUP, 18, ConfigDef.Width.LONG, JENKINS_CONTROLLERS_DISPLAY)
+                .define(JENKINS_BUILD_DETAILS_INCLUDE_CONFIG, ConfigDef.Type.LIST, JENKINS_BUILD_DETAILS_INCLUDE_DEFAULT, ConfigDef.Importance.LOW, JENKINS_BUILD_DETAILS_INCLUDE_DOC, JENKINS_GROUP, 19, ConfigDef.Width.LONG, JENKINS_BUILD_DETAILS_INCLUDE_DISPLAY)
+                .define(JENKINS_BUILD_DETAILS_EXCLUDE_CONFIG, ConfigDef.Type.LIST, JENKINS_BUILD_DETAILS_EXCLUDE_DEFAULT, ConfigDef.Importance.LOW, JENKINS_BUILD_DETAILS_EXCLUDE_DOC, JENKINS_GROUP, 20, ConfigDef.Width.LONG, JENKINS_BUILD_DETAILS_EXCLUDE_DISPLAY)
+                .define(JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_CONFIG, ConfigDef.Type.INT, JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DOC, JENKINS_GROUP, 21, ConfigDef.Width.SHORT, JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DISPLAY)
                 .define(JENKINS_POLL_INTERVAL_MS_CONFIG, ConfigDef.Type.LONG, JENKINS_POLL_INTERVAL_MS_DEFAULT, ConfigDef.Importance.LOW, JENKINS_POLL_INTERVAL_MS_DOC, JENKINS_GROUP, 2, ConfigDef.Width.SHORT, JENKINS_POLL_INTERVAL_MS_DISPLAY)
-                .define(TOPIC_CONFIG, ConfigDef.Type.STRING, TOPIC_CONFIG_DEFAULT, ConfigDef.Importance.LOW, TOPIC_CONFIG_DOC, CONNECTOR_GROUP, 1, ConfigDef.Width.LONG, TOPIC_DISPLAY);
+                .define(TOPIC_CONFIG, ConfigDef.Type.STRING, TOPIC_CONFIG_DEFAULT, ConfigDef.Importance.LOW, TOPIC_CONFIG_DOC, CONNECTOR_GROUP, 1, ConfigDef.Width.LONG, TOPIC_DISPLAY)
+                .define(FETCH_PARALLELISM_CONFIG, ConfigDef.Type.INT, FETCH_PARALLELISM_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, FETCH_PARALLELISM_DOC, CONNECTOR_GROUP, 2, ConfigDef.Width.SHORT, FETCH_PARALLELISM_DISPLAY)
+                .define(JOB_DISCOVERY_INTERVAL_MS_CONFIG, ConfigDef.Type.LONG, JOB_DISCOVERY_INTERVAL_MS_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.MEDIUM, JOB_DISCOVERY_INTERVAL_MS_DOC, CONNECTOR_GROUP, 12, ConfigDef.Width.SHORT, JOB_DISCOVERY_INTERVAL_MS_DISPLAY)
+                .define(FOLDER_CRAWL_DEPTH_CONFIG, ConfigDef.Type.INT, FOLDER_CRAWL_DEPTH_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.MEDIUM, FOLDER_CRAWL_DEPTH_DOC, CONNECTOR_GROUP, 13, ConfigDef.Width.SHORT, FOLDER_CRAWL_DEPTH_DISPLAY)
+                .define(FOLDER_CRAWL_PARALLELISM_CONFIG, ConfigDef.Type.INT, FOLDER_CRAWL_PARALLELISM_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, FOLDER_CRAWL_PARALLELISM_DOC, CONNECTOR_GROUP, 14, ConfigDef.Width.SHORT, FOLDER_CRAWL_PARALLELISM_DISPLAY)
+                .define(TASK_ASSIGNMENT_CONFIG, ConfigDef.Type.STRING, TASK_ASSIGNMENT_DEFAULT, ConfigDef.ValidString.in(TASK_ASSIGNMENT_COUNT, TASK_ASSIGNMENT_WEIGHTED), ConfigDef.Importance.LOW, TASK_ASSIGNMENT_DOC, CONNECTOR_GROUP, 15, ConfigDef.Width.SHORT, TASK_ASSIGNMENT_DISPLAY)
+                .define(RECORD_QUEUE_CAPACITY_CONFIG, ConfigDef.Type.INT, RECORD_QUEUE_CAPACITY_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, RECORD_QUEUE_CAPACITY_DOC, CONNECTOR_GROUP, 11, ConfigDef.Width.SHORT, RECORD_QUEUE_CAPACITY_DISPLAY)
+                .define(CHANGE_DETECTION_MODE_CONFIG, ConfigDef.Type.STRING, CHANGE_DETECTION_MODE_DEFAULT, ConfigDef.ValidString.in(CHANGE_DETECTION_JOB, CHANGE_DETECTION_BULK), ConfigDef.Importance.LOW, CHANGE_DETECTION_MODE_DOC, CONNECTOR_GROUP, 3, ConfigDef.Width.SHORT, CHANGE_DETECTION_MODE_DISPLAY)
+                .define(CATCH_UP_CONFIG, ConfigDef.Type.BOOLEAN, CATCH_UP_DEFAULT, ConfigDef.Importance.MEDIUM, CATCH_UP_DOC, CONNECTOR_GROUP, 4, ConfigDef.Width.SHORT, CATCH_UP_DISPLAY)
+                .define(CATCH_UP_MAX_BUILDS_PER_JOB_CONFIG, ConfigDef.Type.INT, CATCH_UP_MAX_BUILDS_PER_JOB_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, CATCH_UP_MAX_BUILDS_PER_JOB_DOC, CONNECTOR_GROUP, 5, ConfigDef.Width.SHORT, CATCH_UP_MAX_BUILDS_PER_JOB_DISPLAY)
+                .define(CATCH_UP_MAX_BUILDS_PER_POLL_CONFIG, ConfigDef.Type.INT, CATCH_UP_MAX_BUILDS_PER_POLL_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, CATCH_UP_MAX_BUILDS_PER_POLL_DOC, CONNECTOR_GROUP, 6, ConfigDef.Width.SHORT, CATCH_UP_MAX_BUILDS_PER_POLL_DISPLAY)
+                .define(RECORD_VALUE_FORMAT_CONFIG, ConfigDef.Type.STRING, RECORD_VALUE_FORMAT_DEFAULT, ConfigDef.ValidString.in(RECORD_VALUE_FORMAT_STRING, RECORD_VALUE_FORMAT_STRUCT), ConfigDef.Importance.MEDIUM, RECORD_VALUE_FORMAT_DOC, CONNECTOR_GROUP, 7, ConfigDef.Width.SHORT, RECORD_VALUE_FORMAT_DISPLAY)
+                .define(ADAPTIVE_SCHEDULING_CONFIG, ConfigDef.Type.BOOLEAN, ADAPTIVE_SCHEDULING_DEFAULT, ConfigDef.Importance.MEDIUM, ADAPTIVE_SCHEDULING_DOC, CONNECTOR_GROUP, 8, ConfigDef.Width.SHORT, ADAPTIVE_SCHEDULING_DISPLAY)
+                .define(MIN_POLL_INTERVAL_MS_CONFIG, ConfigDef.Type.LONG, MIN_POLL_INTERVAL_MS_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, MIN_POLL_INTERVAL_MS_DOC, CONNECTOR_GROUP, 9, ConfigDef.Width.SHORT, MIN_POLL_INTERVAL_MS_DISPLAY)
+                .define(MAX_POLL_INTERVAL_MS_CONFIG, ConfigDef.Type.LONG, MAX_POLL_INTERVAL_MS_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, MAX_POLL_INTERVAL_MS_DOC, CONNECTOR_GROUP, 10, ConfigDef.Width.SHORT, MAX_POLL_INTERVAL_MS_DISPLAY)
+                .define(CONSOLE_LOG_CONFIG, ConfigDef.Type.BOOLEAN, CONSOLE_LOG_DEFAULT, ConfigDef.Importance.MEDIUM, CONSOLE_LOG_DOC, CONNECTOR_GROUP, 16, ConfigDef.Width.SHORT, CONSOLE_LOG_DISPLAY)
+                .define(CONSOLE_LOG_TOPIC_CONFIG, ConfigDef.Type.STRING, CONSOLE_LOG_TOPIC_DEFAULT, ConfigDef.Importance.LOW, CONSOLE_LOG_TOPIC_DOC, CONNECTOR_GROUP, 17, ConfigDef.Width.LONG, CONSOLE_LOG_TOPIC_DISPLAY)
+                .define(CONSOLE_LOG_CHUNK_MAX_BYTES_CONFIG, ConfigDef.Type.INT, CONSOLE_LOG_CHUNK_MAX_BYTES_DEFAULT, ConfigDef.Range.atLeast(1024), ConfigDef.Importance.LOW, CONSOLE_LOG_CHUNK_MAX_BYTES_DOC, CONNECTOR_GROUP, 18, ConfigDef.Width.SHORT, CONSOLE_LOG_CHUNK_MAX_BYTES_DISPLAY)
+                .define(CONSOLE_LOG_POLL_MAX_BYTES_CONFIG, ConfigDef.Type.INT, CONSOLE_LOG_POLL_MAX_BYTES_DEFAULT, ConfigDef.Range.atLeast(1024), ConfigDef.Importance.LOW, CONSOLE_LOG_POLL_MAX_BYTES_DOC, CONNECTOR_GROUP, 19, ConfigDef.Width.SHORT, CONSOLE_LOG_POLL_MAX_BYTES_DISPLAY)
+                .define(CONSOLE_LOG_BUILD_MAX_BYTES_CONFIG, ConfigDef.Type.LONG, CONSOLE_LOG_BUILD_MAX_BYTES_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, CONSOLE_LOG_BUILD_MAX_BYTES_DOC, CONNECTOR_GROUP, 20, ConfigDef.Width.SHORT, CONSOLE_LOG_BUILD_MAX_BYTES_DISPLAY)
+                .define(TEST_REPORT_CONFIG, ConfigDef.Type.BOOLEAN, TEST_REPORT_DEFAULT, ConfigDef.Importance.MEDIUM, TEST_REPORT_DOC, CONNECTOR_GROUP, 21, ConfigDef.Width.SHORT, TEST_REPORT_DISPLAY)
+                .define(TEST_REPORT_TOPIC_CONFIG, ConfigDef.Type.STRING, TEST_REPORT_TOPIC_DEFAULT, ConfigDef.Importance.LOW, TEST_REPORT_TOPIC_DOC, CONNECTOR_GROUP, 22, ConfigDef.Width.LONG, TEST_REPORT_TOPIC_DISPLAY)
+                .define(TEST_REPORT_MAX_FAILED_CASES_CONFIG, ConfigDef.Type.INT, TEST_REPORT_MAX_FAILED_CASES_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, TEST_REPORT_MAX_FAILED_CASES_DOC, CONNECTOR_GROUP, 23, ConfigDef.Width.SHORT, TEST_REPORT_MAX_FAILED_CASES_DISPLAY)
+                .define(TEST_REPORT_MAX_TEXT_LENGTH_CONFIG, ConfigDef.Type.INT, TEST_REPORT_MAX_TEXT_LENGTH_DEFAULT, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, TEST_REPORT_MAX_TEXT_LENGTH_DOC, CONNECTOR_GROUP, 24, ConfigDef.Width.SHORT, TEST_REPORT_MAX_TEXT_LENGTH_DISPLAY)
+                .define(PIPELINE_STAGES_CONFIG, ConfigDef.Type.BOOLEAN, PIPELINE_STAGES_DEFAULT, ConfigDef.Importance.MEDIUM, PIPELINE_STAGES_DOC, CONNECTOR_GROUP, 25, ConfigDef.Width.SHORT, PIPELINE_STAGES_DISPLAY)
+                .define(PIPELINE_STAGES_TOPIC_CONFIG, ConfigDef.Type.STRING, PIPELINE_STAGES_TOPIC_DEFAULT, ConfigDef.Importance.LOW, PIPELINE_STAGES_TOPIC_DOC, CONNECTOR_GROUP, 26, ConfigDef.Width.LONG, PIPELINE_STAGES_TOPIC_DISPLAY);
     }
 
     public JenkinsSourceConfig(Map<String, String> originals) {
         super(DEFS, originals);
+        if (getList(JENKINS_CONTROLLERS_CONFIG).isEmpty() && getString(JENKINS_BASE_URL_CONFIG).isEmpty()) {
+            throw new ConfigException("Missing required configuration \"" + JENKINS_BASE_URL_CONFIG + "\" which has no default value.");
+        }
+        //Fail fast on incomplete controllers
+        getControllers();
+    }
+
+    /**
+     * @return The controllers polled by this connector. The single controller at {@link #getJenkinsUrl()} unless
+     * <i>jenkins.controllers</i> is set.
+     */
+    public List<JenkinsController> getControllers() {
+        return JenkinsController.fromProps(originalsStrings());
+    }
+
+    public boolean isMultiController() {
+        return !getList(JENKINS_CONTROLLERS_CONFIG).isEmpty();
     }
 
     public URL getJenkinsUrl() {
@@ -101,11 +406,117 @@ public class JenkinsSourceConfig extends AbstractConfig {
         return getString(JENKINS_USERNAME_CONFIG) != null && !getString(JENKINS_USERNAME_CONFIG).isEmpty();
     }
 
+    public boolean isTreeProjectionEnabled() {
+        return getBoolean(JENKINS_TREE_PROJECTION_CONFIG);
+    }
+
+    public String getBuildDetailsTree() {
+        return getString(JENKINS_BUILD_DETAILS_TREE_CONFIG);
+    }
+
+    public List<String> getBuildDetailsIncludes() {
+        return getList(JENKINS_BUILD_DETAILS_INCLUDE_CONFIG);
+    }
+
+    public List<String> getBuildDetailsExcludes() {
+        return getList(JENKINS_BUILD_DETAILS_EXCLUDE_CONFIG);
+    }
+
+    public int getBuildDetailsMaxArrayElements() {
+        return getInt(JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_CONFIG);
+    }
+
+    public boolean isCompressionEnabled() {
+        return getBoolean(JENKINS_COMPRESSION_CONFIG);
+    }
+
+    public int getCircuitFailureThreshold() {
+        return getInt(JENKINS_CIRCUIT_FAILURE_THRESHOLD_CONFIG);
+    }
+
+    public long getCircuitBackoff() {
+        return getLong(JENKINS_CIRCUIT_BACKOFF_MS_CONFIG);
+    }
+
+    public long getCircuitMaxBackoff() {
+        return getLong(JENKINS_CIRCUIT_MAX_BACKOFF_MS_CONFIG);
+    }
+
+    public double getRateLimit() {
+        return getDouble(JENKINS_RATE_LIMIT_RPS_CONFIG);
+    }
+
+    public boolean isRateLimitShared() {
+        return getBoolean(JENKINS_RATE_LIMIT_SHARED_CONFIG);
+    }
+
+    public long getJobDiscoveryInterval() {
+        return getLong(JOB_DISCOVERY_INTERVAL_MS_CONFIG);
+    }
+
+    public int getFolderCrawlDepth() {
+        return getInt(FOLDER_CRAWL_DEPTH_CONFIG);
+    }
+
+    public int getFolderCrawlParallelism() {
+        return getInt(FOLDER_CRAWL_PARALLELISM_CONFIG);
+    }
+
+    public boolean isWeightedTaskAssignment() {
+        return TASK_ASSIGNMENT_WEIGHTED.equals(getString(TASK_ASSIGNMENT_CONFIG));
+    }
+
+    /**
+     * @return Jenkins tree expression of the jobs resource (and the folders). Null if the tree projection is disabled.
+     */
+    public String getJobsTree() {
+        if (!isTreeProjectionEnabled()) {
+            return null;
+        }
+        return isWeightedTaskAssignment() ? Jenkins.ACTIVITY_TREE : Jenkins.TREE;
+    }
+
+    public int getRecordQueueCapacity() {
+        return getInt(RECORD_QUEUE_CAPACITY_CONFIG);
+    }
+
+    public boolean isAdaptiveSchedulingEnabled() {
+        return getBoolean(ADAPTIVE_SCHEDULING_CONFIG);
+    }
+
+    public long getMinPollInterval() {
+        return getLong(MIN_POLL_INTERVAL_MS_CONFIG);
+    }
+
+    public long getMaxPollInterval() {
+        return getLong(MAX_POLL_INTERVAL_MS_CONFIG);
+    }
+
+    public String getRecordValueFormat() {
+        return getString(RECORD_VALUE_FORMAT_CONFIG);
+    }
+
+    public int getConditionalGetCacheSize() {
+        return getInt(JENKINS_CONDITIONAL_GET_CACHE_SIZE_CONFIG);
+    }
+
     public URL getJobsResource() {
+        return getJobsResource(getString(JENKINS_BASE_URL_CONFIG));
+    }
+
+    /**
+     * @return The resource listing the jobs of the controller
+     */
+    public URL getJobsResource(JenkinsController controller) {
+        return getJobsResource(controller.getBaseUrl());
+    }
+
+    private URL getJobsResource(String baseUrl) {
         try {
-            return new URL(getString(JENKINS_BASE_URL_CONFIG) + JOBS_RESOURCE_PATH_DEFAULT);
+            String jobsResource = baseUrl + JOBS_RESOURCE_PATH_DEFAULT;
+            return new URL(JenkinsClient.withTree(jobsResource, getJobsTree()));
         } catch (MalformedURLException e) {
-            throw new ConfigException("Couldn't create the URL from " + getString(JENKINS_BASE_URL_CONFIG), e);
+            throw new ConfigException("Couldn't create the URL from " + baseUrl, e);
         }
     }
 
@@ -116,4 +527,72 @@ public class JenkinsSourceConfig extends AbstractConfig {
     public int getJenkinsReadTimeout() {
         return getInt(JENKINS_READ_TIMEOUT_CONFIG);
     }
+
+    public int getJenkinsMaxConnectionsPerHost() {
+        return getInt(JENKINS_MAX_CONNECTIONS_PER_HOST_CONFIG);
+    }
+
+    public String getChangeDetectionMode() {
+        return getString(CHANGE_DETECTION_MODE_CONFIG);
+    }
+
+    public boolean isCatchUpEnabled() {
+        return getBoolean(CATCH_UP_CONFIG);
+    }
+
+    public int getCatchUpMaxBuildsPerJob() {
+        return getInt(CATCH_UP_MAX_BUILDS_PER_JOB_CONFIG);
+    }
+
+    public int getCatchUpMaxBuildsPerPoll() {
+        return getInt(CATCH_UP_MAX_BUILDS_PER_POLL_CONFIG);
+    }
+
+    public boolean isConsoleLogEnabled() {
+        return getBoolean(CONSOLE_LOG_CONFIG);
+    }
+
+    public String getConsoleLogTopic() {
+        return getString(CONSOLE_LOG_TOPIC_CONFIG);
+    }
+
+    public int getConsoleLogChunkMaxBytes() {
+        return getInt(CONSOLE_LOG_CHUNK_MAX_BYTES_CONFIG);
+    }
+
+    public int getConsoleLogPollMaxBytes() {
+        return getInt(CONSOLE_LOG_POLL_MAX_BYTES_CONFIG);
+    }
+
+    public long getConsoleLogBuildMaxBytes() {
+        return getLong(CONSOLE_LOG_BUILD_MAX_BYTES_CONFIG);
+    }
+
+    public boolean isTestReportEnabled() {
+        return getBoolean(TEST_REPORT_CONFIG);
+    }
+
+    public String getTestReportTopic() {
+        return getString(TEST_REPORT_TOPIC_CONFIG);
+    }
+
+    public int getTestReportMaxFailedCases() {
+        return getInt(TEST_REPORT_MAX_FAILED_CASES_CONFIG);
+    }
+
+    public int getTestReportMaxTextLength() {
+        return getInt(TEST_REPORT_MAX_TEXT_LENGTH_CONFIG);
+    }
+
+    public boolean isPipelineStagesEnabled() {
+        return getBoolean(PIPELINE_STAGES_CONFIG);
+    }
+
+    public String getPipelineStagesTopic() {
+        return getString(PIPELINE_STAGES_TOPIC_CONFIG);
+    }
+
+    public int getFetchParallelism() {
+        return getInt(FETCH_PARALLELISM_CONFIG);
+    }
 }
@@ -4,6 +4,7 @@ import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.connector.Task;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceConnector;
+import org.aravind.oss.jenkins.ConditionalGetCache;
 import org.aravind.oss.jenkins.JenkinsException;
 import org.aravind.oss.jenkins.JenkinsClient;
 import org.aravind.oss.jenkins.domain.Jenkins;
@@ -14,7 +15,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Is responsible for breaking the job into a set make tasks  that can be distributed to workers.
@@ -24,7 +29,8 @@ import java.util.*;
  */
 public class JenkinsSourceConnector extends SourceConnector {
     private JenkinsSourceConfig jenkinsCfg;
-    private JenkinsClient client;
+    private List<ControllerJobs> controllers;
+    private ScheduledExecutorService monitorExecutor;
     private static Logger logger = LoggerFactory.getLogger(JenkinsSourceConnector.class);
 
     @Override
@@ -43,19 +49,114 @@ public class JenkinsSourceConnector extends SourceConnector {
         logger.info("JenkinsSourceConnector starting");
         jenkinsCfg = new JenkinsSourceConfig(props);
 
-        //Do a test connection to Fail Fast
-        try {
-            logger.trace("Doing a test connection to {}", jenkinsCfg.getJobsResource());
-	    if (jenkinsCfg.isProtected()) {
-		client = new JenkinsClient(jenkinsCfg.getJobsResource(), jenkinsCfg.getUsername(), jenkinsCfg.getPasswordOrApiToken(), jenkinsCfg.getJenkinsConnTimeout(), jenkinsCfg.getJenkinsReadTimeout());
-	    }
-	    else {
-		client = new JenkinsClient(jenkinsCfg.getJobsResource(), jenkinsCfg.getJenkinsConnTimeout(), jenkinsCfg.getJenkinsReadTimeout());
-	    }
+        long discoveryInterval = jenkinsCfg.getJobDiscoveryInterval();
+        controllers = new ArrayList<>();
+        for (JenkinsController controller : jenkinsCfg.getControllers()) {
+            controllers.add(new ControllerJobs(controller, discoveryInterval > 0));
+        }
+
+        //Do a test connection to Fail Fast, but only when none of the controllers can be reached
+        List<String> unreachable = new ArrayList<>();
+        JenkinsException failure = null;
+        for (ControllerJobs c : controllers) {
+            try {
+                c.testConnection();
+            } catch (JenkinsException e) {
+                //Treated as having no jobs. They are assigned once the controller is back and the JobMonitor sees them
+                logger.warn("Unable to open connection to {}. Its jobs are assigned once it is reachable.", c.controller.getBaseUrl(), e);
+                unreachable.add(c.controller.getBaseUrl());
+                failure = e;
+            }
+        }
+        if (unreachable.size() == controllers.size()) {
+            throw new ConnectException("Unable to open connection to " + String.join(", ", unreachable), failure);
+        }
+
+        if (discoveryInterval > 0) {
+            monitorExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "jenkins-source-connector-job-monitor");
+                t.setDaemon(true);
+                return t;
+            });
+            for (ControllerJobs c : controllers) {
+                monitorExecutor.scheduleWithFixedDelay(c.jobMonitor, discoveryInterval, discoveryInterval, TimeUnit.MILLISECONDS);
+                logger.info("Monitoring the jobs of {} every {} ms", c.jobsResource, discoveryInterval);
+            }
+        }
+    }
+
+    /**
+     * The client, crawler and monitor of the jobs of a single controller.
+     */
+    private class ControllerJobs {
+        final JenkinsController controller;
+        final URL jobsResource;
+        final JenkinsClient client;
+        final JobCrawler crawler;
+        final JobMonitor jobMonitor;
+
+        ControllerJobs(JenkinsController controller, boolean monitored) {
+            this.controller = controller;
+            jobsResource = jenkinsCfg.getJobsResource(controller);
+
+            try {
+                client = controller.newClient(jobsResource);
+            } catch (JenkinsException e) {
+                throw new ConnectException("Invalid credentials of " + controller.getBaseUrl(), e);
+            }
+            client.setMaxConnectionsPerHost(jenkinsCfg.getJenkinsMaxConnectionsPerHost());
+            client.setCompressionEnabled(jenkinsCfg.isCompressionEnabled());
+            client.setCircuitBreaker(jenkinsCfg.getCircuitFailureThreshold(), jenkinsCfg.getCircuitBackoff(), jenkinsCfg.getCircuitMaxBackoff());
+            client.setRateLimit(jenkinsCfg.getRateLimit(), jenkinsCfg.isRateLimitShared());
+
+            crawler = new JobCrawler(client, jenkinsCfg.getFolderCrawlDepth(), jenkinsCfg.getFolderCrawlParallelism(), jenkinsCfg.getJobsTree());
+
+            if (monitored) {
+                //Unchanged job lists are then answered with 304 Not Modified, if Jenkins supports it
+                client.setResponseCache(new ConditionalGetCache(1));
+                jobMonitor = new JobMonitor(client, jobsResource, crawler, context);
+            } else {
+                jobMonitor = null;
+            }
+        }
+
+        void testConnection() throws JenkinsException {
+            logger.trace("Doing a test connection to {}", jobsResource);
             HttpURLConnection connection = client.connect();
             connection.disconnect();
-        } catch (JenkinsException e) {
-            throw new ConnectException("Unable to open connection to " + jenkinsCfg.getJenkinsUrl(), e);
+        }
+
+        /**
+         * @return The jobs of the controller, including the ones inside the folders. Empty if they can't be listed.
+         * Only the jobs of the folders that could be listed if some of them can't, which the monitor then completes.
+         */
+        List<Job> listJobs() {
+            Optional<Jenkins> resp = Optional.empty();
+            try {
+                resp = client.getJenkins();
+            } catch (JenkinsException e) {
+                //TODO sometimes the client might have been brought down. Let us handle it silently for now.
+                logger.warn("Error while GET to " + jobsResource + ". Ignoring it.", e);
+            }
+
+            List<Job> jobs = Collections.emptyList();
+            if (resp.isPresent() && resp.get().getJobs() != null) {
+                //The jobs inside the folders along with the top-level jobs
+                try {
+                    jobs = crawler.crawl(resp.get().getJobs());
+                } catch (JobCrawler.IncompleteCrawlException e) {
+                    logger.warn("Assigning only the jobs of {} in the folders that could be listed.", jobsResource, e);
+                    jobs = e.getCrawledJobs();
+                }
+                if (!controller.getAlias().isEmpty()) {
+                    jobs.forEach(j -> j.setController(controller.getAlias()));
+                }
+            }
+            if (jobMonitor != null) {
+                //So that the jobs of a controller that is down are assigned once it is back
+                jobMonitor.setKnownJobs(jobs);
+            }
+            return jobs;
         }
     }
 
@@ -66,6 +167,7 @@ public class JenkinsSourceConnector extends SourceConnector {
 
     /**
      * Returns a set make configurations for {@link JenkinsSourceTask} based on the current configuration, producing at most {@code numTasks} configurations.
+     * The jobs of the controllers are interleaved, so that the jobs of each controller are spread across the tasks.
      *
      * @param maxTasks maximum number make configurations to generate
      * @return configurations for Tasks
@@ -73,30 +175,57 @@ public class JenkinsSourceConnector extends SourceConnector {
     @Override
     public List<Map<String, String>> taskConfigs(int maxTasks) {
         logger.debug("Calculating taskConfigs");
-        Optional<Jenkins> resp = null;
-        try {
-            resp = client.getJenkins();
-        } catch (JenkinsException e) {
-            //TODO sometimes the client might have been brought down. Let us handle it silently for now.
-            logger.warn("Error while GET to " + jenkinsCfg.getJobsResource() + ". Ignoring it.", e);
+        List<List<Job>> jobsByController = new ArrayList<>(controllers.size());
+        for (ControllerJobs c : controllers) {
+            jobsByController.add(c.listJobs());
         }
+        List<Job> jobs = interleave(jobsByController);
 
-        TaskConfigExtractor taskConfigExtractor = new JobTaskConfigExtractor();
-
-        if (resp.isPresent()) {
-            Jenkins jenkins = resp.get();
+        if (jobs.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-            TaskConfigBuilder<Job> taskCfgBuilder = new TaskConfigBuilder<Job>(maxTasks, JenkinsSourceTask.JOB_URLS, jenkinsCfg, taskConfigExtractor);
+        TaskConfigExtractor taskConfigExtractor = new JobTaskConfigExtractor();
+        TaskConfigBuilder<Job> taskCfgBuilder = new TaskConfigBuilder<Job>(maxTasks, JenkinsSourceTask.JOB_URLS, jenkinsCfg, taskConfigExtractor);
+        if (jenkinsCfg.isWeightedTaskAssignment()) {
+            taskCfgBuilder.setTaskWeightExtractor(new JobWeightExtractor());
+        }
+        List<Map<String, String>> taskConfigs = taskCfgBuilder.build(jobs);
+        for (int i = 0; i < taskConfigs.size(); i++) {
+            taskConfigs.get(i).put(JenkinsSourceTask.TASK_ID, String.valueOf(i));
+        }
+        return taskConfigs;
+    }
 
-            return taskCfgBuilder.build(jenkins.getJobs());
+    /**
+     * @return The first job of each list, then the second one of each list and so on
+     */
+    static <T> List<T> interleave(List<List<T>> lists) {
+        if (lists.size() == 1) {
+            return lists.get(0);
+        }
+        List<T> all = new ArrayList<>();
+        int longest = lists.stream().mapToInt(List::size).max().orElse(0);
+        for (int i = 0; i < longest; i++) {
+            for (List<T> l : lists) {
+                if (i < l.size()) {
+                    all.add(l.get(i));
+                }
+            }
         }
-        return Collections.emptyList();
+        return all;
     }
 
     @Override
     public void stop() {
         logger.info("JenkinsSourceConnector stopping");
-        //Not used at this moment
+        if (monitorExecutor != null) monitorExecutor.shutdownNow();
+        if (controllers != null) {
+            controllers.forEach(c -> {
+                c.crawler.stop();
+                c.client.close();
+            });
+        }
     }
 
     @Override
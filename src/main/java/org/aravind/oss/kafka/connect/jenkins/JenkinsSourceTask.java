@@ -1,14 +1,26 @@
 package org.aravind.oss.kafka.connect.jenkins;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.DataException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
 import org.apache.kafka.connect.source.SourceTaskContext;
+import org.aravind.oss.jenkins.CircuitBreaker;
+import org.aravind.oss.jenkins.ConditionalGetCache;
 import org.aravind.oss.jenkins.JenkinsClient;
 import org.aravind.oss.jenkins.JenkinsException;
+import org.aravind.oss.jenkins.JsonFieldFilter;
 import org.aravind.oss.jenkins.domain.Build;
 import org.aravind.oss.jenkins.domain.BuildCollection;
+import org.aravind.oss.jenkins.domain.Jenkins;
+import org.aravind.oss.jenkins.domain.Job;
+import org.aravind.oss.jenkins.domain.PipelineRun;
+import org.aravind.oss.jenkins.domain.PipelineStage;
+import org.aravind.oss.jenkins.domain.ProgressiveText;
+import org.aravind.oss.jenkins.domain.TestReport;
+import org.aravind.oss.kafka.connect.lib.AdaptivePollSchedule;
 import org.aravind.oss.kafka.connect.lib.SourceOffset;
 import org.aravind.oss.kafka.connect.lib.Partitions;
 import org.aravind.oss.kafka.connect.lib.SourcePartition;
@@ -20,7 +32,19 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.kafka.common.utils.SystemTime;
 import org.apache.kafka.common.utils.Time;
@@ -28,8 +52,8 @@ import org.apache.kafka.common.utils.Time;
 import static java.lang.String.valueOf;
 import static org.aravind.oss.kafka.connect.jenkins.JenkinsSourceConfig.*;
 import static org.aravind.oss.kafka.connect.jenkins.JenkinsSourceConfig.JENKINS_CONN_TIMEOUT_CONFIG;
-import static org.aravind.oss.kafka.connect.jenkins.Util.extractJobName;
-import static org.aravind.oss.kafka.connect.jenkins.Util.urlDecode;
+import static org.aravind.oss.kafka.connect.jenkins.Util.parentUrl;
+import static org.aravind.oss.kafka.connect.jenkins.Util.shortJobName;
 
 /**
  * @author Aravind R Yarram
@@ -39,19 +63,83 @@ public class JenkinsSourceTask extends SourceTask {
     public static final String JOB_URLS = "job.urls";
     public static final String JOB_NAME = "jobName";
     public static final String BUILD_NUMBER = "buildNumber";
+    /**
+     * Partition key of the console logs. The console log of a job is a partition of its own, next to that of its builds.
+     */
+    public static final String CONSOLE_LOG = "consoleLog";
+    /**
+     * Partition key of the test results and the Pipeline stages of the builds of a job. Its offset is the last saved
+     * build whose reports are written or awaited, along with the {@link #PENDING_BUILDS}.
+     */
+    public static final String BUILD_REPORTS = "buildReports";
+    /**
+     * The saved builds whose reports are yet to be written, as they were still running
+     */
+    public static final String PENDING_BUILDS = "pendingBuilds";
+    /**
+     * Byte offset in the console log of the build up to which the log is written
+     */
+    public static final String LOG_OFFSET = "logOffset";
+    /**
+     * True once the whole console log of the build is written
+     */
+    public static final String LOG_COMPLETE = "logComplete";
+    /**
+     * Index of the task among the tasks of the connector. Set by the connector and used to tag the metrics.
+     */
+    public static final String TASK_ID = "task.id";
+    /**
+     * Name of the connector, as forwarded by the connector along with the rest of its configuration.
+     */
+    public static final String CONNECTOR_NAME = "name";
     private static final Logger logger = LoggerFactory.getLogger(JenkinsSourceTask.class);
 
+    /**
+     * Maximum time poll() waits for a record before returning none.
+     */
+    public static final long POLL_TIMEOUT_IN_MILLIS = 500;
+    /**
+     * Polls in which the record of a build is attempted before the build is skipped, so that a bad build doesn't block its job.
+     */
+    public static final int MAX_BUILD_ATTEMPTS = 3;
+
     private Time time;
-    private long lastUpdate;
+    private volatile long lastUpdate;
     private long pollIntervalInMillis;
     private static int totalJenkinsPulls = 1;
     private final SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
     private final static Partitions partitions = new Partitions(JenkinsSourceTask.JOB_NAME);
+    private final static Partitions consoleLogPartitions = new Partitions(JenkinsSourceTask.CONSOLE_LOG);
+    private final static Partitions buildReportsPartitions = new Partitions(JenkinsSourceTask.BUILD_REPORTS);
+    //Whether a build is finished and if it is a Pipeline run (the _class is always reported)
+    private static final String BUILD_STATE_TREE = "number,building";
 
     private Map<String, String> taskProps;
-    private ObjectMapper mapper = new ObjectMapper();
     private AtomicBoolean stop;
+    //The jobs of this task and their offsets, loaded once when the task starts
+    private JobRegistry jobs;
     private ReadYourWritesOffsetStorageAdapter storageAdapter;
+    private ExecutorService fetchers;
+    //One client per controller, keyed by its alias
+    private Map<String, JenkinsClient> clients;
+    private final AtomicInteger catchUpBudget = new AtomicInteger();
+    //The build of each job whose record couldn't be created yet, with the failed attempts
+    private final Map<SourcePartition, FailedBuild> failedBuilds = new ConcurrentHashMap<>();
+    //The jobs of the current poll cycle whose missed builds are left for the next poll, so they count as changed
+    private final Set<SourcePartition> deferredJobs = ConcurrentHashMap.newKeySet();
+    //The saved builds of each job whose reports are yet to be written, lowest first
+    private final Map<SourcePartition, NavigableSet<Long>> pendingReports = new ConcurrentHashMap<>();
+    //The builds whose reports were attempted in the current poll cycle, so that their state is read once per cycle
+    private final Set<String> reportedBuilds = ConcurrentHashMap.newKeySet();
+    //Null if the build details are written as JSON strings
+    private BuildDetailsStructs structs;
+    private JsonFieldFilter detailsFilter;
+    //Null if every job is polled at the fixed poll interval
+    private AdaptivePollSchedule<String> schedule;
+    //Records created by the fetchers, waiting to be returned by poll()
+    private BlockingQueue<SourceRecord> records;
+    private Thread poller;
+    private TaskMetrics metrics;
 
     public JenkinsSourceTask() {
         this.time = new SystemTime();
@@ -69,164 +157,861 @@ public class JenkinsSourceTask extends SourceTask {
         taskProps = props;
         pollIntervalInMillis = Long.parseLong(taskProps.get(JENKINS_POLL_INTERVAL_MS_CONFIG));
         stop = new AtomicBoolean(false);
+
+        jobs = new JobRegistry(taskProps.get(JOB_URLS), partitions);
+        List<SourcePartition> offsetPartitions = new ArrayList<>(jobs.getPartitions());
+        if (isConsoleLogEnabled()) {
+            jobs.getPartitions().forEach(p -> offsetPartitions.add(consoleLogPartitionOf(p)));
+        }
+        if (isBuildReportsEnabled()) {
+            jobs.getPartitions().forEach(p -> offsetPartitions.add(buildReportsPartitionOf(p)));
+        }
+        storageAdapter = new ReadYourWritesOffsetStorageAdapter(context.offsetStorageReader(), offsetPartitions);
+        logger.info("Loaded the offsets of {} job(s)", jobs.size());
+        if (isBuildReportsEnabled()) {
+            jobs.getPartitions().forEach(p -> pendingReports.put(p, restorePendingReports(p)));
+        }
+
+        int parallelism = getFetchParallelism();
+        logger.info("Fetching jobs with {} fetcher thread(s)", parallelism);
+        fetchers = Executors.newFixedThreadPool(parallelism, newFetcherThreadFactory());
+        metrics = new TaskMetrics(taskProps.getOrDefault(CONNECTOR_NAME, "jenkins-source"), taskProps.getOrDefault(TASK_ID, "0"), getMaxRequestTime(), time);
+        clients = createClients();
+        clients.values().forEach(c -> c.setExchangeListener(metrics));
+        structs = RECORD_VALUE_FORMAT_STRUCT.equals(getRecordValueFormat()) ? new BuildDetailsStructs() : null;
+        detailsFilter = new JsonFieldFilter(getBuildDetailsIncludes(), getBuildDetailsExcludes(), getBuildDetailsMaxArrayElements());
+        schedule = isAdaptiveSchedulingEnabled() ? createSchedule() : null;
+
+        records = new ArrayBlockingQueue<>(getRecordQueueCapacity());
+        poller = new Thread(this::pollJenkins, "jenkins-source-task-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /**
+     * Each job is polled as per its own build activity instead of polling every job at the fixed poll interval.
+     */
+    private AdaptivePollSchedule<String> createSchedule() {
+        try {
+            AdaptivePollSchedule<String> s = new AdaptivePollSchedule<>(jobs.getJobUrls(), pollIntervalInMillis, getMinPollInterval(), getMaxPollInterval(), time.milliseconds());
+            logger.info("Adaptive polling of {} job(s) every {} to {} ms", s.size(), getMinPollInterval(), getMaxPollInterval());
+            return s;
+        } catch (IllegalArgumentException e) {
+            throw new ConnectException("Invalid adaptive poll intervals", e);
+        }
+    }
+
+    /**
+     * @return The longest time in millis a request to any of the controllers can take until it times out
+     */
+    private long getMaxRequestTime() {
+        return JenkinsController.fromProps(taskProps).stream()
+                .mapToLong(c -> (long) c.getConnTimeout() + c.getReadTimeout())
+                .max().orElse(JENKINS_CONN_TIMEOUT_DEFAULT + JENKINS_READ_TIMEOUT_DEFAULT);
+    }
+
+    /**
+     * @return A client for each controller of the jobs of this task
+     */
+    private Map<String, JenkinsClient> createClients() {
+        Set<String> aliases = jobs.getControllers();
+        Map<String, JenkinsClient> cs = new HashMap<>();
+        for (JenkinsController controller : JenkinsController.fromProps(taskProps)) {
+            if (aliases.contains(controller.getAlias())) {
+                cs.put(controller.getAlias(), createClient(controller));
+            }
+        }
+        if (!cs.keySet().containsAll(aliases)) {
+            aliases.removeAll(cs.keySet());
+            throw new ConnectException("Jobs assigned to unknown Jenkins controllers " + aliases);
+        }
+        return cs;
+    }
+
+    /**
+     * One long-lived client per controller is shared by all the fetchers of this task so that the connections to Jenkins are reused.
+     */
+    private JenkinsClient createClient(JenkinsController controller) {
+        JenkinsClient c;
+        try {
+            c = controller.newClient(null);
+        } catch (JenkinsException e) {
+            throw new ConnectException("Unable to create the Jenkins client of " + controller, e);
+        }
+        c.setMaxConnectionsPerHost(getMaxConnectionsPerHost());
+        c.setCompressionEnabled(isCompressionEnabled());
+        c.setRateLimit(getRateLimit(), isRateLimitShared());
+        try {
+            c.setCircuitBreaker(getCircuitFailureThreshold(), getCircuitBackoff(), getCircuitMaxBackoff());
+        } catch (IllegalArgumentException e) {
+            throw new ConnectException("Invalid circuit breaker settings", e);
+        }
+        if (getConditionalGetCacheSize() > 0) {
+            c.setResponseCache(new ConditionalGetCache(getConditionalGetCacheSize()));
+        }
+        return c;
     }
 
-    public Optional<SourceRecord> createSourceRecord(String jobUrl, Long lastSavedBuildNumber) {
-        JenkinsClient client = null;
+    /**
+     * Detects the new builds of a job by requesting the job.
+     *
+     * @return The builds for which SourceRecords should be created, oldest first
+     */
+    private List<PendingBuild> detectNewBuilds(String jobUrl) {
+        JenkinsClient client = clientFor(jobUrl);
+        SourcePartition partition = jobs.getPartition(jobUrl);
+        Long lastSavedBuildNumber = getLastSavedBuildNumber(partition);
+
+        URL jobResource = null;
 
         try {
-	    if (getJenkinsUsername() != null && !getJenkinsUsername().isEmpty()) {
-                client = new JenkinsClient(new URL(jobUrl + "api/json"), getJenkinsUsername(), getJenkinsPassword(), getJenkinsConnTimeout(), getJenkinsReadTimeout());
-            }
-            else {
-		client = new JenkinsClient(new URL(jobUrl + "api/json"), getJenkinsConnTimeout(), getJenkinsReadTimeout());
-	    }            
-        } 
-	catch (JenkinsException je) {
-  	    logger.error("Can't create URL object for Jenkins server at {}.", jobUrl, je);
-            //TODO Silently log the error and ignore? What should we do?
-	}
-	catch (MalformedURLException e) {
+            jobResource = new URL(isTreeProjectionEnabled() ? JenkinsClient.withTree(jobUrl + "api/json", BuildCollection.TREE) : jobUrl + "api/json");
+        } catch (MalformedURLException e) {
             logger.error("Can't create URL object for Jenkins server at {}.", jobUrl, e);
             //TODO Silently log the error and ignore? What should we do?
         }
-        Optional<String> resp = Optional.empty();
-        if (client != null) {
+        if (jobResource != null) {
+            Optional<BuildCollection> builds = Optional.empty();
             try {
-                logger.debug("GET job details for {}", jobUrl + "api/json");
-                resp = client.get();
+                logger.debug("GET job details for {}", jobResource);
+                builds = client.getIfModified(jobResource, BuildCollection.class);
             } catch (JenkinsException e) {
-                logger.warn("Can't do a GET to resource {}", jobUrl + "api/json", e);
+                logger.warn("Can't do a GET to resource {}", jobResource, e);
                 //TODO Silently log the error and ignore? What should we do?
             }
-            if (resp.isPresent()) {
-                logger.trace("Resp: {}", resp.get());
-                BuildCollection builds = null;
+            if (builds.isPresent()) {
+                logger.trace("Builds are: {}", builds.get());
+                return newBuilds(jobUrl, partition, builds.get().getLastBuild(), lastSavedBuildNumber);
+            } else {
+                //If no builds were found
+                logger.debug("No builds were found for {}", jobUrl);
+            }
 
-                //build SourceRecords
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return Only the lastBuild if it wasn't already saved. In catch-up mode, all the builds after the saved one up to
+     * the lastBuild, oldest first and limited by the per job and per poll caps.
+     */
+    private List<PendingBuild> newBuilds(String jobUrl, SourcePartition partition, Build lastBuild, Long lastSavedBuildNumber) {
+        //Some jobs might not have any builds. TODO need to figure out how to represent these
+        //And the lastBuild might have already been stored
+        if (lastBuild == null || lastBuild.getNumber().equals(lastSavedBuildNumber)) {
+            logger.debug("Not creating SourceRecord for {} because either the lastBuild details aren't available or it was already saved earlier", partition.value);
+            return Collections.emptyList();
+        }
+        logger.debug("Partition: {}, lastBuild: {}, lastSavedBuild: {}", partition.value, lastBuild.getNumber(), lastSavedBuildNumber);
+
+        JenkinsClient client = clientFor(jobUrl);
+        long missed = lastSavedBuildNumber == null ? 1 : lastBuild.getNumber() - lastSavedBuildNumber;
+        if (!isCatchUpEnabled() || missed <= 1) {
+            return Collections.singletonList(new PendingBuild(partition, lastBuild, client));
+        }
+
+        int wanted = reserveCatchUpBudget((int) Math.min(missed, getCatchUpMaxBuildsPerJob()));
+        if (wanted == 0) {
+            logger.debug("Catch-up budget of this poll is exhausted. {} missed builds of {} are left for the next poll", missed, partition.value);
+            deferredJobs.add(partition);
+            return Collections.emptyList();
+        }
+
+        //allBuilds are listed newest first. As the build numbers are distinct, the builds after the saved one are among
+        //the first 'missed' ones, and the oldest of them are the last ones. So only the last 'wanted' of them are listed,
+        //whatever the backlog of the job. Fewer builds are after the saved one if some builds were discarded or numbers
+        //were skipped, so the first 'missed' ones are listed if the window holds none of them. Either way, the builds
+        //are selected by their number rather than by their position.
+        long from = Math.max(0, missed - wanted);
+        try {
+            Optional<List<Build>> listed = listBuilds(client, jobUrl, from, missed);
+            if (from > 0 && listed.isPresent() && listed.get().stream().noneMatch(b -> b.getNumber() > lastSavedBuildNumber)) {
+                logger.debug("None of the builds {} to {} of {} are after the saved one. Listing all the missed builds.", from, missed, partition.value);
+                listed = listBuilds(client, jobUrl, 0, missed);
+            }
+            if (listed.isPresent()) {
+                List<PendingBuild> pending = new ArrayList<>(wanted);
+                listed.get().stream()
+                        .filter(b -> b.getNumber() > lastSavedBuildNumber)
+                        .sorted(Comparator.comparing(Build::getNumber))
+                        .limit(wanted)
+                        .forEach(b -> pending.add(new PendingBuild(partition, b, client)));
+                catchUpBudget.addAndGet(wanted - pending.size());
+                if (pending.isEmpty()) {
+                    logger.debug("None of the missed builds of {} are listed. Writing its lastBuild only.", partition.value);
+                    return Collections.singletonList(new PendingBuild(partition, lastBuild, client));
+                }
+                logger.debug("Catching up {} of {} missed builds of {}", pending.size(), missed, partition.value);
+                return pending;
+            }
+        } catch (JenkinsException | MalformedURLException e) {
+            logger.warn("Can't list the missed builds of {}. Catching up in the next poll.", jobUrl, e);
+        }
+        catchUpBudget.addAndGet(wanted);
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return The numbered builds of the job from the index {@code from} (inclusive) to {@code to} (exclusive), newest
+     * first. Empty if the job couldn't be read.
+     */
+    private static Optional<List<Build>> listBuilds(JenkinsClient client, String jobUrl, long from, long to) throws JenkinsException, MalformedURLException {
+        String range = "allBuilds[number,url]{" + from + "," + to + "}";
+        Optional<BuildCollection> resp = client.get(new URL(JenkinsClient.withTree(jobUrl + "api/json", range)), BuildCollection.class);
+        return resp.map(builds -> {
+            List<Build> listed = new ArrayList<>();
+            if (builds.getAllBuilds() != null) {
+                builds.getAllBuilds().stream().filter(b -> b.getNumber() != null).forEach(listed::add);
+            }
+            return listed;
+        });
+    }
+
+    private int reserveCatchUpBudget(int wanted) {
+        while (true) {
+            int left = catchUpBudget.get();
+            int reserved = Math.min(left, wanted);
+            if (catchUpBudget.compareAndSet(left, left - reserved)) {
+                return reserved;
+            }
+        }
+    }
+
+    /**
+     * Creates the SourceRecord with the details of the build.
+     */
+    private Optional<SourceRecord> createSourceRecord(PendingBuild pending) {
+        SourcePartition partition = pending.partition;
+        Build build = pending.build;
+        SourceOffset sourceOffset = SourceOffset.make(BUILD_NUMBER, build.getNumber());
+
+        //The build may be shared by the response cache of the client, so it is only read and never modified
+        String detailsResource = build.getUrl() != null ? JenkinsClient.withTree(build.getUrl() + "api/json", getBuildDetailsTree()) : null;
+        Optional<String> buildDetails = getBuildDetails(pending, detailsResource);
+
+        if (buildDetails.isPresent()) {
+            logger.debug("Create SourceRecord for {}", partition.value);
+            if (structs != null) {
+                //add build details Struct as the value
                 try {
-                    builds = mapper.readValue(resp.get(), BuildCollection.class);
-                } catch (IOException e) {
-                    logger.error("Error while parsing the Build JSON {} for {}", resp.get(), jobUrl + "api/json", e);
+                    Struct details = structs.toStruct(buildDetails.get());
+                    return Optional.of(new SourceRecord(partition.encoded, sourceOffset.encoded, taskProps.get(TOPIC_CONFIG), Schema.STRING_SCHEMA, partition.value, details.schema(), details));
+                } catch (IOException | DataException e) {
+                    logger.error("Unable to map the build details of {} to a Struct", detailsResource, e);
+                    return Optional.empty();
                 }
+            }
+            //add build details JSON string as the value
+            return Optional.of(new SourceRecord(partition.encoded, sourceOffset.encoded, taskProps.get(TOPIC_CONFIG), Schema.STRING_SCHEMA, partition.value, Schema.STRING_SCHEMA, buildDetails.get()));
+        }
+        logger.debug("Ignoring job details for {} as there are no builds for this Job. Not creating SourceRecord.", detailsResource);
+        return Optional.empty();
+    }
+
+    /**
+     * GETs the build details with the shared client of the controller
+     */
+    private Optional<String> getBuildDetails(PendingBuild pending, String detailsResource) {
+        logger.debug("GET build details for {}", detailsResource);
+        try {
+            return pending.client.get(new URL(detailsResource), detailsFilter);
+        } catch (MalformedURLException | JenkinsException e) {
+            logger.error("WARNING only. Unable to get the build details from {}", pending.build.getUrl(), e);
+            return Optional.empty();
+        }
+    }
 
-                logger.trace("Builds are: {}", builds);
+    /**
+     * Detects the changed jobs with a single request per folder instead of one request per job. The lastBuild of
+     * every job is listed by its folder (or the root) and only the jobs whose lastBuild moved past the saved offset
+     * are fetched. Jobs missing from the listing fall back to a request per job.
+     *
+     * @return The detections to run for the changed jobs
+     */
+    private List<Callable<List<PendingBuild>>> detectChanges(List<String> jobUrls) {
+        //Group the jobs by their folder, so that each folder is listed only once
+        Map<String, List<String>> jobUrlsByFolder = new LinkedHashMap<>();
+        for (String jobUrl : jobUrls) {
+            jobUrlsByFolder.computeIfAbsent(parentUrl(jobUrl), f -> new ArrayList<>()).add(jobUrl);
+        }
 
-                if (builds != null) {
-                    SourcePartition partition = partitions.make(builds.getName());
+        List<Callable<List<PendingBuild>>> detections = new ArrayList<>();
+        for (Map.Entry<String, List<String>> folder : jobUrlsByFolder.entrySet()) {
+            //All the jobs of a folder are of the same controller
+            Map<String, Job> listedJobs = listJobs(folder.getKey(), clientFor(folder.getValue().get(0)));
 
-                    Build lastBuild = builds.getLastBuild();
+            for (String jobUrl : folder.getValue()) {
+                SourcePartition partition = jobs.getPartition(jobUrl);
+                String jobName = partition.value;
+                //The folders list their jobs by the name within the folder
+                Job job = listedJobs.get(shortJobName(jobName));
 
-                    //Some jobs might not have any builds. TODO need to figure out how to represent these
-                    //And the lastBuild might have already been stored
+                if (job == null) {
+                    logger.debug("'{}' isn't listed by {}. Fetching it individually.", jobName, folder.getKey());
+                    detections.add(() -> detectNewBuilds(jobUrl));
+                    continue;
+                }
 
-                    if (lastBuild != null && !lastBuild.getNumber().equals(lastSavedBuildNumber)) {
-                        Long offsetValue = lastBuild.getNumber();
-                        logger.debug("Partition: {}, lastBuild: {}, lastSavedBuild: {}", partition.value, offsetValue, lastSavedBuildNumber);
-                        SourceOffset sourceOffset = SourceOffset.make(BUILD_NUMBER, offsetValue);
+                Long lastSavedBuildNumber = getLastSavedBuildNumber(partition);
+                Build lastBuild = job.getLastBuild();
 
-                        //get Build details
-                        lastBuild.setConnTimeoutInMillis(getJenkinsConnTimeout());
-                        lastBuild.setReadTimeoutInMillis(getJenkinsReadTimeout());
-			lastBuild.setUsername(getJenkinsUsername());
-			lastBuild.setPassword(getJenkinsPassword());
-                        Optional<String> lastBuildDetails = lastBuild.getDetails();
+                if (lastBuild != null && !lastBuild.getNumber().equals(lastSavedBuildNumber)) {
+                    detections.add(() -> newBuilds(jobUrl, partition, lastBuild, lastSavedBuildNumber));
+                }
+            }
+        }
+        logger.debug("{} of {} jobs changed since the last saved builds", detections.size(), jobUrls.size());
+        return detections;
+    }
 
-                        if (lastBuildDetails.isPresent()) {
-                            //add build details JSON string as the value
-                            logger.debug("Create SourceRecord for {}", partition.value);
-                            SourceRecord record = new SourceRecord(partition.encoded, sourceOffset.encoded, taskProps.get(TOPIC_CONFIG), Schema.STRING_SCHEMA, partition.value, Schema.STRING_SCHEMA, lastBuildDetails.get());
-                            storageAdapter.cache(partition, sourceOffset);
+    /**
+     * @return The jobs of the folder along with their lastBuild, keyed by the job name. Empty if the folder couldn't be listed.
+     */
+    private Map<String, Job> listJobs(String folderUrl, JenkinsClient client) {
+        String resource = folderUrl + "api/json";
+        try {
+            Optional<Jenkins> resp = client.getIfModified(new URL(JenkinsClient.withTree(resource, Jenkins.LAST_BUILDS_TREE)), Jenkins.class);
 
-                            return Optional.of(record);
-                        } else {
-                            logger.debug("Ignoring job details for {} as there are no builds for this Job. Not creating SourceRecord.", lastBuild.getBuildDetailsResource());
-                        }
-                    } else {
-                        logger.debug("Not creating SourceRecord for {} because either the lastBuild details aren't available or it was already saved earlier", jobUrl + "api/json");
-                    }
+            if (resp.isPresent()) {
+                Jenkins folder = resp.get();
+                Map<String, Job> jobs = new HashMap<>();
+                if (folder.getJobs() != null) {
+                    folder.getJobs().forEach(j -> jobs.put(j.getName(), j));
                 }
-            } else {
-                //If no builds were found
-                logger.debug("No builds were found for {}", jobUrl);
+                return jobs;
             }
+        } catch (JenkinsException | MalformedURLException e) {
+            logger.warn("Can't list the jobs of {}", resource, e);
+        }
+        return Collections.emptyMap();
+    }
+
+    private JenkinsClient clientFor(String jobUrl) {
+        return clients.get(jobs.getController(jobUrl));
+    }
+
+    private Long getLastSavedBuildNumber(SourcePartition partition) {
+        logger.trace("Get lastSavedOffset for partitionValue: {}", partition.value);
+        Optional<SourceOffset> offset = storageAdapter.getOffset(partition);
 
+        if (offset.isPresent()) {
+            logger.debug("lastSavedOffset for '{}' is: {}", partition.value, offset.get());
+            return (Long) offset.get().value;
         }
-        return Optional.empty();
+        logger.debug("lastSavedOffset not available for: {}", partition.value);
+        return null;
     }
 
+    /**
+     * Returns the records that the fetchers have queued so far. Waits at most {@link #POLL_TIMEOUT_IN_MILLIS} for the
+     * first record, so that the worker thread is never blocked for a whole poll cycle.
+     *
+     * @return The ready records, possibly none. Null once the task is stopped.
+     */
     @Override
     public List<SourceRecord> poll() throws InterruptedException {
         logger.debug("In poll()");
+        if (stop.get()) {
+            logger.debug("Returning null from poll(). This is because the runtime called shutdown.");
+            //Only in case make shutdown. null indicates no data
+            return null;
+        }
+
+        SourceRecord first = records.poll(POLL_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        List<SourceRecord> ready = new ArrayList<>();
+        ready.add(first);
+        records.drainTo(ready);
+        logger.debug("Returning {} SourceRecords from poll()", ready.size());
+        return ready;
+    }
 
+    /**
+     * Runs the poll cycles of this task until it is stopped. Each cycle waits until the poll interval (or the next job
+     * as per the adaptive schedule) is due and then hands the jobs over to the fetchers.
+     */
+    private void pollJenkins() {
         //Keep trying in a loop until stop() is called on this instance.
-        //TODO use RxJava for this in future
         while (!stop.get()) {
-            long now = time.milliseconds();
-            logger.trace("Now: {}", sdf.format(new Date(now)));
-            long nextUpdate = 0;
-
-            //Check if poll time had elapsed
-            if (lastUpdate == 0) {
-                logger.trace("First call after starting the connector. So Pulling the Jobs from Jenkins now.");
-                nextUpdate = now;
+            try {
+                long now = time.milliseconds();
+                logger.trace("Now: {}", sdf.format(new Date(now)));
+                long nextUpdate = 0;
+
+                //Check if poll time had elapsed
+                if (schedule != null) {
+                    nextUpdate = schedule.nextDue();
+                    logger.trace("Next job is due at {} (approx).", nextUpdate);
+                } else if (lastUpdate == 0) {
+                    logger.trace("First call after starting the connector. So Pulling the Jobs from Jenkins now.");
+                    nextUpdate = now;
+                } else {
+                    nextUpdate = lastUpdate + pollIntervalInMillis;
+                    logger.trace("Next pull from Jenkins should happen at {} (approx).", nextUpdate);
+                }
+                metrics.setNextPollAt(nextUpdate);
+                long untilNext = nextUpdate - now;
+                logger.debug("now: {}, nextUpdate: {}, untilNext: {}", sdf.format(new Date(now)), sdf.format(new Date(nextUpdate)), untilNext);
+
+                if (untilNext > 0) {
+                    logger.info("Waiting {} ms before next pull", untilNext);
+                    //Wakes up early once stop() interrupts the poller, which then ends as stop is set
+                    time.sleep(untilNext);
+                    continue;
+                }
+
+                runPollCycle(now);
+
+                //Update the last updated time to now once all the jobs of this cycle are fetched
+                lastUpdate = time.milliseconds();
+                logger.debug("Setting the lastUpdate time to : {}", sdf.format(new Date(lastUpdate)));
+                totalJenkinsPulls++;
+            } catch (InterruptedException e) {
+                logger.debug("Poller interrupted");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Poll cycle failed. Retrying in the next cycle.", e);
+                lastUpdate = time.milliseconds();
+            }
+        }
+        logger.debug("Poller stopped. This is because the runtime called shutdown.");
+    }
+
+    private void runPollCycle(long now) throws InterruptedException {
+        logger.debug("Total pulls from Jenkins so far: {}", totalJenkinsPulls);
+        catchUpBudget.set(getCatchUpMaxBuildsPerPoll());
+        deferredJobs.clear();
+        reportedBuilds.clear();
+
+        List<String> jobUrls = schedule != null ? schedule.takeDue(now) : jobs.getJobUrls();
+        logger.debug("Polling {} job(s)", jobUrls.size());
+
+        Set<SourcePartition> changed = ConcurrentHashMap.newKeySet();
+        try {
+            List<Callable<List<PendingBuild>>> detections = new ArrayList<>(jobUrls.size());
+            if (isBulkChangeDetection()) {
+                detections.addAll(detectChanges(jobUrls));
             } else {
-                nextUpdate = lastUpdate + pollIntervalInMillis;
-                logger.trace("Next pull from Jenkins should happen at {} (approx).", nextUpdate);
+                for (String jobUrl : jobUrls) {
+                    detections.add(() -> detectNewBuilds(jobUrl));
+                }
             }
-            long untilNext = nextUpdate - now;
-            logger.debug("now: {}, nextUpdate: {}, untilNext: {}", sdf.format(new Date(now)), sdf.format(new Date(nextUpdate)), untilNext);
 
-            if (untilNext > 0) {
-                logger.info("Waiting {} ms before next pull", untilNext);
-                time.sleep(untilNext);
-                continue;
+            int queued = fetchAll(detections, changed);
+            changed.addAll(deferredJobs);
+            if (isConsoleLogEnabled()) {
+                queued += followConsoleLogs(jobUrls);
+            }
+            if (isBuildReportsEnabled()) {
+                queued += followBuildReports(jobUrls);
+            }
+            logger.info("Total SourceRecords created: {}.", queued);
+            metrics.recordPollCycle(time.milliseconds() - now, queued, jobUrls.size() - changed.size());
+            logOpenCircuits();
+        } finally {
+            if (schedule != null) {
+                long polledAt = time.milliseconds();
+                for (String jobUrl : jobUrls) {
+                    schedule.reschedule(jobUrl, changed.contains(jobs.getPartition(jobUrl)), polledAt);
+                }
+            }
+        }
+    }
+
+    private void logOpenCircuits() {
+        clients.values().forEach(client -> client.getCircuitStates().forEach((host, state) -> {
+            if (state != CircuitBreaker.State.CLOSED) {
+                logger.warn("Circuit of {} is {}. Its jobs fail fast until it recovers.", host, state);
             }
+        }));
+    }
 
-            logger.debug("Total pulls from Jenkins so far: {}", totalJenkinsPulls);
-            String jobUrls = taskProps.get(JOB_URLS);
-            storageAdapter = new ReadYourWritesOffsetStorageAdapter(context.offsetStorageReader(), jobUrls, partitions);
+    /**
+     * Runs each detection on a fetcher, which then fetches the details of the new builds of the job one after the other
+     * and queues the records as soon as they are created. So the records of a job are queued in build order and never
+     * wait for the other jobs. The fetchers block once the queue is full, until {@link #poll()} catches up.
+     *
+     * @param changed Populated with the partitions of the jobs that have new builds
+     * @return The number of records queued
+     */
+    private int fetchAll(List<Callable<List<PendingBuild>>> detections, Set<SourcePartition> changed) throws InterruptedException {
+        List<Future<Integer>> fetches = new ArrayList<>(detections.size());
+        try {
+            for (Callable<List<PendingBuild>> detection : detections) {
+                fetches.add(fetchers.submit(() -> {
+                    List<PendingBuild> newBuilds = detection.call();
+                    newBuilds.forEach(b -> changed.add(b.partition));
+                    return queueRecords(newBuilds);
+                }));
+            }
 
-            String[] jobUrlArray = jobUrls.split(",");
+            return sumQueued(fetches);
+        } catch (InterruptedException e) {
+            fetches.forEach(f -> f.cancel(true));
+            throw e;
+        }
+    }
 
-            List<SourceRecord> records = new ArrayList<>();
-            for (String jobUrl : jobUrlArray) {
+    /**
+     * Follows the console logs of the jobs on the fetchers, once the new builds are queued so that the saved build
+     * numbers are up-to-date. See {@link #followConsoleLog(String)}.
+     *
+     * @return The number of records queued
+     */
+    private int followConsoleLogs(List<String> jobUrls) throws InterruptedException {
+        List<Future<Integer>> follows = new ArrayList<>(jobUrls.size());
+        try {
+            for (String jobUrl : jobUrls) {
+                follows.add(fetchers.submit(() -> followConsoleLog(jobUrl)));
+            }
+            return sumQueued(follows);
+        } catch (InterruptedException e) {
+            follows.forEach(f -> f.cancel(true));
+            throw e;
+        }
+    }
 
-                SourcePartition partition = partitions.make(urlDecode(extractJobName(jobUrl)));
+    private int sumQueued(List<Future<Integer>> fetches) throws InterruptedException {
+        int queued = 0;
+        for (Future<Integer> f : fetches) {
+            try {
+                queued += f.get();
+            } catch (ExecutionException e) {
+                logger.warn("Ignoring the failed fetch of a job.", e.getCause());
+                metrics.recordFailedJob();
+            }
+        }
+        return queued;
+    }
 
-                logger.trace("Get lastSavedOffset for: '{}' with partitionValue: {}", jobUrl, partition.value);
-                Optional<SourceOffset> offset = storageAdapter.getOffset(partition);
+    /**
+     * Reads the console log of a build of the job from the saved byte offset and queues it in chunks. The log of a
+     * build is followed until it is complete, one read of at most <i>jenkins.console.log.poll.max.bytes</i> per poll,
+     * and then the log of the last saved build is followed from its start. So the logs of the builds in between are
+     * skipped, like the builds themselves are if the catch-up isn't enabled.
+     * <p>
+     * The build number, the byte offset and the completion of the log are saved in the offset of each chunk. So a
+     * restarted task resumes exactly after the last written chunk.
+     * </p>
+     *
+     * @return The number of records queued
+     */
+    private int followConsoleLog(String jobUrl) throws InterruptedException {
+        SourcePartition jobPartition = jobs.getPartition(jobUrl);
+        Long lastSavedBuildNumber = getLastSavedBuildNumber(jobPartition);
+        if (lastSavedBuildNumber == null) {
+            return 0;
+        }
+        SourcePartition partition = consoleLogPartitionOf(jobPartition);
+        Optional<SourceOffset> saved = storageAdapter.getOffset(partition);
 
-                Long lastSavedBuildNumber = null;
-                if (offset.isPresent()) {
-                    logger.debug("lastSavedOffset for '{}' is: {}", partition.value, offset.get());
-                    lastSavedBuildNumber = (Long) offset.get().value;
-                } else {
-                    logger.debug("lastSavedOffset not available for: {}", partition.value);
+        long buildNumber;
+        long start;
+        if (saved.isPresent() && !Boolean.TRUE.equals(saved.get().get(LOG_COMPLETE))) {
+            buildNumber = ((Number) saved.get().get(BUILD_NUMBER)).longValue();
+            start = ((Number) saved.get().get(LOG_OFFSET)).longValue();
+        } else if (!saved.isPresent() || ((Number) saved.get().get(BUILD_NUMBER)).longValue() < lastSavedBuildNumber) {
+            buildNumber = lastSavedBuildNumber;
+            start = 0;
+        } else {
+            return 0;
+        }
+
+        int maxBytes = getConsoleLogPollMaxBytes();
+        long buildMaxBytes = getConsoleLogBuildMaxBytes();
+        if (buildMaxBytes > 0) {
+            maxBytes = (int) Math.max(0, Math.min(maxBytes, buildMaxBytes - start));
+        }
+        ProgressiveText text;
+        if (maxBytes == 0) {
+            text = new ProgressiveText(start, new byte[0], start, false, false);
+        } else {
+            try {
+                Optional<ProgressiveText> resp = clientFor(jobUrl).getProgressiveText(jobUrl + buildNumber + "/", start, maxBytes);
+                if (!resp.isPresent()) {
+                    return 0;
                 }
-                Optional<SourceRecord> sourceRecord = createSourceRecord(jobUrl, lastSavedBuildNumber);
-                if (sourceRecord.isPresent()) records.add(sourceRecord.get());
+                text = resp.get();
+            } catch (JenkinsException e) {
+                logger.warn("Can't read the console log of {} #{}. Retrying in the next poll.", partition.value, buildNumber, e);
+                metrics.recordFailedJob();
+                return 0;
             }
+        }
+        if (buildMaxBytes > 0 && start + text.getLength() >= buildMaxBytes) {
+            logger.debug("The console log of {} #{} reached {} bytes. No longer following it.", partition.value, buildNumber, buildMaxBytes);
+            text = text.asComplete();
+        }
+        return queueConsoleLog(partition, buildNumber, text);
+    }
+
+    private int queueConsoleLog(SourcePartition partition, long buildNumber, ProgressiveText text) throws InterruptedException {
+        List<ProgressiveText.Chunk> chunks = text.chunks(getConsoleLogChunkMaxBytes());
+        String topic = getConsoleLogTopic();
+        int queued = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            ProgressiveText.Chunk chunk = chunks.get(i);
+            boolean complete = text.isComplete() && i == chunks.size() - 1;
+            SourceOffset offset = consoleLogOffset(buildNumber, chunk.end, complete);
+            Struct value = ConsoleLogStructs.toStruct(partition.value, buildNumber, chunk, complete);
+            records.put(new SourceRecord(partition.encoded, offset.encoded, topic, Schema.STRING_SCHEMA, partition.value, value.schema(), value));
+            storageAdapter.cache(partition, offset);
+            queued++;
+        }
+        if (chunks.isEmpty() && text.isComplete()) {
+            //Nothing left to write, so the completion is only cached. It is found again after a restart.
+            storageAdapter.cache(partition, consoleLogOffset(buildNumber, text.getStart() + text.getLength(), true));
+        }
+        logger.debug("Queued {} console log chunk(s) of {} #{}", queued, partition.value, buildNumber);
+        return queued;
+    }
+
+    private static SourceOffset consoleLogOffset(long buildNumber, long logOffset, boolean complete) {
+        return SourceOffset.make(BUILD_NUMBER, buildNumber).with(LOG_OFFSET, logOffset).with(LOG_COMPLETE, complete);
+    }
+
+    private static SourcePartition consoleLogPartitionOf(SourcePartition jobPartition) {
+        return consoleLogPartitions.make(jobPartition.value);
+    }
+
+    private static SourcePartition buildReportsPartitionOf(SourcePartition jobPartition) {
+        return buildReportsPartitions.make(jobPartition.value);
+    }
 
-            logger.info("Total SourceRecords created: {}. Returning these from poll()", records.size());
+    /**
+     * Creates and queues the records of the new builds of a job in build order. A missing build stops the job so that
+     * it is retried in the next poll, up to {@link #MAX_BUILD_ATTEMPTS} polls. The build is then skipped.
+     */
+    private int queueRecords(List<PendingBuild> newBuilds) throws InterruptedException {
+        int queued = 0;
+        for (PendingBuild pending : newBuilds) {
+            Optional<SourceRecord> sourceRecord = createSourceRecord(pending);
+            if (!sourceRecord.isPresent()) {
+                metrics.recordFailedJob();
+                if (countFailedAttempt(pending) < MAX_BUILD_ATTEMPTS) {
+                    break;
+                }
+                logger.error("Skipping build {} of {}. Its record couldn't be created in {} polls.", pending.build.getNumber(), pending.partition.value, MAX_BUILD_ATTEMPTS);
+                failedBuilds.remove(pending.partition);
+                storageAdapter.cache(pending.partition, SourceOffset.make(BUILD_NUMBER, pending.build.getNumber()));
+                continue;
+            }
+            failedBuilds.remove(pending.partition);
+            records.put(sourceRecord.get());
+            storageAdapter.cache(pending.partition, SourceOffset.make(BUILD_NUMBER, pending.build.getNumber()));
+            queued++;
+            if (isBuildReportsEnabled()) {
+                queued += queueBuildReports(pending.partition, pending.build.getNumber(), pending.build.getUrl(), pending.client);
+            }
+        }
+        return queued;
+    }
 
-            //Update the last updated time to now just before returning the call
-            lastUpdate = time.milliseconds();
-            logger.debug("Setting the lastUpdate time to : {}", sdf.format(new Date(lastUpdate)));
+    /**
+     * @return The builds whose reports were pending when the task stopped. The last saved build is pending too if
+     * its reports weren't written, as its reports offset is only cached until they are.
+     */
+    private NavigableSet<Long> restorePendingReports(SourcePartition jobPartition) {
+        NavigableSet<Long> pending = new ConcurrentSkipListSet<>();
+        Optional<SourceOffset> reported = storageAdapter.getOffset(buildReportsPartitionOf(jobPartition));
+        if (reported.isPresent() && reported.get().get(PENDING_BUILDS) != null) {
+            ((List<?>) reported.get().get(PENDING_BUILDS)).forEach(n -> pending.add(((Number) n).longValue()));
+        }
+        Long lastSavedBuildNumber = getLastSavedBuildNumber(jobPartition);
+        if (lastSavedBuildNumber != null && (!reported.isPresent() || ((Number) reported.get().value).longValue() < lastSavedBuildNumber)) {
+            pending.add(lastSavedBuildNumber);
+        }
+        return pending;
+    }
 
-            totalJenkinsPulls++;
-            return records;
+    /**
+     * Reads the reports of the saved builds of each job whose reports are yet to be written, because the builds were
+     * still running when their details were written. The builds already read in this poll cycle are left for the next
+     * one. See {@link #queueBuildReports}.
+     *
+     * @return The number of records queued
+     */
+    private int followBuildReports(List<String> jobUrls) throws InterruptedException {
+        List<Future<Integer>> follows = new ArrayList<>(jobUrls.size());
+        try {
+            for (String jobUrl : jobUrls) {
+                SourcePartition jobPartition = jobs.getPartition(jobUrl);
+                List<Long> pending = new ArrayList<>(pendingReports.get(jobPartition));
+                pending.removeIf(n -> reportedBuilds.contains(buildKey(jobPartition, n)));
+                if (!pending.isEmpty()) {
+                    follows.add(fetchers.submit(() -> {
+                        int queued = 0;
+                        for (long buildNumber : pending) {
+                            queued += queueBuildReports(jobPartition, buildNumber, jobUrl + buildNumber + "/", clientFor(jobUrl));
+                        }
+                        return queued;
+                    }));
+                }
+            }
+            return sumQueued(follows);
+        } catch (InterruptedException e) {
+            follows.forEach(f -> f.cancel(true));
+            throw e;
         }
+    }
 
-        logger.debug("Returning null from poll(). This is because the runtime called shutdown.");
-        //Only in case make shutdown. null indicates no data
-        return null;
+    /**
+     * Queues the test results and the Pipeline stages of a build once it is finished, as those of a running build are
+     * partial. They are written to a partition of their own. Its offset holds the last saved build whose reports are
+     * written or awaited and the builds still awaited, so a later build that finishes first never hides the reports
+     * of a build that is still running. Those are read by {@link #followBuildReports(List)} in a later poll, also
+     * after a restart. Both reports are read before any record is queued, so that a failed read doesn't write them
+     * twice when it is retried.
+     *
+     * @return The number of records queued. 0 if the build is still running or a report couldn't be read.
+     */
+    private int queueBuildReports(SourcePartition jobPartition, long buildNumber, String buildUrl, JenkinsClient client) throws InterruptedException {
+        SourcePartition partition = buildReportsPartitionOf(jobPartition);
+        NavigableSet<Long> pending = pendingReports.get(jobPartition);
+        reportedBuilds.add(buildKey(jobPartition, buildNumber));
+        Optional<TestReport> report = Optional.empty();
+        Optional<PipelineRun> run = Optional.empty();
+        try {
+            Optional<Build> state = client.get(new URL(JenkinsClient.withTree(buildUrl + "api/json", BUILD_STATE_TREE)), Build.class);
+            if (!state.isPresent()) {
+                logger.debug("Can't read the state of {}. Retrying in the next poll.", buildUrl);
+                return awaitBuildReports(partition, pending, buildNumber);
+            }
+            if (!Boolean.FALSE.equals(state.get().getBuilding())) {
+                logger.debug("{} is still running. Reading its reports once it is finished.", buildUrl);
+                return awaitBuildReports(partition, pending, buildNumber);
+            }
+            if (isTestReportEnabled()) {
+                report = client.getTestReport(buildUrl, isTreeProjectionEnabled(), getTestReportMaxFailedCases(), getTestReportMaxTextLength());
+            }
+            if (isPipelineStagesEnabled() && state.get().mayBePipelineRun()) {
+                run = client.get(new URL(buildUrl + "wfapi/describe"), PipelineRun.class);
+            }
+        } catch (JenkinsException | MalformedURLException e) {
+            logger.warn("Can't read the reports of {}. Retrying in the next poll.", buildUrl, e);
+            return awaitBuildReports(partition, pending, buildNumber);
+        }
+
+        pending.remove(buildNumber);
+        SourceOffset offset = buildReportsOffset(partition, buildNumber, pending);
+        int queued = 0;
+        if (report.isPresent()) {
+            queued += queueTestReport(partition, jobPartition.value, buildNumber, report.get(), offset);
+        } else {
+            logger.debug("No test results for {}", buildUrl);
+        }
+        if (run.isPresent() && run.get().getStages() != null) {
+            queued += queuePipelineStages(partition, jobPartition.value, buildNumber, run.get().getStages(), offset);
+        } else {
+            logger.debug("No Pipeline stages for {}", buildUrl);
+        }
+        //A build without reports has no records. So its offset is only cached and it is read again after a restart.
+        storageAdapter.cache(partition, offset);
+        return queued;
+    }
+
+    /**
+     * Keeps the build among the pending ones of its job, so that its reports are read in a later poll
+     *
+     * @return 0 as no record is queued
+     */
+    private int awaitBuildReports(SourcePartition partition, NavigableSet<Long> pending, long buildNumber) {
+        pending.add(buildNumber);
+        storageAdapter.cache(partition, buildReportsOffset(partition, buildNumber, pending));
+        return 0;
+    }
+
+    /**
+     * @return The offset of the reports of the build. It never goes back to an older build, as the reports of the
+     * builds are written in the order they finish.
+     */
+    private SourceOffset buildReportsOffset(SourcePartition partition, long buildNumber, Set<Long> pending) {
+        long last = storageAdapter.getOffset(partition).map(o -> Math.max(((Number) o.value).longValue(), buildNumber)).orElse(buildNumber);
+        return SourceOffset.make(BUILD_NUMBER, last).with(PENDING_BUILDS, new ArrayList<>(pending));
+    }
+
+    private static String buildKey(SourcePartition jobPartition, long buildNumber) {
+        return jobPartition.value + "#" + buildNumber;
+    }
+
+    /**
+     * Queues a record for each test suite and each failed test case of the build.
+     */
+    private int queueTestReport(SourcePartition partition, String job, long buildNumber, TestReport report, SourceOffset offset) throws InterruptedException {
+        String topic = getTestReportTopic();
+        List<Struct> results = new ArrayList<>();
+        report.getSuites().forEach(suite -> results.add(TestReportStructs.toStruct(job, buildNumber, suite)));
+        report.getFailedCases().forEach(c -> results.add(TestReportStructs.toStruct(job, buildNumber, c)));
+        for (Struct result : results) {
+            records.put(new SourceRecord(partition.encoded, offset.encoded, topic, Schema.STRING_SCHEMA, job, result.schema(), result));
+        }
+        if (report.getDroppedFailedCases() > 0) {
+            logger.info("Left out {} failed test cases of {} #{} beyond jenkins.test.report.max.failed.cases", report.getDroppedFailedCases(), job, buildNumber);
+        }
+        logger.debug("Queued {} test result(s) of {} #{}", results.size(), job, buildNumber);
+        return results.size();
+    }
+
+    /**
+     * Queues a record for each stage of a Pipeline build, keyed by the job and the build.
+     */
+    private int queuePipelineStages(SourcePartition partition, String job, long buildNumber, List<PipelineStage> stages, SourceOffset offset) throws InterruptedException {
+        Struct key = PipelineStageStructs.toKey(job, buildNumber);
+        String topic = getPipelineStagesTopic();
+        for (int i = 0; i < stages.size(); i++) {
+            Struct stage = PipelineStageStructs.toStruct(job, buildNumber, i, stages.get(i));
+            records.put(new SourceRecord(partition.encoded, offset.encoded, topic, key.schema(), key, stage.schema(), stage));
+        }
+        logger.debug("Queued {} Pipeline stage(s) of {} #{}", stages.size(), job, buildNumber);
+        return stages.size();
+    }
+
+    /**
+     * @return The polls in which the record of the build failed so far, including this one
+     */
+    private int countFailedAttempt(PendingBuild pending) {
+        long number = pending.build.getNumber();
+        return failedBuilds.compute(pending.partition, (p, failed) ->
+                new FailedBuild(number, failed != null && failed.number == number ? failed.attempts + 1 : 1)).attempts;
+    }
+
+    private static class FailedBuild {
+        final long number;
+        final int attempts;
+
+        FailedBuild(long number, int attempts) {
+            this.number = number;
+            this.attempts = attempts;
+        }
+    }
+
+    /**
+     * A build of a job for which a SourceRecord is yet to be created.
+     */
+    private static class PendingBuild {
+        final SourcePartition partition;
+        final Build build;
+        //Client of the controller of the job
+        final JenkinsClient client;
+
+        PendingBuild(SourcePartition partition, Build build, JenkinsClient client) {
+            this.partition = partition;
+            this.build = build;
+            this.client = client;
+        }
     }
 
     @Override
     public synchronized void stop() {
         logger.info("JenkinsSourceTask stopping");
         if (stop != null) stop.set(true);
+        if (poller != null) poller.interrupt();
+        if (fetchers != null) fetchers.shutdownNow();
+        if (clients != null) clients.values().forEach(JenkinsClient::close);
+        if (metrics != null) metrics.close();
     }
 
     @Override
@@ -234,20 +1019,153 @@ public class JenkinsSourceTask extends SourceTask {
         super.initialize(context);
     }
 
-    private int getJenkinsReadTimeout() {
-        return Integer.valueOf(taskProps.getOrDefault(JENKINS_READ_TIMEOUT_CONFIG, valueOf(JENKINS_READ_TIMEOUT_DEFAULT)));
+    private int getFetchParallelism() {
+        return Integer.valueOf(taskProps.getOrDefault(FETCH_PARALLELISM_CONFIG, valueOf(FETCH_PARALLELISM_DEFAULT)));
+    }
+
+    private boolean isBulkChangeDetection() {
+        return CHANGE_DETECTION_BULK.equals(taskProps.getOrDefault(CHANGE_DETECTION_MODE_CONFIG, CHANGE_DETECTION_MODE_DEFAULT));
+    }
+
+    private boolean isCatchUpEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(CATCH_UP_CONFIG, valueOf(CATCH_UP_DEFAULT)));
+    }
+
+    private int getCatchUpMaxBuildsPerJob() {
+        return Integer.valueOf(taskProps.getOrDefault(CATCH_UP_MAX_BUILDS_PER_JOB_CONFIG, valueOf(CATCH_UP_MAX_BUILDS_PER_JOB_DEFAULT)));
+    }
+
+    private int getCatchUpMaxBuildsPerPoll() {
+        return Integer.valueOf(taskProps.getOrDefault(CATCH_UP_MAX_BUILDS_PER_POLL_CONFIG, valueOf(CATCH_UP_MAX_BUILDS_PER_POLL_DEFAULT)));
+    }
+
+    private boolean isTreeProjectionEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(JENKINS_TREE_PROJECTION_CONFIG, valueOf(JENKINS_TREE_PROJECTION_DEFAULT)));
+    }
+
+    private String getBuildDetailsTree() {
+        return taskProps.getOrDefault(JENKINS_BUILD_DETAILS_TREE_CONFIG, JENKINS_BUILD_DETAILS_TREE_DEFAULT);
+    }
+
+    private List<String> getBuildDetailsIncludes() {
+        return Arrays.asList(taskProps.getOrDefault(JENKINS_BUILD_DETAILS_INCLUDE_CONFIG, JENKINS_BUILD_DETAILS_INCLUDE_DEFAULT).split(","));
+    }
+
+    private List<String> getBuildDetailsExcludes() {
+        return Arrays.asList(taskProps.getOrDefault(JENKINS_BUILD_DETAILS_EXCLUDE_CONFIG, JENKINS_BUILD_DETAILS_EXCLUDE_DEFAULT).split(","));
+    }
+
+    private int getBuildDetailsMaxArrayElements() {
+        return Integer.valueOf(taskProps.getOrDefault(JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_CONFIG, valueOf(JENKINS_BUILD_DETAILS_MAX_ARRAY_ELEMENTS_DEFAULT)));
+    }
+
+    private boolean isConsoleLogEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(CONSOLE_LOG_CONFIG, valueOf(CONSOLE_LOG_DEFAULT)));
+    }
+
+    private String getConsoleLogTopic() {
+        return taskProps.getOrDefault(CONSOLE_LOG_TOPIC_CONFIG, CONSOLE_LOG_TOPIC_DEFAULT);
+    }
+
+    private int getConsoleLogChunkMaxBytes() {
+        return Integer.valueOf(taskProps.getOrDefault(CONSOLE_LOG_CHUNK_MAX_BYTES_CONFIG, valueOf(CONSOLE_LOG_CHUNK_MAX_BYTES_DEFAULT)));
+    }
+
+    private int getConsoleLogPollMaxBytes() {
+        return Integer.valueOf(taskProps.getOrDefault(CONSOLE_LOG_POLL_MAX_BYTES_CONFIG, valueOf(CONSOLE_LOG_POLL_MAX_BYTES_DEFAULT)));
+    }
+
+    private long getConsoleLogBuildMaxBytes() {
+        return Long.valueOf(taskProps.getOrDefault(CONSOLE_LOG_BUILD_MAX_BYTES_CONFIG, valueOf(CONSOLE_LOG_BUILD_MAX_BYTES_DEFAULT)));
+    }
+
+    private boolean isBuildReportsEnabled() {
+        return isTestReportEnabled() || isPipelineStagesEnabled();
+    }
+
+    private boolean isPipelineStagesEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(PIPELINE_STAGES_CONFIG, valueOf(PIPELINE_STAGES_DEFAULT)));
+    }
+
+    private String getPipelineStagesTopic() {
+        return taskProps.getOrDefault(PIPELINE_STAGES_TOPIC_CONFIG, PIPELINE_STAGES_TOPIC_DEFAULT);
+    }
+
+    private boolean isTestReportEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(TEST_REPORT_CONFIG, valueOf(TEST_REPORT_DEFAULT)));
+    }
+
+    private String getTestReportTopic() {
+        return taskProps.getOrDefault(TEST_REPORT_TOPIC_CONFIG, TEST_REPORT_TOPIC_DEFAULT);
+    }
+
+    private int getTestReportMaxFailedCases() {
+        return Integer.valueOf(taskProps.getOrDefault(TEST_REPORT_MAX_FAILED_CASES_CONFIG, valueOf(TEST_REPORT_MAX_FAILED_CASES_DEFAULT)));
+    }
+
+    private int getTestReportMaxTextLength() {
+        return Integer.valueOf(taskProps.getOrDefault(TEST_REPORT_MAX_TEXT_LENGTH_CONFIG, valueOf(TEST_REPORT_MAX_TEXT_LENGTH_DEFAULT)));
+    }
+
+    private int getMaxConnectionsPerHost() {
+        return Integer.valueOf(taskProps.getOrDefault(JENKINS_MAX_CONNECTIONS_PER_HOST_CONFIG, valueOf(JenkinsClient.MAX_CONNECTIONS_PER_HOST_DEFAULT)));
+    }
+
+    private double getRateLimit() {
+        return Double.valueOf(taskProps.getOrDefault(JENKINS_RATE_LIMIT_RPS_CONFIG, valueOf(JENKINS_RATE_LIMIT_RPS_DEFAULT)));
+    }
+
+    private boolean isRateLimitShared() {
+        return Boolean.valueOf(taskProps.getOrDefault(JENKINS_RATE_LIMIT_SHARED_CONFIG, valueOf(JENKINS_RATE_LIMIT_SHARED_DEFAULT)));
+    }
+
+    private int getRecordQueueCapacity() {
+        return Integer.valueOf(taskProps.getOrDefault(RECORD_QUEUE_CAPACITY_CONFIG, valueOf(RECORD_QUEUE_CAPACITY_DEFAULT)));
+    }
+
+    private boolean isAdaptiveSchedulingEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(ADAPTIVE_SCHEDULING_CONFIG, valueOf(ADAPTIVE_SCHEDULING_DEFAULT)));
+    }
+
+    private long getMinPollInterval() {
+        return Long.valueOf(taskProps.getOrDefault(MIN_POLL_INTERVAL_MS_CONFIG, valueOf(MIN_POLL_INTERVAL_MS_DEFAULT)));
+    }
+
+    private long getMaxPollInterval() {
+        return Long.valueOf(taskProps.getOrDefault(MAX_POLL_INTERVAL_MS_CONFIG, valueOf(MAX_POLL_INTERVAL_MS_DEFAULT)));
+    }
+
+    private boolean isCompressionEnabled() {
+        return Boolean.valueOf(taskProps.getOrDefault(JENKINS_COMPRESSION_CONFIG, valueOf(JENKINS_COMPRESSION_DEFAULT)));
+    }
+
+    private int getCircuitFailureThreshold() {
+        return Integer.valueOf(taskProps.getOrDefault(JENKINS_CIRCUIT_FAILURE_THRESHOLD_CONFIG, valueOf(JENKINS_CIRCUIT_FAILURE_THRESHOLD_DEFAULT)));
+    }
+
+    private long getCircuitBackoff() {
+        return Long.valueOf(taskProps.getOrDefault(JENKINS_CIRCUIT_BACKOFF_MS_CONFIG, valueOf(JENKINS_CIRCUIT_BACKOFF_MS_DEFAULT)));
+    }
+
+    private long getCircuitMaxBackoff() {
+        return Long.valueOf(taskProps.getOrDefault(JENKINS_CIRCUIT_MAX_BACKOFF_MS_CONFIG, valueOf(JENKINS_CIRCUIT_MAX_BACKOFF_MS_DEFAULT)));
     }
 
-    private int getJenkinsConnTimeout() {
-        return Integer.valueOf(taskProps.getOrDefault(JENKINS_CONN_TIMEOUT_CONFIG, valueOf(JENKINS_CONN_TIMEOUT_DEFAULT)));
+    private String getRecordValueFormat() {
+        return taskProps.getOrDefault(RECORD_VALUE_FORMAT_CONFIG, RECORD_VALUE_FORMAT_DEFAULT);
     }
 
-    private String getJenkinsUsername() {
-        return String.valueOf(taskProps.getOrDefault(JENKINS_USERNAME_CONFIG, ""));
+    private int getConditionalGetCacheSize() {
+        return Integer.valueOf(taskProps.getOrDefault(JENKINS_CONDITIONAL_GET_CACHE_SIZE_CONFIG, valueOf(JENKINS_CONDITIONAL_GET_CACHE_SIZE_DEFAULT)));
     }
 
-    private String getJenkinsPassword() {
-        return String.valueOf(taskProps.getOrDefault(JENKINS_PASSWORD_OR_API_TOKEN_CONFIG, ""));
+    private static ThreadFactory newFetcherThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "jenkins-source-task-fetcher-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
     }
 
 }
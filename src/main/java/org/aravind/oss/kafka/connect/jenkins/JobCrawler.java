@@ -0,0 +1,189 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.aravind.oss.jenkins.JenkinsClient;
+import org.aravind.oss.jenkins.JenkinsException;
+import org.aravind.oss.jenkins.domain.Jenkins;
+import org.aravind.oss.jenkins.domain.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Discovers the jobs inside folders and multibranch projects. Each folder is listed by a fork/join task which forks one
+ * task per sub folder, so the folders of the same level are listed in parallel. The jobs are returned in the order
+ * they are listed, with the jobs of a folder in place of the folder.
+ * <p>
+ * The crawl is limited to {@code maxDepth} nested folders, and to {@code parallelism} folders listed concurrently,
+ * across the crawls running at the same time. The pool may add threads while its tasks wait for their sub folders, but
+ * the listings never exceed the limit. A folder that can't be listed fails the crawl with an
+ * {@link IncompleteCrawlException}, which holds the jobs of the other folders, so that a folder that is down for a
+ * moment is never taken for an empty one.
+ * </p>
+ * <p>
+ * The pool lives as long as the crawler. {@link #stop()} shuts it down.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class JobCrawler {
+    private final JenkinsClient client;
+    private final int maxDepth;
+    private final String tree;
+    private final ForkJoinPool pool;
+    //Folders listed concurrently
+    private final Semaphore listings;
+    private static final Logger logger = LoggerFactory.getLogger(JobCrawler.class);
+
+    /**
+     * @param maxDepth    Maximum number of nested folders crawled. 0 doesn't crawl, the folders are returned as is.
+     * @param parallelism Maximum number of folders listed concurrently
+     * @param tree        Jenkins tree expression used to list the folders. Null lists all the fields.
+     */
+    public JobCrawler(JenkinsClient client, int maxDepth, int parallelism, String tree) {
+        this.client = client;
+        this.maxDepth = maxDepth;
+        this.tree = tree;
+        this.pool = new ForkJoinPool(parallelism);
+        this.listings = new Semaphore(parallelism);
+    }
+
+    /**
+     * @param items The top-level items of Jenkins
+     * @return The jobs of Jenkins including the jobs inside the folders. The folders aren't returned.
+     * @throws IncompleteCrawlException If some of the folders couldn't be listed
+     */
+    public List<Job> crawl(List<Job> items) throws IncompleteCrawlException {
+        if (maxDepth == 0 || items.stream().noneMatch(Job::isFolder)) {
+            return items;
+        }
+        Set<String> unlisted = ConcurrentHashMap.newKeySet();
+        List<Job> jobs = pool.invoke(new Crawl(items, 1, unlisted));
+        if (!unlisted.isEmpty()) {
+            throw new IncompleteCrawlException(jobs, unlisted);
+        }
+        logger.debug("Crawled {} jobs", jobs.size());
+        return jobs;
+    }
+
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Lists the jobs of the folder. The sub folders are crawled by forked tasks.
+     */
+    private class Crawl extends RecursiveTask<List<Job>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Job> items;
+        private final Job folder;
+        private final int depth;
+        //The folders of this crawl that couldn't be listed
+        private final Set<String> unlisted;
+
+        /**
+         * @param depth Depth of the folders within the items
+         */
+        Crawl(List<Job> items, int depth, Set<String> unlisted) {
+            this(items, null, depth, unlisted);
+        }
+
+        Crawl(Job folder, int depth, Set<String> unlisted) {
+            this(null, folder, depth, unlisted);
+        }
+
+        private Crawl(List<Job> items, Job folder, int depth, Set<String> unlisted) {
+            this.items = items;
+            this.folder = folder;
+            this.depth = depth;
+            this.unlisted = unlisted;
+        }
+
+        @Override
+        protected List<Job> compute() {
+            List<Job> children = items != null ? items : list(folder, unlisted);
+
+            List<Object> slots = new ArrayList<>(children.size());
+            for (Job item : children) {
+                if (!item.isFolder()) {
+                    slots.add(item);
+                } else if (depth <= maxDepth) {
+                    slots.add(new Crawl(item, depth + 1, unlisted).fork());
+                } else {
+                    logger.warn("Not crawling {} as it is nested deeper than {} folders", item.getUrl(), maxDepth);
+                }
+            }
+
+            List<Job> jobs = new ArrayList<>();
+            for (Object slot : slots) {
+                if (slot instanceof Crawl) {
+                    jobs.addAll(((Crawl) slot).join());
+                } else {
+                    jobs.add((Job) slot);
+                }
+            }
+            return jobs;
+        }
+    }
+
+    /**
+     * @param unlisted Populated with the folder if it can't be listed
+     */
+    private List<Job> list(Job folder, Set<String> unlisted) {
+        String resource = folder.getUrl() + "api/json";
+        try {
+            listings.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting to list the jobs of {}", resource);
+            unlisted.add(folder.getUrl());
+            return Collections.emptyList();
+        }
+        try {
+            Optional<Jenkins> resp = client.get(new URL(JenkinsClient.withTree(resource, tree)), Jenkins.class);
+            if (resp.isPresent() && resp.get().getJobs() != null) {
+                return resp.get().getJobs();
+            }
+            logger.warn("Unable to list the jobs of {}", resource);
+        } catch (JenkinsException | MalformedURLException e) {
+            logger.warn("Unable to list the jobs of {}", resource, e);
+        } finally {
+            listings.release();
+        }
+        unlisted.add(folder.getUrl());
+        return Collections.emptyList();
+    }
+
+    /**
+     * Some of the folders couldn't be listed. So the crawled jobs are only a part of the jobs of Jenkins.
+     */
+    public static class IncompleteCrawlException extends JenkinsException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Job> crawledJobs;
+
+        IncompleteCrawlException(List<Job> crawledJobs, Set<String> unlisted) {
+            super("Unable to list the folders " + unlisted);
+            this.crawledJobs = crawledJobs;
+        }
+
+        /**
+         * @return The jobs of the folders that could be listed
+         */
+        public List<Job> getCrawledJobs() {
+            return crawledJobs;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.apache.kafka.connect.connector.ConnectorContext;
+import org.aravind.oss.jenkins.JenkinsClient;
+import org.aravind.oss.jenkins.JenkinsException;
+import org.aravind.oss.jenkins.domain.Jenkins;
+import org.aravind.oss.jenkins.domain.Job;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Periodically re-reads the jobs of Jenkins and requests the reconfiguration of the tasks once jobs are created or
+ * deleted. The job sets are compared by a hash of their sorted urls, so nothing else is kept in memory. A failed read,
+ * including a folder that can't be listed, is ignored until the next run, so that a Jenkins restart doesn't reconfigure
+ * the tasks.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class JobMonitor implements Runnable {
+    private final JenkinsClient client;
+    private final URL jobsResource;
+    private final JobCrawler crawler;
+    private final ConnectorContext context;
+    private volatile String knownJobsHash;
+    private static final Logger logger = LoggerFactory.getLogger(JobMonitor.class);
+
+    /**
+     * @param crawler Crawls the folders so that the jobs inside the folders are monitored as well
+     */
+    public JobMonitor(JenkinsClient client, URL jobsResource, JobCrawler crawler, ConnectorContext context) {
+        this.client = client;
+        this.jobsResource = jobsResource;
+        this.crawler = crawler;
+        this.context = context;
+    }
+
+    /**
+     * @param jobs The jobs the current task configurations were built from
+     */
+    public void setKnownJobs(Collection<Job> jobs) {
+        knownJobsHash = hash(jobs);
+    }
+
+    @Override
+    public void run() {
+        if (knownJobsHash == null) {
+            logger.trace("No task configurations yet. Nothing to compare the jobs with.");
+            return;
+        }
+        try {
+            Optional<Jenkins> jenkins = client.getIfModified(jobsResource, Jenkins.class);
+            if (!jenkins.isPresent() || jenkins.get().getJobs() == null) {
+                logger.debug("Unable to read the jobs from {}. Retrying in the next run.", jobsResource);
+                return;
+            }
+
+            List<Job> jobs;
+            try {
+                jobs = crawler.crawl(jenkins.get().getJobs());
+            } catch (JobCrawler.IncompleteCrawlException e) {
+                logger.debug("Unable to crawl all the folders of {}. Retrying in the next run.", jobsResource, e);
+                return;
+            }
+
+            String jobsHash = hash(jobs);
+            if (!jobsHash.equals(knownJobsHash)) {
+                logger.info("Jobs of {} changed. Requesting the reconfiguration of the tasks.", jobsResource);
+                knownJobsHash = jobsHash;
+                context.requestTaskReconfiguration();
+            }
+        } catch (JenkinsException | RuntimeException e) {
+            //Thrown exceptions would cancel the scheduled runs
+            logger.warn("Error while monitoring the jobs of {}. Retrying in the next run.", jobsResource, e);
+        }
+    }
+
+    static String hash(Collection<Job> jobs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            jobs.stream().map(Job::getUrl).sorted().forEach(url -> {
+                digest.update(String.valueOf(url).getBytes(Charset.forName("UTF-8")));
+                digest.update((byte) '\n');
+            });
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always supported", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.aravind.oss.kafka.connect.lib.Partitions;
+import org.aravind.oss.kafka.connect.lib.SourcePartition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.aravind.oss.kafka.connect.jenkins.Util.extractJobName;
+import static org.aravind.oss.kafka.connect.jenkins.Util.urlDecode;
+
+/**
+ * The jobs assigned to a single {@link JenkinsSourceTask}. The comma separated job urls of the task config are split,
+ * and the job names are extracted and url decoded, only once when the task starts. Immutable and so safe to be read
+ * concurrently by the fetcher threads.
+ * <p>
+ * A job url may be prefixed by the alias of its {@link JenkinsController}, see {@link JenkinsController#taskJobUrl(String, String)}.
+ * The partition of such a job is then namespaced by the alias.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class JobRegistry {
+    private final List<String> jobUrls;
+    private final Map<String, SourcePartition> partitionsByUrl;
+    private final Map<String, String> controllersByUrl;
+
+    /**
+     * @param commaSeparatedJobUrls The job urls assigned to the task
+     * @param ps                    Used to make the partition of each job
+     */
+    public JobRegistry(String commaSeparatedJobUrls, Partitions ps) {
+        String[] urls = commaSeparatedJobUrls.split(",");
+        List<String> jobs = new ArrayList<>(urls.length);
+        Map<String, SourcePartition> partitions = new HashMap<>(urls.length * 4 / 3 + 1);
+        Map<String, String> controllers = new HashMap<>();
+        for (String taskJobUrl : urls) {
+            int separator = taskJobUrl.indexOf(JenkinsController.JOB_URL_SEPARATOR);
+            String alias = separator < 0 ? "" : taskJobUrl.substring(0, separator);
+            String jobUrl = taskJobUrl.substring(separator + 1);
+
+            String partition = JenkinsController.partitionValue(alias, urlDecode(extractJobName(jobUrl)));
+            if (partitions.put(jobUrl, ps.make(partition)) == null) {
+                jobs.add(jobUrl);
+                if (!alias.isEmpty()) {
+                    controllers.put(jobUrl, alias);
+                }
+            }
+        }
+        jobUrls = Collections.unmodifiableList(jobs);
+        partitionsByUrl = partitions;
+        controllersByUrl = controllers;
+    }
+
+    /**
+     * @return The job urls in the order they were assigned
+     */
+    public List<String> getJobUrls() {
+        return jobUrls;
+    }
+
+    /**
+     * @return The partition of a job assigned to this task. Null if the job isn't assigned to this task.
+     */
+    public SourcePartition getPartition(String jobUrl) {
+        return partitionsByUrl.get(jobUrl);
+    }
+
+    /**
+     * @return Alias of the controller of a job. Empty if the task polls a single controller.
+     */
+    public String getController(String jobUrl) {
+        return controllersByUrl.getOrDefault(jobUrl, "");
+    }
+
+    /**
+     * @return Aliases of the controllers of the jobs
+     */
+    public Set<String> getControllers() {
+        Set<String> aliases = new HashSet<>(controllersByUrl.values());
+        if (controllersByUrl.size() < jobUrls.size()) {
+            aliases.add("");
+        }
+        return aliases;
+    }
+
+    public Collection<SourcePartition> getPartitions() {
+        return Collections.unmodifiableCollection(partitionsByUrl.values());
+    }
+
+    public int size() {
+        return jobUrls.size();
+    }
+}
@@ -11,6 +11,6 @@ public class JobTaskConfigExtractor implements TaskConfigExtractor<Job> {
 
     @Override
     public String extract(Job input) {
-        return input.getUrl();
+        return JenkinsController.taskJobUrl(input.getController(), input.getUrl());
     }
 }
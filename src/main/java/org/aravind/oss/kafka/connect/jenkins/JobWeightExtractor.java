@@ -0,0 +1,63 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.aravind.oss.jenkins.domain.Build;
+import org.aravind.oss.jenkins.domain.Job;
+import org.aravind.oss.kafka.connect.lib.TaskWeightExtractor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates how much polling work a {@link Job} costs from how recently it was built. A job that is building now or was
+ * built recently yields new builds (and their details) on most polls, while a job that was not built for weeks costs
+ * a single request per poll.
+ * <p>
+ * The start time of the lastBuild is only available when the jobs are listed with {@link org.aravind.oss.jenkins.domain.Jenkins#ACTIVITY_TREE}
+ * or without any tree projection. Jobs without it weigh the same as an idle job.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class JobWeightExtractor implements TaskWeightExtractor<Job> {
+
+    public static final long IDLE_WEIGHT = 1;
+    public static final long WEEKLY_WEIGHT = 5;
+    public static final long DAILY_WEIGHT = 20;
+    public static final long HOURLY_WEIGHT = 100;
+
+    private final long now;
+
+    public JobWeightExtractor() {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * @param now Time in millis the age of the lastBuild is measured against
+     */
+    public JobWeightExtractor(long now) {
+        this.now = now;
+    }
+
+    @Override
+    public long extract(Job input) {
+        String color = input.getColor();
+        if (color != null && color.endsWith("_anime")) {
+            return HOURLY_WEIGHT;
+        }
+
+        Build lastBuild = input.getLastBuild();
+        if (lastBuild == null || lastBuild.getTimestamp() == null) {
+            return IDLE_WEIGHT;
+        }
+
+        long age = now - lastBuild.getTimestamp();
+        if (age <= TimeUnit.HOURS.toMillis(1)) {
+            return HOURLY_WEIGHT;
+        } else if (age <= TimeUnit.DAYS.toMillis(1)) {
+            return DAILY_WEIGHT;
+        } else if (age <= TimeUnit.DAYS.toMillis(7)) {
+            return WEEKLY_WEIGHT;
+        }
+        return IDLE_WEIGHT;
+    }
+}
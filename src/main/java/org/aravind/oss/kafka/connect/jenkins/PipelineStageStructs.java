@@ -0,0 +1,58 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.aravind.oss.jenkins.domain.PipelineStage;
+
+/**
+ * Maps a stage of a Pipeline build to a Connect {@link Struct}, keyed by the job and the build so that the stages of a
+ * build can be compared with those of the previous builds of the job.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class PipelineStageStructs {
+    public static final Schema PIPELINE_STAGE_KEY_SCHEMA = SchemaBuilder.struct().name("org.aravind.oss.kafka.connect.jenkins.PipelineStageKey")
+            .field("job", Schema.STRING_SCHEMA)
+            .field("build", Schema.INT64_SCHEMA)
+            .build();
+
+    public static final Schema PIPELINE_STAGE_SCHEMA = SchemaBuilder.struct().name("org.aravind.oss.kafka.connect.jenkins.PipelineStage")
+            .doc("A stage of a Pipeline build. The times are in milliseconds.")
+            .field("job", Schema.STRING_SCHEMA)
+            .field("build", Schema.INT64_SCHEMA)
+            .field("index", Schema.INT32_SCHEMA)
+            .field("id", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("status", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("startTimeMillis", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("durationMillis", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("pauseDurationMillis", Schema.OPTIONAL_INT64_SCHEMA)
+            .build();
+
+    private PipelineStageStructs() {
+    }
+
+    public static Struct toKey(String job, long build) {
+        return new Struct(PIPELINE_STAGE_KEY_SCHEMA)
+                .put("job", job)
+                .put("build", build);
+    }
+
+    /**
+     * @param index Position of the stage in its build, from 0
+     */
+    public static Struct toStruct(String job, long build, int index, PipelineStage stage) {
+        return new Struct(PIPELINE_STAGE_SCHEMA)
+                .put("job", job)
+                .put("build", build)
+                .put("index", index)
+                .put("id", stage.getId())
+                .put("name", stage.getName())
+                .put("status", stage.getStatus())
+                .put("startTimeMillis", stage.getStartTimeMillis())
+                .put("durationMillis", stage.getDurationMillis())
+                .put("pauseDurationMillis", stage.getPauseDurationMillis());
+    }
+}
@@ -8,8 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-
-import static org.aravind.oss.kafka.connect.jenkins.Util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Sources cache the offsets and periodically flush(or commit) them asynchronously. The following two properties
@@ -29,65 +28,63 @@ import static org.aravind.oss.kafka.connect.jenkins.Util.*;
  * successive read operation performed by the same process on data item X.
  * </p>
  * <p>
- * This class provides the Read-your-Writes semantics within a single {@link org.apache.kafka.connect.source.SourceTask}
+ * This class provides the Read-your-Writes semantics within a single {@link org.apache.kafka.connect.source.SourceTask}.
+ * The offsets are read from the {@link OffsetStorageReader} only once, when the adapter is created, and then updated
+ * in memory as the records are created. So a cached offset always takes precedence over the stored one. The cache can
+ * be updated concurrently by the fetcher threads of the task.
  *
  * @author Aravind R Yarram
  * @since 0.5.0
  */
 public class ReadYourWritesOffsetStorageAdapter {
 
-    private OffsetStorageReader storageReader;
-
-    private final Partitions partitions;
-
-    //task level cache
-    private Map<Map<String, ?>, Map<String, Object>> cache = new HashMap<>();
-
-    //task level offsets from StorageReader
-    private Map<Map<String, String>, Map<String, Object>> offsets;
+    //task level offsets, loaded from StorageReader and then updated by the fetcher threads
+    private final Map<Map<String, ?>, SourceOffset> offsets = new ConcurrentHashMap<>();
 
     private static final Logger logger = LoggerFactory.getLogger(ReadYourWritesOffsetStorageAdapter.class);
 
     public ReadYourWritesOffsetStorageAdapter(OffsetStorageReader reader, String jobUrls, Partitions ps) {
-        storageReader = reader;
-        partitions = ps;
-        offsets = loadAndGetOffsets(storageReader, jobUrls);
+        this(reader, new JobRegistry(jobUrls, ps).getPartitions());
+    }
+
+    /**
+     * @param reader     Read once to load the stored offsets
+     * @param partitions The partitions whose offsets are loaded
+     */
+    public ReadYourWritesOffsetStorageAdapter(OffsetStorageReader reader, Collection<SourcePartition> partitions) {
+        load(reader, partitions);
         logger.debug("Loaded offsets: {}", offsets);
     }
 
     public void cache(SourcePartition p, SourceOffset o) {
-        Map<String, ?> key = p.encoded;
-        Map<String, Object> value = o.encoded;
-
-        cache.put(key, value);
+        offsets.put(p.encoded, o);
     }
 
     public boolean containsPartition(SourcePartition partition) {
-        if (offsets.keySet().contains(partition.encoded)) {
-            return true;
-        } else {
-            logger.trace("Didn't find the key {} in offset storage", partition.encoded);
-            return cache.containsKey(partition.encoded);
-        }
+        return offsets.containsKey(partition.encoded);
     }
 
     public Optional<SourceOffset> getOffset(SourcePartition partition) {
-        if (offsets.get(partition.encoded) != null) {
-            return Optional.of(SourceOffset.decode(offsets.get(partition.encoded)));
-        } else {
-            logger.trace("Didn't find the key {} in offset storage so trying from cache", partition.encoded);
-            return Optional.ofNullable(SourceOffset.decode(cache.get(partition.encoded)));
+        SourceOffset offset = offsets.get(partition.encoded);
+        if (offset == null) {
+            logger.trace("Didn't find the key {} in the offsets", partition.encoded);
         }
+        return Optional.ofNullable(offset);
     }
 
-    private Map<Map<String, String>, Map<String, Object>> loadAndGetOffsets(OffsetStorageReader reader, String jobUrls) {
-        String[] jobUrlArray = jobUrls.split(",");
-
-        logger.debug("Total jobs: {}. Loading offsets from Connect.", jobUrlArray.length);
-        Collection<Map<String, String>> partitions = new ArrayList<>(jobUrlArray.length);
-        for (String jobUrl : jobUrlArray) {
-            partitions.add(Collections.singletonMap(JenkinsSourceTask.JOB_NAME, urlDecode(extractJobName(jobUrl))));
+    private void load(OffsetStorageReader reader, Collection<SourcePartition> partitions) {
+        logger.debug("Total jobs: {}. Loading offsets from Connect.", partitions.size());
+        Collection<Map<String, String>> encoded = new ArrayList<>(partitions.size());
+        for (SourcePartition p : partitions) {
+            encoded.add(Collections.singletonMap(p.key, p.value));
+        }
+        Map<Map<String, String>, Map<String, Object>> stored = reader.offsets(encoded);
+        if (stored != null) {
+            stored.forEach((p, o) -> {
+                if (o != null) {
+                    offsets.putIfAbsent(p, SourceOffset.decode(o));
+                }
+            });
         }
-        return reader.offsets(partitions);
     }
-}
\ No newline at end of file
+}
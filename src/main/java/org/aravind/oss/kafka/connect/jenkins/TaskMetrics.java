@@ -0,0 +1,206 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.Total;
+import org.apache.kafka.common.utils.Time;
+import org.aravind.oss.jenkins.ExchangeListener;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * The metrics of a single {@link JenkinsSourceTask}, registered with the Kafka {@link Metrics} API and reported over
+ * JMX as <i>kafka.connect.jenkins:type=jenkins-source-task-metrics,connector=&lt;name&gt;,task=&lt;id&gt;</i>.
+ * The requests are additionally tagged by the <i>endpoint</i> they were sent to.
+ * <p>
+ * <ul>
+ * <li>poll-cycle-time-avg/max: Time in millis a poll cycle takes to fetch all the due jobs</li>
+ * <li>records-per-cycle-avg/max, records-total: SourceRecords queued by the poll cycles</li>
+ * <li>jobs-skipped-total: Polled jobs without any new build</li>
+ * <li>jobs-failed-total: Jobs whose fetch failed and is retried in the next poll cycle</li>
+ * <li>time-to-next-poll: Millis until the next poll cycle is due</li>
+ * <li>request-time-avg/max/p50/p95/p99 per endpoint: Millis until the response headers are received</li>
+ * <li>request-rate, request-errors-total per endpoint: Requests per second and the failed ones</li>
+ * <li>bytes-received-total/rate per endpoint: Bytes of the response bodies, compressed if they were compressed</li>
+ * <li>read-time-avg/max per endpoint: Millis spent reading and parsing the response bodies</li>
+ * </ul>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class TaskMetrics implements ExchangeListener, AutoCloseable {
+    public static final String JMX_PREFIX = "kafka.connect.jenkins";
+    public static final String GROUP = "jenkins-source-task-metrics";
+
+    //1000 buckets. The linear bucket sizing keeps them the finest for the short request times
+    private static final int HISTOGRAM_SIZE_IN_BYTES = 4000;
+
+    //The build numbers only follow a job name: /job/<name>/<number>/api/json. So a job named by a number isn't a build
+    private static final Pattern BUILD_RESOURCE = Pattern.compile(".*/job/[^/]+/\\d+/api/json");
+
+    private final Metrics metrics;
+    private final Map<String, String> tags;
+    //Upper bound of the request time histograms
+    private final double maxRequestTimeMillis;
+    private final Sensor pollCycleTime;
+    private final Sensor recordsPerCycle;
+    private final Sensor jobsSkipped;
+    private final Sensor jobsFailed;
+    private final Map<String, EndpointSensors> endpoints = new ConcurrentHashMap<>();
+    private volatile long nextPollAt;
+
+    /**
+     * @param connector            Name of the connector
+     * @param task                 Id of the task
+     * @param maxRequestTimeMillis Longest time a request can take until it times out, i.e. the connection and read
+     *                             timeouts. The request time percentiles are measured up to it.
+     */
+    public TaskMetrics(String connector, String task, long maxRequestTimeMillis, Time time) {
+        this(connector, task, maxRequestTimeMillis, time, Collections.singletonList(new JmxReporter(JMX_PREFIX)));
+    }
+
+    TaskMetrics(String connector, String task, long maxRequestTimeMillis, Time time, List<MetricsReporter> reporters) {
+        this.maxRequestTimeMillis = maxRequestTimeMillis;
+        metrics = new Metrics(new MetricConfig(), reporters, time);
+        tags = new HashMap<>();
+        tags.put("connector", connector);
+        tags.put("task", task);
+
+        pollCycleTime = metrics.sensor("poll-cycle-time");
+        pollCycleTime.add(name("poll-cycle-time-avg", "Average time in millis of a poll cycle", tags), new Avg());
+        pollCycleTime.add(name("poll-cycle-time-max", "Maximum time in millis of a poll cycle", tags), new Max());
+
+        recordsPerCycle = metrics.sensor("records-per-cycle");
+        recordsPerCycle.add(name("records-per-cycle-avg", "Average number of records queued by a poll cycle", tags), new Avg());
+        recordsPerCycle.add(name("records-per-cycle-max", "Maximum number of records queued by a poll cycle", tags), new Max());
+        recordsPerCycle.add(name("records-total", "Total number of records queued", tags), new Total());
+
+        jobsSkipped = metrics.sensor("jobs-skipped");
+        jobsSkipped.add(name("jobs-skipped-total", "Total number of polled jobs without any new build", tags), new Total());
+
+        jobsFailed = metrics.sensor("jobs-failed");
+        jobsFailed.add(name("jobs-failed-total", "Total number of jobs whose fetch failed", tags), new Total());
+
+        metrics.addMetric(name("time-to-next-poll", "Millis until the next poll cycle is due", tags),
+                (config, now) -> Math.max(0, nextPollAt - now));
+    }
+
+    public void recordPollCycle(long millis, int records, int skippedJobs) {
+        pollCycleTime.record(millis);
+        recordsPerCycle.record(records);
+        jobsSkipped.record(skippedJobs);
+    }
+
+    public void recordFailedJob() {
+        jobsFailed.record();
+    }
+
+    public void setNextPollAt(long millis) {
+        nextPollAt = millis;
+    }
+
+    @Override
+    public void onExchange(URL url, int status, long latencyNanos, long readNanos, long bytes) {
+        EndpointSensors sensors = endpoints.computeIfAbsent(endpointOf(url), EndpointSensors::new);
+        sensors.requestTime.record(nanosToMillis(latencyNanos));
+        if (status < 200 || status >= 400) {
+            sensors.requestErrors.record();
+        }
+        sensors.readTime.record(nanosToMillis(readNanos));
+        sensors.bytesReceived.record(bytes);
+    }
+
+    /**
+     * @return The kind of Jenkins resource requested: <i>jobs</i> for the listings of the jobs of Jenkins or a folder,
+     * <i>build</i> for the build details, <i>console</i> for the console logs, <i>testReport</i> for the test results,
+     * <i>wfapi</i> for the Pipeline stages and <i>job</i> for the builds of a job.
+     */
+    static String endpointOf(URL url) {
+        String query = url.getQuery();
+        if (query != null && query.startsWith("tree=jobs")) {
+            return "jobs";
+        }
+        String path = url.getPath();
+        if (path.endsWith("/logText/progressiveText")) {
+            return "console";
+        }
+        if (path.endsWith("/testReport/api/json")) {
+            return "testReport";
+        }
+        if (path.endsWith("/wfapi/describe")) {
+            return "wfapi";
+        }
+        if (BUILD_RESOURCE.matcher(path).matches()) {
+            return "build";
+        }
+        return path.contains("/job/") ? "job" : "jobs";
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        metrics.close();
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private MetricName name(String name, String description, Map<String, String> tags) {
+        return metrics.metricName(name, GROUP, description, tags);
+    }
+
+    /**
+     * The sensors of the requests to a single kind of resource
+     */
+    private class EndpointSensors {
+        final Sensor requestTime;
+        final Sensor requestErrors;
+        final Sensor readTime;
+        final Sensor bytesReceived;
+
+        EndpointSensors(String endpoint) {
+            Map<String, String> t = new HashMap<>(tags);
+            t.put("endpoint", endpoint);
+
+            requestTime = metrics.sensor("request-time." + endpoint);
+            requestTime.add(name("request-time-avg", "Average time in millis until the response headers are received", t), new Avg());
+            requestTime.add(name("request-time-max", "Maximum time in millis until the response headers are received", t), new Max());
+            requestTime.add(name("request-rate", "Requests per second", t), new Rate());
+            requestTime.add(new Percentiles(HISTOGRAM_SIZE_IN_BYTES, maxRequestTimeMillis, Percentiles.BucketSizing.LINEAR,
+                    new Percentile(name("request-time-p50", "Median time in millis until the response headers are received", t), 50),
+                    new Percentile(name("request-time-p95", "95th percentile time in millis until the response headers are received", t), 95),
+                    new Percentile(name("request-time-p99", "99th percentile time in millis until the response headers are received", t), 99)));
+
+            requestErrors = metrics.sensor("request-errors." + endpoint);
+            requestErrors.add(name("request-errors-total", "Total number of failed requests", t), new Total());
+
+            readTime = metrics.sensor("read-time." + endpoint);
+            readTime.add(name("read-time-avg", "Average time in millis spent reading and parsing a response body", t), new Avg());
+            readTime.add(name("read-time-max", "Maximum time in millis spent reading and parsing a response body", t), new Max());
+
+            bytesReceived = metrics.sensor("bytes-received." + endpoint);
+            bytesReceived.add(name("bytes-received-total", "Total bytes of the response bodies", t), new Total());
+            bytesReceived.add(name("bytes-received-rate", "Bytes of the response bodies per second", t), new Rate());
+        }
+    }
+}
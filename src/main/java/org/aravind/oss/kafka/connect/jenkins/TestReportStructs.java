@@ -0,0 +1,64 @@
+package org.aravind.oss.kafka.connect.jenkins;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.aravind.oss.jenkins.domain.TestReport;
+
+/**
+ * Maps the test suites and the failed test cases of a build to Connect {@link Struct}s of a single schema, so that they
+ * can share a topic. The <i>type</i> is <i>suite</i> for the totals of a suite and <i>case</i> for a failed case.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class TestReportStructs {
+    public static final String TYPE_SUITE = "suite";
+    public static final String TYPE_CASE = "case";
+
+    public static final Schema TEST_RESULT_SCHEMA = SchemaBuilder.struct().name("org.aravind.oss.kafka.connect.jenkins.TestResult")
+            .doc("A test suite or a failed test case of a build. The durations are in seconds.")
+            .field("job", Schema.STRING_SCHEMA)
+            .field("build", Schema.INT64_SCHEMA)
+            .field("type", Schema.STRING_SCHEMA)
+            .field("suite", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("duration", Schema.FLOAT64_SCHEMA)
+            .field("passCount", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("failCount", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("skipCount", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("className", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("status", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("errorDetails", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("errorStackTrace", Schema.OPTIONAL_STRING_SCHEMA)
+            .build();
+
+    private TestReportStructs() {
+    }
+
+    public static Struct toStruct(String job, long build, TestReport.Suite suite) {
+        return new Struct(TEST_RESULT_SCHEMA)
+                .put("job", job)
+                .put("build", build)
+                .put("type", TYPE_SUITE)
+                .put("suite", suite.name)
+                .put("duration", suite.duration)
+                .put("passCount", suite.passCount)
+                .put("failCount", suite.failCount)
+                .put("skipCount", suite.skipCount);
+    }
+
+    public static Struct toStruct(String job, long build, TestReport.FailedCase failedCase) {
+        return new Struct(TEST_RESULT_SCHEMA)
+                .put("job", job)
+                .put("build", build)
+                .put("type", TYPE_CASE)
+                .put("suite", failedCase.suite)
+                .put("duration", failedCase.duration)
+                .put("className", failedCase.className)
+                .put("name", failedCase.name)
+                .put("status", failedCase.status)
+                .put("errorDetails", failedCase.errorDetails)
+                .put("errorStackTrace", failedCase.errorStackTrace);
+    }
+}
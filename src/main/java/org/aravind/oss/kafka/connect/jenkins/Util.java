@@ -17,8 +17,35 @@ public class Util {
     public static String extractJobName(String jobUrl) {
         //For input - https://builds.apache.org/job/Accumulo-Master/
         //This method should return - Accumulo-Master
+        //For input - https://ci/job/folder/job/Accumulo-Master/ (a job inside a folder)
+        //This method should return - folder/Accumulo-Master, so that jobs with the same name in different folders don't collide
         String[] tokens = jobUrl.split("/");
-        return tokens[tokens.length - 1];
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < tokens.length - 1; i++) {
+            if ("job".equals(tokens[i]) && !tokens[i + 1].isEmpty()) {
+                if (name.length() > 0) name.append('/');
+                name.append(tokens[++i]);
+            }
+        }
+        return name.length() > 0 ? name.toString() : tokens[tokens.length - 1];
+    }
+
+    /**
+     * @param jobName Full name of a job, for e.g. folder/Accumulo-Master
+     * @return Name of the job within its folder, for e.g. Accumulo-Master
+     */
+    public static String shortJobName(String jobName) {
+        return jobName.substring(jobName.lastIndexOf('/') + 1);
+    }
+
+    public static String parentUrl(String jobUrl) {
+        //For input - https://builds.apache.org/job/Accumulo-Master/
+        //This method should return - https://builds.apache.org/
+        //For input - https://ci/job/folder/job/Accumulo-Master/
+        //This method should return - https://ci/job/folder/
+        String url = jobUrl.endsWith("/") ? jobUrl.substring(0, jobUrl.length() - 1) : jobUrl;
+        String parent = url.substring(0, url.lastIndexOf('/') + 1);
+        return parent.endsWith("/job/") ? parent.substring(0, parent.length() - "job/".length()) : parent;
     }
 
     public static String urlDecode(String jobName) {
@@ -0,0 +1,165 @@
+package org.aravind.oss.kafka.connect.lib;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules the polls of each source (for e.g. a Jenkins job) independently, based on how often the source changes.
+ * The sources are kept in a priority queue ordered by the time they are next due.
+ * <p>
+ * The change rate of a source is learnt from the polls that found a change: the time between two changes is averaged
+ * with an exponentially weighted moving average and the source is then polled twice per expected change. Every poll
+ * that finds no change backs the interval off by {@link #BACKOFF_FACTOR}. The intervals are always kept within the
+ * configured minimum and maximum, so active sources are polled often and dormant ones rarely.
+ * </p>
+ * <p>
+ * Not thread safe. Meant to be used by a single thread, for e.g. the background poller thread of the task which runs
+ * the poll cycles. {@link org.apache.kafka.connect.source.SourceTask#poll()} only hands over the records of that thread
+ * and never uses the schedule.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public class AdaptivePollSchedule<K> {
+    /**
+     * Weight of the latest time between two changes in the moving average.
+     */
+    public static final double SMOOTHING_FACTOR = 0.3;
+    public static final double BACKOFF_FACTOR = 1.5;
+
+    private final long initialIntervalInMillis;
+    private final long minIntervalInMillis;
+    private final long maxIntervalInMillis;
+    private final PriorityQueue<Entry<K>> queue = new PriorityQueue<>((a, b) -> Long.compare(a.nextDue, b.nextDue));
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePollSchedule.class);
+
+    /**
+     * @param keys                    Sources to schedule. All of them are due immediately.
+     * @param initialIntervalInMillis Interval until the change rate of a source is learnt
+     * @param minIntervalInMillis     Minimum interval between two polls of a source
+     * @param maxIntervalInMillis     Maximum interval between two polls of a source
+     * @param now                     Current time in milliseconds
+     */
+    public AdaptivePollSchedule(Collection<K> keys, long initialIntervalInMillis, long minIntervalInMillis, long maxIntervalInMillis, long now) {
+        if (minIntervalInMillis > maxIntervalInMillis) {
+            throw new IllegalArgumentException("Minimum poll interval " + minIntervalInMillis + " ms is greater than the maximum " + maxIntervalInMillis + " ms");
+        }
+        //At least 1 ms, so that an interval can always be backed off from it
+        this.initialIntervalInMillis = Math.max(1, initialIntervalInMillis);
+        this.minIntervalInMillis = minIntervalInMillis;
+        this.maxIntervalInMillis = maxIntervalInMillis;
+        long interval = clamp(initialIntervalInMillis);
+        for (K key : keys) {
+            if (!entries.containsKey(key)) {
+                Entry<K> e = new Entry<>(key, interval, now);
+                entries.put(key, e);
+                enqueue(e);
+            }
+        }
+    }
+
+    /**
+     * @return Time at which the next source is due. {@link Long#MAX_VALUE} if no sources are scheduled.
+     */
+    public long nextDue() {
+        Entry<K> head = queue.peek();
+        return head == null ? Long.MAX_VALUE : head.nextDue;
+    }
+
+    /**
+     * Removes the due sources from the schedule. Each of them must be put back with {@link #reschedule(Object, boolean, long)}
+     * once it was polled.
+     *
+     * @return The sources due at the given time, earliest first
+     */
+    public List<K> takeDue(long now) {
+        List<K> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().nextDue <= now) {
+            Entry<K> e = queue.poll();
+            e.queued = false;
+            due.add(e.key);
+        }
+        return due;
+    }
+
+    /**
+     * Learns from the outcome of a poll and schedules the next poll of the source.
+     *
+     * @param changed True if the poll found a change, for e.g. a new build
+     * @param now     Current time in milliseconds
+     */
+    public void reschedule(K key, boolean changed, long now) {
+        Entry<K> e = entries.get(key);
+        if (e == null) {
+            throw new IllegalArgumentException(key + " is not scheduled");
+        }
+        if (e.queued) {
+            //Not taken with takeDue(). Rare, so the linear removal is fine
+            queue.remove(e);
+        }
+
+        if (changed) {
+            if (e.lastChange > 0) {
+                long gap = now - e.lastChange;
+                e.changeInterval = e.changeInterval == 0 ? gap : Math.round(SMOOTHING_FACTOR * gap + (1 - SMOOTHING_FACTOR) * e.changeInterval);
+                e.interval = clamp(e.changeInterval / 2);
+            } else {
+                //First change seen. The source is active, so poll it as often as allowed until the rate is known
+                e.interval = minIntervalInMillis;
+            }
+            e.lastChange = now;
+        } else {
+            //An interval of 0 (a minimum of 0) can't be backed off by a factor, so it starts over from the initial interval
+            e.interval = clamp(e.interval == 0 ? initialIntervalInMillis : Math.round(e.interval * BACKOFF_FACTOR));
+        }
+        e.nextDue = now + e.interval;
+        enqueue(e);
+        logger.trace("Next poll of {} in {} ms", key, e.interval);
+    }
+
+    /**
+     * @return Current interval between two polls of the source
+     */
+    public long getInterval(K key) {
+        return entries.get(key).interval;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void enqueue(Entry<K> e) {
+        queue.add(e);
+        e.queued = true;
+    }
+
+    private long clamp(long interval) {
+        return Math.max(minIntervalInMillis, Math.min(maxIntervalInMillis, interval));
+    }
+
+    private static class Entry<K> {
+        final K key;
+        long interval;
+        long nextDue;
+        long lastChange;
+        //Moving average of the time between two changes. 0 until two changes were seen
+        long changeInterval;
+        //True while in the queue, i.e. not taken with takeDue()
+        boolean queued;
+
+        Entry(K key, long interval, long nextDue) {
+            this.key = key;
+            this.interval = interval;
+            this.nextDue = nextDue;
+        }
+    }
+}
@@ -3,15 +3,16 @@ package org.aravind.oss.kafka.connect.lib;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Aravind R Yarram
  * @since 0.5.0
  */
 public class Partitions {
-    private static final Map<String, SourcePartition> cache = new HashMap<>();
+    //Per key, as the same value is the partition of a job and of its console log
+    private final Map<String, SourcePartition> cache = new ConcurrentHashMap<>();
     private final String partitionKey;
     private static final Logger logger = LoggerFactory.getLogger(Partitions.class);
 
@@ -21,15 +22,15 @@ public class Partitions {
 
     /**
      * Has a <b>side-effect</b> make caching the partition for future if it doesn't already exist in the cache.
+     * Safe to be called concurrently from multiple fetcher threads.
      *
      * @param partition Name (or value) make the partition
      * @return Cached {@link SourcePartition}
      */
     public SourcePartition make(String partition) {
-        if (!cache.containsKey(partition)) {
-            logger.trace("Adding {} to cache.", partition);
-            cache.put(partition, SourcePartition.make(partitionKey, partition));
-        }
-        return cache.get(partition);
+        return cache.computeIfAbsent(partition, p -> {
+            logger.trace("Adding {} to cache.", p);
+            return SourcePartition.make(partitionKey, p);
+        });
     }
 }
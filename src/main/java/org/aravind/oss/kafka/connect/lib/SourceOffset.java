@@ -1,10 +1,15 @@
 package org.aravind.oss.kafka.connect.lib;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.TreeMap;
 
 /**
+ * An offset is usually a single key and value, for e.g. the build number. More entries can be added with
+ * {@link #with(String, Object)} and read with {@link #get(String)}, for e.g. the byte offset of a console log next to
+ * the build number. {@link #key} and {@link #value} are those of the first entry.
+ *
  * @author Aravind R Yarram
  * @since 0.5.0
  */
@@ -17,12 +22,17 @@ public class SourceOffset {
         return new SourceOffset(k, v);
     }
 
+    /**
+     * @return The offset of the stored entries. The entries are ordered by their keys as the stored map has no order.
+     */
     public static SourceOffset decode(Map<String, Object> in) {
         if (in != null) {
-            Set<Map.Entry<String, Object>> entries = in.entrySet();
-            assert entries.size() == 1;
-            Map.Entry<String, Object> entry = entries.iterator().next();
-            return new SourceOffset(entry.getKey(), entry.getValue());
+            assert !in.isEmpty();
+            if (in.size() == 1) {
+                Map.Entry<String, Object> entry = in.entrySet().iterator().next();
+                return new SourceOffset(entry.getKey(), entry.getValue());
+            }
+            return new SourceOffset(new TreeMap<>(in));
         }
         return null;
     }
@@ -33,6 +43,29 @@ public class SourceOffset {
         encoded = Collections.singletonMap(key, value);
     }
 
+    private SourceOffset(Map<String, Object> entries) {
+        Map.Entry<String, Object> first = entries.entrySet().iterator().next();
+        key = first.getKey().intern();
+        value = first.getValue();
+        encoded = Collections.unmodifiableMap(new LinkedHashMap<>(entries));
+    }
+
+    /**
+     * @return A new offset with the entries of this one and the given entry
+     */
+    public SourceOffset with(String k, Object v) {
+        Map<String, Object> entries = new LinkedHashMap<>(encoded);
+        entries.put(k, v);
+        return new SourceOffset(entries);
+    }
+
+    /**
+     * @return The value of the entry. Null if there is no such entry.
+     */
+    public Object get(String k) {
+        return encoded.get(k);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -40,16 +73,12 @@ public class SourceOffset {
 
         SourceOffset offset = (SourceOffset) o;
 
-        if (!key.equals(offset.key)) return false;
-        return value.equals(offset.value);
-
+        return encoded.equals(offset.encoded);
     }
 
     @Override
     public int hashCode() {
-        int result = key.hashCode();
-        result = 31 * result + value.hashCode();
-        return result;
+        return encoded.hashCode();
     }
 
     @Override
@@ -60,4 +89,4 @@ public class SourceOffset {
                 ", encoded=" + encoded +
                 '}';
     }
-}
\ No newline at end of file
+}
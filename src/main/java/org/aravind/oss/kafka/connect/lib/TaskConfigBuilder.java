@@ -10,13 +10,15 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 /**
  * This class encapsulates the following common behavior of building task configurations
  * <p>
  * <ul>
- * <li>Group all the work into multiple smaller work groups.</li>
+ * <li>Group all the work into multiple smaller work groups. The groups have the same number of units, or the same total
+ * cost if a {@link TaskWeightExtractor} is set.</li>
  * <li>For each smaller work group, creates a <i>task config</i> that will be handed over to a single {@link SourceTask}</li>
  * <li>Each task config is encoded as a comma separated string. This is the simpler convention followed by few other connectors as well. The {@link SourceTask} is expected to split this String with comma delimiter.</li>
  * <li>Adds the connector specific configuration to <i>task config</i> so that it can be forwarded to {@link SourceTask}</li>
@@ -30,6 +32,7 @@ public class TaskConfigBuilder<T> {
     private final AbstractConfig connectorCfg;
     private final TaskConfigExtractor<T> taskCfgExtractor;
     private final String taskCfgKey;
+    private TaskWeightExtractor<T> taskWeightExtractor;
 
     private static Logger logger = LoggerFactory.getLogger(TaskConfigBuilder.class);
 
@@ -46,6 +49,15 @@ public class TaskConfigBuilder<T> {
         this.taskCfgKey = taskConfigKey;
     }
 
+    /**
+     * @param taskWeightExtractor The cost of each unit of work. The units are then bin-packed onto the tasks so that
+     *                            each task gets about the same total cost. Null groups the units by count.
+     */
+    public TaskConfigBuilder<T> setTaskWeightExtractor(TaskWeightExtractor<T> taskWeightExtractor) {
+        this.taskWeightExtractor = taskWeightExtractor;
+        return this;
+    }
+
     /**
      * Builds task config for each task.
      *
@@ -59,7 +71,7 @@ public class TaskConfigBuilder<T> {
 
         logger.debug("Total work size: {} units. maxTasks: {}. numGroups: {}.", workSizeCount, maxTasks, numGroups);
 
-        List<List<T>> workGroups = ConnectorUtils.groupPartitions(work, numGroups);
+        List<List<T>> workGroups = taskWeightExtractor == null ? ConnectorUtils.groupPartitions(work, numGroups) : groupByWeight(work, numGroups);
         logger.debug("Number of work groups created: {}.", workGroups.size());
 
         //Create task configs for each group
@@ -80,4 +92,43 @@ public class TaskConfigBuilder<T> {
         }
         return taskConfigs;
     }
+
+    /**
+     * Longest processing time first bin-packing: the heaviest unit is assigned to the group with the least total
+     * weight until all the units are assigned. The units of a group keep their order in the work.
+     */
+    private List<List<T>> groupByWeight(List<T> work, int numGroups) {
+        if (numGroups == 0) {
+            return new ArrayList<>();
+        }
+        long[] weights = new long[work.size()];
+        List<Integer> heaviestFirst = new ArrayList<>(work.size());
+        for (int i = 0; i < work.size(); i++) {
+            weights[i] = Math.max(1, taskWeightExtractor.extract(work.get(i)));
+            heaviestFirst.add(i);
+        }
+        //stable, so units of the same weight are spread in the order of the work
+        heaviestFirst.sort((a, b) -> Long.compare(weights[b], weights[a]));
+
+        long[] loads = new long[numGroups];
+        List<List<Integer>> groups = new ArrayList<>(numGroups);
+        PriorityQueue<Integer> lightestFirst = new PriorityQueue<>(numGroups, (a, b) -> loads[a] != loads[b] ? Long.compare(loads[a], loads[b]) : Integer.compare(a, b));
+        for (int g = 0; g < numGroups; g++) {
+            groups.add(new ArrayList<>());
+            lightestFirst.add(g);
+        }
+        for (Integer unit : heaviestFirst) {
+            int g = lightestFirst.poll();
+            groups.get(g).add(unit);
+            loads[g] += weights[unit];
+            lightestFirst.add(g);
+        }
+
+        List<List<T>> workGroups = new ArrayList<>(numGroups);
+        for (int g = 0; g < numGroups; g++) {
+            logger.debug("Work group {} has {} units weighing {}", g, groups.get(g).size(), loads[g]);
+            workGroups.add(groups.get(g).stream().sorted().map(work::get).collect(Collectors.toList()));
+        }
+        return workGroups;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package org.aravind.oss.kafka.connect.lib;
+
+/**
+ * Estimates the cost of a unit of work, for e.g. how often it changes or how long it takes to fetch. Used by the
+ * {@link TaskConfigBuilder} to balance the work across the tasks.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+public interface TaskWeightExtractor<T> {
+    /**
+     * @return The relative cost of the input. Should be at least 1.
+     */
+    public long extract(T input);
+}
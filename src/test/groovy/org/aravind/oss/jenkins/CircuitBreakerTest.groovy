@@ -0,0 +1,91 @@
+package org.aravind.oss.jenkins
+
+import spock.lang.Specification
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class CircuitBreakerTest extends Specification {
+
+    //no jitter: the backoff is always the whole of it
+    def random = new Random() {
+        @Override
+        double nextDouble() {
+            return 0.999999d
+        }
+    }
+
+    def "Opens after the consecutive failures"() {
+        given:
+        def breaker = new CircuitBreaker("host", 3, 1000, 10000, random)
+
+        when:
+        breaker.onFailure(0)
+        breaker.onFailure(0)
+        breaker.onSuccess()
+        breaker.onFailure(0)
+        breaker.onFailure(0)
+
+        then: "a success resets the failures"
+        breaker.getState() == CircuitBreaker.State.CLOSED
+        breaker.allowRequest(0)
+
+        when:
+        breaker.onFailure(0)
+
+        then:
+        breaker.getState() == CircuitBreaker.State.OPEN
+        !breaker.allowRequest(999)
+    }
+
+    def "Lets a single probe through once the backoff elapsed"() {
+        given:
+        def breaker = new CircuitBreaker("host", 1, 1000, 10000, random)
+        breaker.onFailure(0)
+
+        expect:
+        breaker.allowRequest(1000)
+        breaker.getState() == CircuitBreaker.State.HALF_OPEN
+        !breaker.allowRequest(1000)
+
+        when:
+        breaker.onSuccess()
+
+        then:
+        breaker.getState() == CircuitBreaker.State.CLOSED
+        breaker.allowRequest(1000)
+    }
+
+    def "The backoff doubles each time the probe fails up to the max backoff"() {
+        given:
+        def breaker = new CircuitBreaker("host", 1, 1000, 3000, random)
+        breaker.onFailure(0)
+
+        when:
+        breaker.allowRequest(1000)
+        breaker.onFailure(1000)
+
+        then:
+        breaker.getOpenUntil() == 3000
+
+        when:
+        breaker.allowRequest(3000)
+        breaker.onFailure(3000)
+
+        then:
+        breaker.getOpenUntil() == 6000
+    }
+
+    def "The backoff is jittered between half and the whole of it"() {
+        given:
+        def breaker = new CircuitBreaker("host", 1, 1000, 1000)
+
+        when:
+        breaker.onFailure(0)
+
+        then:
+        breaker.getOpenUntil() >= 500
+        breaker.getOpenUntil() <= 1000
+    }
+}
@@ -0,0 +1,93 @@
+package org.aravind.oss.jenkins
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class HostLimiterTest extends Specification {
+
+    static final long SECOND = TimeUnit.SECONDS.toNanos(1)
+
+    def "A full bucket lets a second worth of requests through at once"() {
+        given:
+        def limiter = new HostLimiter(5, 2, 0)
+
+        expect:
+        limiter.reserve(0) == 0
+        limiter.reserve(0) == 0
+        limiter.reserve(0) == SECOND / 2
+        limiter.reserve(0) == SECOND
+    }
+
+    def "The bucket refills at the rate"() {
+        given:
+        def limiter = new HostLimiter(5, 2, 0)
+        limiter.reserve(0)
+        limiter.reserve(0)
+
+        expect:
+        limiter.reserve(SECOND / 2 as long) == 0
+        limiter.reserve(SECOND / 2 as long) == SECOND / 2
+    }
+
+    def "The bucket never holds more than a second worth of requests"() {
+        given:
+        def limiter = new HostLimiter(5, 1, 0)
+
+        expect:
+        limiter.reserve(10 * SECOND) == 0
+        limiter.reserve(10 * SECOND) == SECOND
+    }
+
+    def "Caps the requests in flight"() {
+        given:
+        def limiter = new HostLimiter(2, 0)
+
+        when:
+        limiter.acquire()
+        limiter.acquire()
+
+        then:
+        limiter.getAvailableSlots() == 0
+
+        when:
+        limiter.release()
+
+        then:
+        limiter.getAvailableSlots() == 1
+    }
+
+    def "Clients with the same limits share the limiter of a host"() {
+        expect:
+        HostLimiter.shared("localhost:8080", 2, 10).is(HostLimiter.shared("localhost:8080", 2, 10))
+        !HostLimiter.shared("localhost:8080", 2, 10).is(HostLimiter.shared("localhost:8080", 2, 20))
+        !HostLimiter.shared("localhost:8080", 2, 10).is(HostLimiter.shared("localhost:8081", 2, 10))
+    }
+
+    def "Shared limiters are dropped once all their users gave them back"() {
+        given:
+        def before = HostLimiter.sharedCount()
+        def first = HostLimiter.shared("localhost:8090", 2, 10)
+        def second = HostLimiter.shared("localhost:8090", 2, 10)
+
+        when:
+        first.unshare()
+
+        then:
+        HostLimiter.sharedCount() == before + 1
+
+        when:
+        second.unshare()
+        def third = HostLimiter.shared("localhost:8090", 2, 10)
+
+        then:
+        !third.is(second)
+
+        cleanup:
+        third?.unshare()
+    }
+}
@@ -2,6 +2,7 @@ package org.aravind.oss.jenkins
 
 import com.github.dreamhead.moco.HttpsCertificate
 import com.github.dreamhead.moco.Runner
+import org.aravind.oss.jenkins.domain.BuildCollection
 import spock.lang.Ignore
 import spock.lang.Shared
 import spock.lang.Specification
@@ -110,6 +111,165 @@ class JenkinsClientTest extends Specification {
         allJobs.isPresent() == true
     }
 
+    def "A shared client can GET different resources"() {
+        given:
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+
+        when:
+        def allJobs = jenkins.get(new URL("http://localhost:9191/api/json"))
+        def missing = jenkins.get(new URL("http://localhost:9191/job/Missing/api/json"))
+
+        then:
+        allJobs.isPresent() == true
+        missing.isPresent() == false
+    }
+
+    def "Conditional GET returns the cached value when the resource is not modified"() {
+        given:
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+        jenkins.setResponseCache(new ConditionalGetCache(10))
+        def url = new URL("http://localhost:9191/job/Abdera-trunk/api/json")
+
+        when: "The second GET is answered with 304 Not Modified"
+        def first = jenkins.getIfModified(url, BuildCollection)
+        def second = jenkins.getIfModified(url, BuildCollection)
+
+        then:
+        first.isPresent() == true
+        first.get().getLastBuild().getNumber() == 2546
+        second.get().is(first.get())
+        jenkins.getResponseCache().get(url.toString()).etag == '"abdera-trunk-2546"'
+    }
+
+    def "Conditional GET without a cache parses every response"() {
+        given:
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+        def url = new URL("http://localhost:9191/job/Abdera-trunk/api/json")
+
+        when:
+        def first = jenkins.getIfModified(url, BuildCollection)
+        def second = jenkins.getIfModified(url, BuildCollection)
+
+        then:
+        first.get().getLastBuild().getNumber() == 2546
+        !second.get().is(first.get())
+    }
+
+    def "Conditional GET cache evicts the least recently used resource"() {
+        given:
+        def cache = new ConditionalGetCache(2)
+        cache.put("a", new ConditionalGetCache.Entry("1", null, "A"))
+        cache.put("b", new ConditionalGetCache.Entry("2", null, "B"))
+
+        when:
+        cache.get("a")
+        cache.put("c", new ConditionalGetCache.Entry("3", null, "C"))
+
+        then:
+        cache.size() == 2
+        cache.get("a") != null
+        cache.get("b") == null
+        cache.get("c") != null
+    }
+
+    def "Compressed responses are decompressed while they are read"() {
+        given:
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+
+        when:
+        def builds = jenkins.get(new URL("http://localhost:9191/job/Abdera-trunk-${encoding}/api/json"), BuildCollection)
+        def json = jenkins.get(new URL("http://localhost:9191/job/Abdera-trunk-${encoding}/api/json"))
+
+        then:
+        builds.get().getLastBuild().getNumber() == 2546
+        json.get() == new File("src/test/resources/abdera-trunk-builds.json").getText("UTF-8")
+
+        where:
+        encoding << ["gzip", "deflate"]
+    }
+
+    def "Compressed responses are not requested if compression is disabled"() {
+        given:
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+        jenkins.setCompressionEnabled(false)
+
+        when: "The mock serves the compressed response only if it is accepted"
+        def builds = jenkins.get(new URL("http://localhost:9191/job/Abdera-trunk-gzip/api/json"), BuildCollection)
+
+        then:
+        builds.isPresent() == false
+    }
+
+    def "Console log is read up to the maximum bytes and the rest of the response is dropped"() {
+        given:
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+        def log = new File("src/test/resources/${file}").bytes
+
+        when:
+        def text = jenkins.getProgressiveText("http://localhost:9191/job/${job}/1/", 0, 100)
+        def full = jenkins.getProgressiveText("http://localhost:9191/job/${job}/1/", 0, log.length)
+
+        then:
+        text.get().getLength() == 100
+        text.get().isTruncated()
+        text.get().isMoreData()
+        full.get().getLength() == log.length
+        !full.get().isTruncated()
+
+        where: "the rest of a short log is drained while a long one is disconnected"
+        job         | file
+        "Short-log" | "abdera-trunk-builds.json"
+        "Long-log"  | "all-jobs.json"
+    }
+
+    def "Closed clients give back the limiters they share"() {
+        given:
+        def before = HostLimiter.sharedCount()
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+        jenkins.setRateLimit(1000, true)
+        jenkins.get(new URL("http://localhost:9191/job/Abdera-trunk-gzip/api/json"))
+        jenkins.get(new URL("http://localhost:9191/job/Abdera-trunk-deflate/api/json"))
+
+        expect:
+        HostLimiter.sharedCount() == before + 1
+
+        when:
+        jenkins.close()
+
+        then:
+        HostLimiter.sharedCount() == before
+    }
+
+    def "Connections per host should be at least 1"() {
+        when:
+        new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT).setMaxConnectionsPerHost(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "Requests to a failing host fail fast once its circuit opens"() {
+        given: "nothing listens on the port"
+        def jenkins = new JenkinsClient(CONN_TIMEOUT, READ_TIMEOUT)
+        jenkins.setCircuitBreaker(2, 60000, 60000)
+        def url = new URL("http://localhost:9199/api/json")
+
+        when:
+        2.times {
+            try {
+                jenkins.get(url)
+            } catch (JenkinsException e) {
+                //connection refused
+            }
+        }
+        jenkins.get(url)
+
+        then:
+        def e = thrown(JenkinsException)
+        e.message.startsWith("Circuit of localhost:9199 is OPEN")
+        jenkins.getCircuitStates() == ["localhost:9199": CircuitBreaker.State.OPEN]
+    }
+
     def "Supports Jenkins with Basic Authentication"() {
         given: "Correct username and password"
         def server = jsonHttpServer(9494, pathResource("jenkins-mock-server-with-authuentication-cfg.json"))
@@ -0,0 +1,93 @@
+package org.aravind.oss.jenkins
+
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class JsonFieldFilterTest extends Specification {
+
+    @Shared
+    def build = [number   : 18,
+                 result   : 'SUCCESS',
+                 actions  : [[causes: [[shortDescription: 'Started by timer']]], [:], [parameters: [[name: 'BRANCH', value: 'trunk']]]],
+                 artifacts: [[fileName: 'a.jar'], [fileName: 'b.jar'], [fileName: 'c.jar']],
+                 changeSet: [kind: 'git', items: [[commitId: '1', paths: [[file: 'pom.xml']]], [commitId: '2', paths: []]]]]
+
+    def filter(List includes, List excludes, int maxArrayElements = 0) {
+        def filtered = new JsonFieldFilter(includes, excludes, maxArrayElements).filter(new ByteArrayInputStream(JsonOutput.toJson(build).bytes))
+        new JsonSlurper().parseText(filtered)
+    }
+
+    def "Without any rules the document is kept as it is"() {
+        expect:
+        new JsonFieldFilter([], [], 0).isPassThrough()
+        filter([], []) == build
+    }
+
+    @Unroll
+    def "Includes #includes keep #expected"() {
+        expect:
+        filter(includes, []) == expected
+
+        where:
+        includes                        | expected
+        ['number', 'result']            | [number: 18, result: 'SUCCESS']
+        ['changeSet']                   | [changeSet: build.changeSet]
+        ['changeSet.items.commitId']    | [changeSet: [items: [[commitId: '1'], [commitId: '2']]]]
+        ['actions.causes']              | [actions: [[causes: [[shortDescription: 'Started by timer']]]]]
+        ['*.fileName']                  | [artifacts: [[fileName: 'a.jar'], [fileName: 'b.jar'], [fileName: 'c.jar']]]
+        ['changeSet.items.paths.file']  | [changeSet: [items: [[paths: [[file: 'pom.xml']]]]]]
+        ['number.value', 'unknown']     | [:]
+    }
+
+    @Unroll
+    def "Excludes #excludes drop the fields and everything below them"() {
+        expect:
+        filter([], excludes).keySet() == expected as Set
+
+        where:
+        excludes                  | expected
+        ['changeSet']             | ['number', 'result', 'actions', 'artifacts']
+        ['changeSet', 'actions']  | ['number', 'result', 'artifacts']
+        ['*']                     | []
+    }
+
+    def "Excludes win over the includes"() {
+        expect:
+        filter(['changeSet'], ['changeSet.items.paths']) == [changeSet: [kind: 'git', items: [[commitId: '1'], [commitId: '2']]]]
+    }
+
+    def "Only the first elements of every array are kept"() {
+        when:
+        def filtered = filter([], [], 1)
+
+        then:
+        filtered.actions == [[causes: [[shortDescription: 'Started by timer']]]]
+        filtered.artifacts == [[fileName: 'a.jar']]
+        filtered.changeSet.items == [[commitId: '1', paths: [[file: 'pom.xml']]]]
+    }
+
+    def "Array elements without any included field don't count towards the max array elements"() {
+        expect:
+        filter(['actions.parameters'], [], 1) == [actions: [[parameters: [[name: 'BRANCH', value: 'trunk']]]]]
+    }
+
+    def "Blank rules are ignored"() {
+        expect:
+        new JsonFieldFilter([''], [' '], 0).isPassThrough()
+    }
+
+    def "Negative max array elements aren't allowed"() {
+        when:
+        new JsonFieldFilter([], [], -1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
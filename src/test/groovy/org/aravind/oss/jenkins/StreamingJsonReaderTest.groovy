@@ -0,0 +1,170 @@
+package org.aravind.oss.jenkins
+
+import com.fasterxml.jackson.core.JsonParseException
+import org.aravind.oss.jenkins.domain.Build
+import org.aravind.oss.jenkins.domain.BuildCollection
+import org.aravind.oss.jenkins.domain.Jenkins
+import spock.lang.Specification
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class StreamingJsonReaderTest extends Specification {
+
+    def "Reads the lastBuild of a job and skips the build history"() {
+        when:
+        def builds = read("abdera-trunk-builds.json", BuildCollection)
+
+        then:
+        builds.getName() == "Abdera-trunk"
+        builds.getLastBuild().getNumber() == 2546
+        builds.getLastBuild().getUrl() == "http://localhost:8181/job/Abdera-trunk/2546/"
+        builds.getBuilds() == null
+    }
+
+    def "Reads the ranged allBuilds of a job"() {
+        when:
+        def builds = read("abdera-trunk-all-builds.json", BuildCollection)
+
+        then:
+        builds.getAllBuilds()*.getNumber() == [2546L, 2545L]
+    }
+
+    def "Reads the jobs and skips every other field"() {
+        when:
+        def jenkins = read("all-jobs.json", Jenkins)
+
+        then:
+        jenkins.getJobCount() == 1359
+        jenkins.getJobs()[0].getName() == "Abdera-trunk"
+        jenkins.getJobs()[0].getColor() == "blue"
+    }
+
+    def "Reads the lastBuild of every job"() {
+        when:
+        def jenkins = read("all-jobs-last-builds.json", Jenkins)
+
+        then:
+        jenkins.getJobs()[0].getLastBuild().getNumber() == 2546
+        jenkins.getJobs()[0].getType() == "hudson.model.FreeStyleProject"
+        !jenkins.getJobs()[0].isFolder()
+    }
+
+    def "Reads the class of a build"() {
+        when:
+        def build = StreamingJsonReader.read(stream('{"_class":"org.jenkinsci.plugins.workflow.job.WorkflowRun","number":7}'), Build)
+
+        then:
+        build.getType() == Build.PIPELINE_RUN
+        build.getNumber() == 7
+    }
+
+    def "Null values are bound as null"() {
+        when:
+        def build = StreamingJsonReader.read(stream('{"number":null,"url":null,"changeSet":{"items":[]}}'), Build)
+        def builds = StreamingJsonReader.read(stream('{"name":"x","lastBuild":null,"builds":[{"number":1}]}'), BuildCollection)
+
+        then:
+        build.getNumber() == null
+        build.getUrl() == null
+        builds.getLastBuild() == null
+    }
+
+    def "Malformed JSON is rejected"() {
+        when:
+        StreamingJsonReader.read(stream(json), BuildCollection)
+
+        then:
+        thrown(JsonParseException)
+
+        where:
+        json << ['', '[1, 2]', '{"lastBuild": 1']
+    }
+
+    def "Other types are bound with an ObjectMapper"() {
+        when:
+        def map = StreamingJsonReader.read(stream('{"a":1}'), Map)
+
+        then:
+        map == [a: 1]
+    }
+
+    def "Reads the totals of the test suites and the failed test cases"() {
+        when:
+        def report = new File("src/test/resources/accumulo-trunk-18-test-report.json").withInputStream {
+            StreamingJsonReader.readTestReport(it, 10, 4096)
+        }
+
+        then:
+        report.suites*.name == ["org.apache.accumulo.core.client.impl.ScannerImplTest", "org.apache.accumulo.server.util.FileUtilTest"]
+        report.suites*.passCount == [2, 1]
+        report.suites*.failCount == [1, 1]
+        report.suites*.skipCount == [0, 1]
+        report.suites*.duration == [0.267d, 12.21d]
+        report.failedCases*.name == ["testInvalidReadaheadValues", "testFindMidPoint"]
+        report.failedCases*.status == ["REGRESSION", "FAILED"]
+        report.failedCases*.suite == report.suites*.name
+        report.failedCases[0].errorDetails == "expected:<5> but was:<4>"
+        report.failedCases[0].errorStackTrace.startsWith("java.lang.AssertionError")
+        report.droppedFailedCases == 0
+    }
+
+    def "Keeps at most maxFailedCases failed test cases and truncates their error texts"() {
+        when:
+        def report = new File("src/test/resources/accumulo-trunk-18-test-report.json").withInputStream {
+            StreamingJsonReader.readTestReport(it, 1, 8)
+        }
+
+        then:
+        report.failedCases*.name == ["testInvalidReadaheadValues"]
+        report.failedCases[0].errorDetails == "expected"
+        report.failedCases[0].errorStackTrace == "java.lan"
+        report.droppedFailedCases == 1
+        report.suites*.failCount == [1, 1]
+    }
+
+    def "Names the failed cases of a suite listed before its name"() {
+        given:
+        def json = '{"suites":[{"cases":[{"name":"a","status":"FAILED"},{"name":"b","status":"PASSED"}],"name":"s"}]}'
+
+        when:
+        def report = StreamingJsonReader.readTestReport(stream(json), 10, 10)
+
+        then:
+        report.failedCases*.suite == ["s"]
+        report.suites[0].passCount == 1
+    }
+
+    def "Reads a large test report one case at a time"() {
+        given: "a report of 50k cases generated while it is read"
+        int suites = 500, casesPerSuite = 100
+        def suite = { int s ->
+            def cases = (0..<casesPerSuite).collect { int c ->
+                """{"className":"Suite$s","name":"test$c","duration":0.1,"status":"${c == 0 ? 'FAILED' : 'PASSED'}","stdout":"${'x' * 1000}"}"""
+            }.join(",")
+            (s > 0 ? "," : "") + """{"name":"Suite$s","cases":[$cases]}"""
+        }
+        int part = 0
+        def parts = [hasMoreElements: { part <= suites + 1 },
+                     nextElement    : { int p = part++; stream(p == 0 ? '{"suites":[' : p > suites ? ']}' : suite(p - 1)) }] as Enumeration
+        def json = new SequenceInputStream(parts)
+
+        when:
+        def report = StreamingJsonReader.readTestReport(json, 100, 4096)
+
+        then:
+        report.suites.size() == suites
+        report.suites.sum { it.passCount + it.failCount } == suites * casesPerSuite
+        report.failedCases.size() == 100
+        report.droppedFailedCases == suites - 100
+    }
+
+    private static <T> T read(String resource, Class<T> type) {
+        new File("src/test/resources/" + resource).withInputStream { StreamingJsonReader.read(it, type) }
+    }
+
+    private static InputStream stream(String json) {
+        new ByteArrayInputStream(json.getBytes("UTF-8"))
+    }
+}
@@ -0,0 +1,291 @@
+package org.aravind.oss.jenkins
+
+import com.fasterxml.jackson.core.JsonFactory
+import com.fasterxml.jackson.core.JsonGenerator
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.regex.Pattern
+import java.util.zip.GZIPOutputStream
+
+/**
+ * A programmable Jenkins that generates its jobs and builds instead of serving recorded responses, for the load and
+ * soak tests of the connector. It serves the resources the connector reads:
+ * <ul>
+ * <li><i>/api/json</i>: the jobs with their color and lastBuild, whatever the tree</li>
+ * <li><i>/job/{name}/api/json</i>: the lastBuild of the job, and its allBuilds when a ranged tree asks for them</li>
+ * <li><i>/job/{name}/{number}/api/json</i>: the build details, padded with artifacts up to {@link #buildDetailsBytes}</li>
+ * </ul>
+ * <p>
+ * Every job starts with {@link #initialBuilds} builds. Then a new build of some job completes every
+ * <code>60000 / buildsPerMinute</code> millis, with the jobs taking turns at a fixed period and a phase of their own.
+ * So the lastBuild of a job and the timestamp of each build are a function of the time alone, and the end-to-end
+ * latency of a record is the time since the <i>timestamp</i> of its build.
+ * </p>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class SyntheticJenkins {
+    private static final Pattern JOB = ~'^/job/([^/]+)/api/json$'
+    private static final Pattern BUILD = ~'^/job/([^/]+)/(\\d+)/api/json$'
+    private static final Pattern ALL_BUILDS_RANGE = ~'allBuilds\\[[^\\]]*\\]\\{(\\d+),(\\d+)\\}'
+
+    /** 0 picks a free port, known once started. */
+    int port
+    int jobCount = 10000
+    int initialBuilds = 10
+    /** New builds completing per minute across all the jobs. 0 stops building. */
+    double buildsPerMinute = 600
+    int buildDetailsBytes = 4096
+    /** Median of the log-normal response latency. 0 responds without delay. */
+    long latencyMedianMillis = 0
+    /** Spread of the log-normal response latency. 0 delays every response by the median. */
+    double latencySigma = 0.5
+    /** Fraction of the requests answered with a 500. */
+    double errorRate = 0
+    boolean gzip = true
+    int threads = 64
+
+    final AtomicLong requests = new AtomicLong()
+    final AtomicLong errors = new AtomicLong()
+    final AtomicLong bytesSent = new AtomicLong()
+    final Map<String, AtomicLong> requestsByEndpoint = new ConcurrentHashMap<>()
+
+    private final JsonFactory json = new JsonFactory()
+    private HttpServer server
+    private ExecutorService executor
+    private long startedAt
+
+    SyntheticJenkins start() {
+        startedAt = System.currentTimeMillis()
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 1024)
+        executor = Executors.newFixedThreadPool(threads)
+        server.executor = executor
+        server.createContext("/") { HttpExchange exchange ->
+            try {
+                handle(exchange)
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1)
+            } finally {
+                exchange.close()
+            }
+        }
+        server.start()
+        port = server.address.port
+        this
+    }
+
+    void stop() {
+        server?.stop(0)
+        executor?.shutdownNow()
+    }
+
+    String getBaseUrl() {
+        "http://localhost:$port"
+    }
+
+    String jobName(int job) {
+        "job-$job"
+    }
+
+    String jobUrl(int job) {
+        "$baseUrl/job/${jobName(job)}/"
+    }
+
+    /**
+     * @return The number of the most recent build of the job at the given time
+     */
+    long lastBuildNumber(int job, long now) {
+        if (buildsPerMinute <= 0 || now <= startedAt) {
+            return initialBuilds
+        }
+        initialBuilds + (long) Math.floor((now - startedAt) / period() + phase(job))
+    }
+
+    /**
+     * @return The time the build completed. The initial builds completed a period apart before the start.
+     */
+    long buildTimestamp(int job, long number) {
+        long period = buildsPerMinute <= 0 ? TimeUnit.HOURS.toMillis(1) : (long) period()
+        startedAt + (long) ((number - initialBuilds - phase(job)) * period)
+    }
+
+    /**
+     * @return Builds completed by all the jobs from the start up to the given time
+     */
+    long newBuilds(long now) {
+        (0..<jobCount).sum { int job -> lastBuildNumber(job, now) - initialBuilds } as long
+    }
+
+    private double period() {
+        jobCount * 60000d / buildsPerMinute
+    }
+
+    //spreads the builds of the jobs evenly over the period
+    private double phase(int job) {
+        ((job * 2654435761L) & 0xffffffffL) / 4294967296d
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.incrementAndGet()
+        String path = exchange.requestURI.path
+        String tree = query(exchange.requestURI.rawQuery, "tree")
+
+        delay()
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.incrementAndGet()
+            count("error")
+            exchange.sendResponseHeaders(500, -1)
+            return
+        }
+
+        long now = System.currentTimeMillis()
+        def build = BUILD.matcher(path)
+        def job = JOB.matcher(path)
+        if (path == "/api/json") {
+            count("jobs")
+            respond(exchange) { JsonGenerator g -> writeJobs(g, now) }
+        } else if (build.matches() && jobIndex(build.group(1)) != null) {
+            count("build")
+            int index = jobIndex(build.group(1))
+            long number = Long.parseLong(build.group(2))
+            if (number < 1 || number > lastBuildNumber(index, now)) {
+                exchange.sendResponseHeaders(404, -1)
+                return
+            }
+            respond(exchange) { JsonGenerator g -> writeBuildDetails(g, index, number) }
+        } else if (job.matches() && jobIndex(job.group(1)) != null) {
+            count("job")
+            int index = jobIndex(job.group(1))
+            respond(exchange) { JsonGenerator g -> writeJob(g, index, tree, now) }
+        } else {
+            count("unknown")
+            exchange.sendResponseHeaders(404, -1)
+        }
+    }
+
+    private void delay() {
+        if (latencyMedianMillis > 0) {
+            double gaussian = latencySigma > 0 ? ThreadLocalRandom.current().nextGaussian() : 0
+            Thread.sleep((long) (latencyMedianMillis * Math.exp(latencySigma * gaussian)))
+        }
+    }
+
+    private void count(String endpoint) {
+        requestsByEndpoint.computeIfAbsent(endpoint) { new AtomicLong() }.incrementAndGet()
+    }
+
+    private Integer jobIndex(String name) {
+        if (!name.startsWith("job-")) return null
+        try {
+            int index = Integer.parseInt(name.substring(4))
+            index >= 0 && index < jobCount ? index : null
+        } catch (NumberFormatException e) {
+            null
+        }
+    }
+
+    private static String query(String rawQuery, String name) {
+        if (rawQuery == null) return null
+        String param = rawQuery.split('&').find { it.startsWith(name + "=") }
+        param == null ? null : URLDecoder.decode(param.substring(name.length() + 1), "UTF-8")
+    }
+
+    private void respond(HttpExchange exchange, Closure writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+        boolean compress = gzip && exchange.requestHeaders.getFirst("Accept-Encoding")?.contains("gzip")
+        OutputStream out = compress ? new GZIPOutputStream(bytes) : bytes
+        JsonGenerator g = json.createGenerator(out)
+        writer(g)
+        g.close()
+        out.close()
+
+        exchange.responseHeaders.set("Content-Type", "application/json;charset=utf-8")
+        if (compress) exchange.responseHeaders.set("Content-Encoding", "gzip")
+        exchange.sendResponseHeaders(200, bytes.size())
+        bytes.writeTo(exchange.responseBody)
+        bytesSent.addAndGet(bytes.size())
+    }
+
+    private void writeJobs(JsonGenerator g, long now) {
+        g.writeStartObject()
+        g.writeStringField("_class", "hudson.model.Hudson")
+        g.writeArrayFieldStart("jobs")
+        for (int job = 0; job < jobCount; job++) {
+            g.writeStartObject()
+            g.writeStringField("_class", "hudson.model.FreeStyleProject")
+            g.writeStringField("name", jobName(job))
+            g.writeStringField("url", jobUrl(job))
+            g.writeStringField("color", "blue")
+            g.writeFieldName("lastBuild")
+            writeBuildRef(g, job, lastBuildNumber(job, now))
+            g.writeEndObject()
+        }
+        g.writeEndArray()
+        g.writeEndObject()
+    }
+
+    private void writeJob(JsonGenerator g, int job, String tree, long now) {
+        long lastBuild = lastBuildNumber(job, now)
+        g.writeStartObject()
+        g.writeStringField("_class", "hudson.model.FreeStyleProject")
+        g.writeStringField("name", jobName(job))
+        g.writeStringField("url", jobUrl(job))
+        g.writeFieldName("lastBuild")
+        writeBuildRef(g, job, lastBuild)
+        def range = tree == null ? null : ALL_BUILDS_RANGE.matcher(tree)
+        if (range?.find()) {
+            //newest first, as Jenkins lists them
+            long from = Long.parseLong(range.group(1))
+            long to = Math.min(Long.parseLong(range.group(2)), lastBuild)
+            g.writeArrayFieldStart("allBuilds")
+            for (long i = from; i < to; i++) {
+                writeBuildRef(g, job, lastBuild - i)
+            }
+            g.writeEndArray()
+        }
+        g.writeEndObject()
+    }
+
+    private void writeBuildRef(JsonGenerator g, int job, long number) {
+        g.writeStartObject()
+        g.writeStringField("_class", "hudson.model.FreeStyleBuild")
+        g.writeNumberField("number", number)
+        g.writeStringField("url", jobUrl(job) + number + "/")
+        g.writeNumberField("timestamp", buildTimestamp(job, number))
+        g.writeEndObject()
+    }
+
+    private void writeBuildDetails(JsonGenerator g, int job, long number) {
+        g.writeStartObject()
+        g.writeStringField("_class", "hudson.model.FreeStyleBuild")
+        g.writeBooleanField("building", false)
+        g.writeNumberField("duration", 60000)
+        g.writeStringField("fullDisplayName", "${jobName(job)} #$number")
+        g.writeNumberField("number", number)
+        g.writeStringField("result", number % 10 == 0 ? "FAILURE" : "SUCCESS")
+        g.writeNumberField("timestamp", buildTimestamp(job, number))
+        g.writeStringField("url", jobUrl(job) + number + "/")
+        g.writeStringField("builtOn", "agent-${job % 32}")
+        g.writeArrayFieldStart("artifacts")
+        //a generator buffers, so the padding is sized from the bytes of a single artifact instead of the output
+        int artifactBytes = 120
+        for (int i = 0; i < Math.max(0, buildDetailsBytes - 400) / artifactBytes; i++) {
+            String file = String.format("module-%04d-%s.jar", i, number)
+            g.writeStartObject()
+            g.writeStringField("displayPath", file)
+            g.writeStringField("fileName", file)
+            g.writeStringField("relativePath", "target/" + file)
+            g.writeEndObject()
+        }
+        g.writeEndArray()
+        g.writeEndObject()
+    }
+}
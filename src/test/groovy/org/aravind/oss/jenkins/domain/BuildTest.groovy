@@ -1,55 +1,27 @@
 package org.aravind.oss.jenkins.domain
 
-import spock.lang.Shared
 import spock.lang.Specification
-
-import static com.github.dreamhead.moco.Moco.pathResource
-import static com.github.dreamhead.moco.MocoJsonRunner.jsonHttpServer
-import static com.github.dreamhead.moco.Runner.runner
+import spock.lang.Unroll
 
 /**
  * @author Aravind R Yarram
  * @since 0.5.0
  */
 class BuildTest extends Specification {
-    @Shared
-    def mock
-
-    def setupSpec() {
-        def server = jsonHttpServer(1081, pathResource("BuildTest-mock-server-cfg.json"))
-        mock = runner(server)
-        mock.start()
-    }
-
-    def cleanupSpec() {
-        mock.stop()
-    }
-
-    def "getDetails"() {
+    @Unroll
+    def "A build of type #type may be a Pipeline run: #pipeline"() {
         given:
         def build = new Build()
-        build.setNumber(2546)
-        build.setUrl('http://localhost:1081/job/Abdera-trunk/2546/')
-
-        when:
-        Optional<String> details = build.getDetails()
-
-        then:
-        build.getBuildDetailsResource() == 'http://localhost:1081/job/Abdera-trunk/2546/api/json'
-        details.isPresent() == true
-    }
-
-    def "getDetails - Error condition"() {
-        given: "A wrong port number 10"
-        def build = new Build()
-        build.setNumber(2546)
-        build.setUrl('http://localhost:10/job/Abdera-trunk/0000/')
+        build.setType(type)
 
-        when: "Asked for the Build details"
-        Optional<String> details = build.getDetails()
+        expect:
+        build.mayBePipelineRun() == pipeline
 
-        then: "An exception is logged and Optional.empty() is returned"
-        build.getBuildDetailsResource() == 'http://localhost:10/job/Abdera-trunk/0000/api/json'
-        details.isPresent() == false
+        where:
+        type                                                | pipeline
+        'org.jenkinsci.plugins.workflow.job.WorkflowRun'    | true
+        null                                                | true
+        'hudson.model.FreeStyleBuild'                       | false
+        'hudson.maven.MavenModuleSetBuild'                  | false
     }
 }
@@ -0,0 +1,102 @@
+package org.aravind.oss.jenkins.domain
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.charset.StandardCharsets
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class ProgressiveTextTest extends Specification {
+
+    def "The whole log of a completed build is consumed"() {
+        given:
+        def text = progressiveText(100, "line 1\nline 2", false, false)
+
+        when:
+        def chunks = text.chunks(1024)
+
+        then:
+        text.isComplete()
+        chunks.size() == 1
+        chunks[0].start == 100
+        chunks[0].end == 113
+        chunks[0].text == "line 1\nline 2"
+    }
+
+    @Unroll
+    def "The last partial line of a growing log is held back (moreData: #moreData, truncated: #truncated)"() {
+        given:
+        def text = progressiveText(0, "line 1\nline 2\nli", moreData, truncated)
+
+        when:
+        def chunks = text.chunks(1024)
+
+        then:
+        !text.isComplete()
+        chunks*.text == ["line 1\nline 2\n"]
+        chunks[0].end == 14
+
+        where:
+        moreData | truncated
+        true     | false
+        false    | true
+    }
+
+    def "A growing log without a whole line isn't consumed until the line fits no chunk"() {
+        expect:
+        progressiveText(0, "partial", true, false).chunks(1024).isEmpty()
+        progressiveText(0, "a long partial line", true, false).chunks(8)*.text == ["a long p", "artial l", "ine"]
+    }
+
+    def "A truncated read of a single line is consumed"() {
+        expect:
+        progressiveText(0, "partial", false, true).chunks(1024)*.text == ["partial"]
+    }
+
+    def "Chunks are split at the line breaks"() {
+        when:
+        def chunks = progressiveText(0, "aaa\nbbb\ncccccc\n", false, false).chunks(9)
+
+        then:
+        chunks*.text == ["aaa\nbbb\n", "cccccc\n"]
+        chunks*.start == [0, 8]
+        chunks*.end == [8, 15]
+    }
+
+    def "Chunks never split a UTF-8 encoded character"() {
+        given: "é is 2 bytes and € is 3 bytes"
+        def text = progressiveText(0, "aé€€", false, false)
+
+        when:
+        def chunks = text.chunks(5)
+
+        then:
+        chunks*.text == ["aé", "€", "€"]
+        chunks*.end == [3, 6, 9]
+    }
+
+    def "A chunk must fit any character"() {
+        when:
+        progressiveText(0, "text", false, false).chunks(3)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "A slice taken as complete is consumed up to its end"() {
+        when:
+        def text = progressiveText(0, "line 1\nli", true, false).asComplete()
+
+        then:
+        text.isComplete()
+        text.chunks(1024)*.text == ["line 1\nli"]
+    }
+
+    private static ProgressiveText progressiveText(long start, String text, boolean moreData, boolean truncated) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8)
+        new ProgressiveText(start, bytes, start + bytes.length, moreData, truncated)
+    }
+}
@@ -0,0 +1,70 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import spock.lang.Specification
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class BuildDetailsStructsTest extends Specification {
+    BuildDetailsStructs structs = new BuildDetailsStructs()
+
+    def "Maps the build details to a Struct"() {
+        given:
+        def details = new File("src/test/resources/abdera-trunk-2546-build-details.json").text
+
+        when:
+        def struct = structs.toStruct(details)
+
+        then:
+        struct.getInt64("number") == 2546
+        struct.getString("result") == "SUCCESS"
+        struct.getBoolean("building") == false
+        struct.getInt64("duration") == 480582
+        struct.get("timestamp") == new Date(1440540523000)
+        struct.getString("url") == "https://builds.apache.org/job/Abdera-trunk/2546/"
+        struct.getArray("causes")*.getString("shortDescription") == ["Started by an SCM change"]
+        struct.getArray("culprits") == ["veithen"]
+        struct.getStruct("testResults").getInt32("totalCount") == 491
+        struct.get("parameters") == null
+        struct.schema().name() == BuildDetailsStructs.DEFAULT_BUILD_TYPE
+    }
+
+    def "Schemas are cached per build type"() {
+        when:
+        def freeStyle = structs.toStruct('{"_class":"hudson.model.FreeStyleBuild","number":1}')
+        def freeStyleAgain = structs.toStruct('{"_class":"hudson.model.FreeStyleBuild","number":2}')
+        def pipeline = structs.toStruct('{"_class":"org.jenkinsci.plugins.workflow.job.WorkflowRun","number":1}')
+
+        then:
+        freeStyle.schema().is(freeStyleAgain.schema())
+        freeStyle.schema().name() == "hudson.model.FreeStyleBuild"
+        pipeline.schema().name() == "org.jenkinsci.plugins.workflow.job.WorkflowRun"
+    }
+
+    def "Maps the build parameters"() {
+        when:
+        def struct = structs.toStruct('{"actions":[{"parameters":[{"name":"BRANCH","value":"master"},{"name":"DEBUG","value":true}]}]}')
+
+        then:
+        struct.getMap("parameters") == [BRANCH: "master", DEBUG: "true"]
+    }
+
+    def "Fields left out by a build details tree are null"() {
+        when:
+        def struct = structs.toStruct('{"number":3,"result":null}')
+
+        then:
+        struct.getInt64("number") == 3
+        struct.getString("result") == null
+        struct.get("causes") == null
+    }
+
+    def "Build details that are not a JSON object are rejected"() {
+        when:
+        structs.toStruct("[]")
+
+        then:
+        thrown(IOException)
+    }
+}
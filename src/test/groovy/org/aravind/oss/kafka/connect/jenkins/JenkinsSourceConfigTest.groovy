@@ -54,6 +54,15 @@ class JenkinsSourceConfigTest extends Specification {
         thrown(ConfigException)
     }
 
+    def "'jenkins.fetch.parallelism' less than 1 should throw an exception"() {
+        when:
+        def props = ['jenkins.base.url': 'https://builds.apache.org', 'jenkins.fetch.parallelism': '0']
+        def jenkinsCfg = new JenkinsSourceConfig(props)
+
+        then:
+        thrown(ConfigException)
+    }
+
     def "GetJobsResource should throw Exception with invalid URL"() {
         given: "Given invalid url"
         def props = ['jenkins.base.url': 'invalid url']
@@ -66,6 +75,16 @@ class JenkinsSourceConfigTest extends Specification {
         thrown(ConfigException)
     }
 
+    def "Missing base url of a controller should throw exception"() {
+        when:
+        def props = ['jenkins.controllers': 'ci1,ci2', 'jenkins.controller.ci1.base.url': 'https://ci1.example.com']
+        def jenkinsCfg = new JenkinsSourceConfig(props)
+
+        then:
+        def e = thrown(ConfigException)
+        e.message.contains('jenkins.controller.ci2.base.url')
+    }
+
     //Happy scenarios
 
     def "'jenkins.base.url' is the only REQUIRED property"() {
@@ -85,7 +104,17 @@ class JenkinsSourceConfigTest extends Specification {
         def jenkinsCfg = new JenkinsSourceConfig(props)
 
         then:
-        jenkinsCfg.getJobsResource() == new URL('https://builds.apache.org/api/json')
+        jenkinsCfg.getJobsResource() == new URL('https://builds.apache.org/api/json?tree=jobs%5Bname%2Curl%2Ccolor%5D')
+    }
+
+    def "Defaults - build details aren't projected when 'jenkins.build.details.tree' property is not specified"() {
+        when:
+        def props = ['jenkins.base.url': 'https://builds.apache.org']
+        def jenkinsCfg = new JenkinsSourceConfig(props)
+
+        then:
+        jenkinsCfg.isTreeProjectionEnabled() == true
+        jenkinsCfg.getBuildDetailsTree() == ''
     }
 
     def "Defaults - '500' millis is chosen when 'jenkins.connection.timeoutInMillis' property is not specified"() {
@@ -106,6 +135,24 @@ class JenkinsSourceConfigTest extends Specification {
         jenkinsCfg.getJenkinsReadTimeout() == 3000
     }
 
+    def "Defaults - '4' fetcher threads are used when 'jenkins.fetch.parallelism' property is not specified"() {
+        when:
+        def props = ['jenkins.base.url': 'https://builds.apache.org']
+        def jenkinsCfg = new JenkinsSourceConfig(props)
+
+        then:
+        jenkinsCfg.getFetchParallelism() == 4
+    }
+
+    def "Defaults - jobs are re-read every minute when 'jenkins.job.discovery.interval.ms' property is not specified"() {
+        when:
+        def props = ['jenkins.base.url': 'https://builds.apache.org']
+        def jenkinsCfg = new JenkinsSourceConfig(props)
+
+        then:
+        jenkinsCfg.getJobDiscoveryInterval() == 60000
+    }
+
     //Happy scenarios - Helper methods
 
     def "GetJenkinsUrl"() {
@@ -144,6 +191,14 @@ class JenkinsSourceConfigTest extends Specification {
         when:
         def jenkinsCfg = new JenkinsSourceConfig(cfg)
 
+        then:
+        jenkinsCfg.getJobsResource() == new URL('https://builds.apache.org/api/json?tree=jobs%5Bname%2Curl%2Ccolor%5D')
+    }
+
+    def "GetJobsResource without tree projection"() {
+        when:
+        def jenkinsCfg = new JenkinsSourceConfig(cfg + ['jenkins.tree.projection.enabled': 'false'])
+
         then:
         jenkinsCfg.getJobsResource() == new URL('https://builds.apache.org/api/json')
     }
@@ -163,4 +218,30 @@ class JenkinsSourceConfigTest extends Specification {
         then:
         jenkinsCfg.getJenkinsReadTimeout() == 5000
     }
-}
\ No newline at end of file
+
+    def "GetControllers - controllers default to the top level credentials and timeouts"() {
+        when:
+        def jenkinsCfg = new JenkinsSourceConfig(cfg + ['jenkins.controllers'                          : 'ci1, ci2',
+                                                        'jenkins.controller.ci1.base.url'              : 'https://ci1.example.com',
+                                                        'jenkins.controller.ci2.base.url'              : 'https://ci2.example.com',
+                                                        'jenkins.controller.ci2.read.timeoutInMillis'  : '9000'])
+        def controllers = jenkinsCfg.getControllers()
+
+        then:
+        jenkinsCfg.isMultiController()
+        controllers*.alias == ['ci1', 'ci2']
+        controllers*.baseUrl == ['https://ci1.example.com', 'https://ci2.example.com']
+        controllers*.connTimeout == [1000, 1000]
+        controllers*.readTimeout == [5000, 9000]
+        jenkinsCfg.getJobsResource(controllers[1]) == new URL('https://ci2.example.com/api/json?tree=jobs%5Bname%2Curl%2Ccolor%5D')
+    }
+
+    def "GetControllers - the single controller at 'jenkins.base.url' has no alias"() {
+        when:
+        def controllers = new JenkinsSourceConfig(cfg).getControllers()
+
+        then:
+        controllers*.alias == ['']
+        controllers*.baseUrl == ['https://builds.apache.org']
+    }
+}
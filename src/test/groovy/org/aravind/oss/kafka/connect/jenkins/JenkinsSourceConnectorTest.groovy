@@ -254,4 +254,60 @@ class JenkinsSourceConnectorTest extends Specification {
 
         mock.stop()
     }
+
+    def "Partitioning - The jobs of all the controllers are spread across the tasks"() {
+        given:
+        def ci1 = runner(jsonHttpServer(9300, pathResource("jenkins-mock-server-single-job-cfg.json")))
+        def ci2 = runner(jsonHttpServer(9301, pathResource("jenkins-mock-server-three-job-cfg.json")))
+        ci1.start()
+        ci2.start()
+
+        when:
+        sourceProps.put(JenkinsSourceConfig.JENKINS_CONTROLLERS_CONFIG, 'ci1,ci2')
+        sourceProps.put('jenkins.controller.ci1.base.url', 'http://localhost:9300')
+        sourceProps.put('jenkins.controller.ci2.base.url', 'http://localhost:9301')
+        connector.start(sourceProps)
+
+        def taskCfgs = connector.taskConfigs(2)
+
+        then:
+        taskCfgs*.get(JenkinsSourceTask.JOB_URLS) == ['ci1|https://builds.apache.org/job/Abdera-trunk/,ci2|https://builds.apache.org/job/Abdera-trunk/',
+                                                      'ci2|https://builds.apache.org/job/Accumulo-1.8/,ci2|https://builds.apache.org/job/Allura/']
+
+        cleanup:
+        ci1.stop()
+        ci2.stop()
+    }
+
+    def "Partitioning - A controller that can't be reached is treated as having no jobs"() {
+        given:
+        def ci1 = runner(jsonHttpServer(9300, pathResource("jenkins-mock-server-single-job-cfg.json")))
+        ci1.start()
+
+        when:
+        sourceProps.put(JenkinsSourceConfig.JENKINS_CONTROLLERS_CONFIG, 'ci1,ci2')
+        sourceProps.put('jenkins.controller.ci1.base.url', 'http://localhost:9300')
+        sourceProps.put('jenkins.controller.ci2.base.url', 'http://localhost:9311')
+        connector.start(sourceProps)
+
+        def taskCfgs = connector.taskConfigs(2)
+
+        then:
+        taskCfgs*.get(JenkinsSourceTask.JOB_URLS) == ['ci1|https://builds.apache.org/job/Abdera-trunk/']
+
+        cleanup:
+        ci1.stop()
+    }
+
+    def "Config - Connector should fail when none of the controllers can be reached"() {
+        when:
+        sourceProps.put(JenkinsSourceConfig.JENKINS_CONTROLLERS_CONFIG, 'ci1,ci2')
+        sourceProps.put('jenkins.controller.ci1.base.url', 'http://localhost:9311')
+        sourceProps.put('jenkins.controller.ci2.base.url', 'http://localhost:9312')
+        connector.start(sourceProps)
+
+        then:
+        def e = thrown(ConnectException)
+        e.message == 'Unable to open connection to http://localhost:9311, http://localhost:9312'
+    }
 }
@@ -0,0 +1,77 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import org.aravind.oss.jenkins.SyntheticJenkins
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import spock.lang.Requires
+import spock.lang.Specification
+
+/**
+ * Runs the connector against a {@link SyntheticJenkins} on a free port. The short smoke test keeps the harness working.
+ * The load test only runs with <code>-Dload.test</code>, logs its report and is sized with the following system
+ * properties, for e.g. a soak test of an hour with
+ * <code>mvn test -Dtest=JenkinsSourceLoadTest -Dload.test -Dload.test.duration.seconds=3600</code>
+ * <ul>
+ * <li>load.test.jobs (10000), load.test.builds.per.minute (6000), load.test.build.details.bytes (4096)</li>
+ * <li>load.test.latency.median.ms (20), load.test.error.rate (0.01)</li>
+ * <li>load.test.tasks (4), load.test.duration.seconds (60), load.test.poll.interval.ms (5000)</li>
+ * </ul>
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class JenkinsSourceLoadTest extends Specification {
+    private static final Logger logger = LoggerFactory.getLogger(JenkinsSourceLoadTest)
+
+    SyntheticJenkins jenkins
+
+    def cleanup() {
+        jenkins?.stop()
+    }
+
+    def "Smoke test - every job is delivered once and the new builds follow"() {
+        given:
+        jenkins = new SyntheticJenkins(jobCount: 50, buildsPerMinute: 1200, buildDetailsBytes: 1024).start()
+        def harness = new LoadTestHarness(maxTasks: 2, durationMillis: 3000, connectorProps: [
+                (JenkinsSourceConfig.JENKINS_BASE_URL_CONFIG)    : jenkins.baseUrl,
+                (JenkinsSourceConfig.JENKINS_POLL_INTERVAL_MS_CONFIG): '500'])
+
+        when:
+        def report = harness.run()
+
+        then:
+        report.tasks == 2
+        report.duplicates == 0
+        report.records >= 50
+        !report.latencies.isEmpty()
+        //the records fetched but not yet polled at the end of the run are lost
+        jenkins.requestsByEndpoint['build'].get() >= report.records
+    }
+
+    @Requires({ System.getProperty('load.test') != null })
+    def "Load test"() {
+        given:
+        jenkins = new SyntheticJenkins(
+                jobCount: Integer.getInteger('load.test.jobs', 10000),
+                buildsPerMinute: Double.valueOf(System.getProperty('load.test.builds.per.minute', '6000')),
+                buildDetailsBytes: Integer.getInteger('load.test.build.details.bytes', 4096),
+                latencyMedianMillis: Long.getLong('load.test.latency.median.ms', 20),
+                errorRate: Double.valueOf(System.getProperty('load.test.error.rate', '0.01'))).start()
+        def harness = new LoadTestHarness(
+                maxTasks: Integer.getInteger('load.test.tasks', 4),
+                durationMillis: Long.getLong('load.test.duration.seconds', 60) * 1000,
+                connectorProps: [
+                        (JenkinsSourceConfig.JENKINS_BASE_URL_CONFIG)    : jenkins.baseUrl,
+                        (JenkinsSourceConfig.JENKINS_READ_TIMEOUT_CONFIG): '10000',
+                        (JenkinsSourceConfig.JENKINS_POLL_INTERVAL_MS_CONFIG): System.getProperty('load.test.poll.interval.ms', '5000')])
+
+        when:
+        def report = harness.run()
+        logger.info("Load test report:{}{}", System.lineSeparator(), report)
+        logger.info("Jenkins served {} requests ({}), {} errors, {} MB", jenkins.requests, jenkins.requestsByEndpoint, jenkins.errors, jenkins.bytesSent.get() >> 20)
+
+        then:
+        report.duplicates == 0
+        report.records > 0
+    }
+}
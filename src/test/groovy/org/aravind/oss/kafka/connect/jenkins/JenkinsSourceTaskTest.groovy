@@ -1,12 +1,24 @@
 package org.aravind.oss.kafka.connect.jenkins
 
+import groovy.json.JsonSlurper
 import org.apache.kafka.common.utils.Time
+import org.apache.kafka.connect.data.Struct
 import org.apache.kafka.connect.source.SourceTaskContext
 import org.apache.kafka.connect.storage.OffsetStorageReader
+import org.aravind.oss.jenkins.domain.BuildCollection
 import spock.lang.Shared
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
+import static com.github.dreamhead.moco.Moco.and
+import static com.github.dreamhead.moco.Moco.by
+import static com.github.dreamhead.moco.Moco.eq
+import static com.github.dreamhead.moco.Moco.file
+import static com.github.dreamhead.moco.Moco.httpServer
 import static com.github.dreamhead.moco.Moco.pathResource
+import static com.github.dreamhead.moco.Moco.query
+import static com.github.dreamhead.moco.Moco.seq
+import static com.github.dreamhead.moco.Moco.uri
 import static com.github.dreamhead.moco.MocoJsonRunner.jsonHttpServer
 import static com.github.dreamhead.moco.Runner.runner
 
@@ -15,6 +27,7 @@ import static com.github.dreamhead.moco.Runner.runner
  * @since 0.5.0
  */
 class JenkinsSourceTaskTest extends Specification {
+    //The tasks fetch the jobs once as the next poll cycle is due only after jenkins.pollIntervalInMillis (an hour)
     @Shared
     SourceTaskContext taskContext = Mock()
 
@@ -50,11 +63,11 @@ class JenkinsSourceTaskTest extends Specification {
 
     def "Should support single job url as taskProps"() {
         given:
-        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '0']
+        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '3600000']
         sourceTask.start(taskProps)
 
         when:
-        def sourceRecords = sourceTask.poll()
+        def sourceRecords = pollRecords(1)
 
         then:
         sourceRecords != null
@@ -63,22 +76,566 @@ class JenkinsSourceTaskTest extends Specification {
 
     def "Should support multiple comma separated job urls as taskProps"() {
         given:
-        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Accumulo-1.8/', 'jenkins.pollIntervalInMillis': '0']
+        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Accumulo-1.8/', 'jenkins.pollIntervalInMillis': '3600000']
         sourceTask.start(taskProps)
 
         when:
-        def sourceRecords = sourceTask.poll()
+        def sourceRecords = pollRecords(2)
 
         then:
         sourceRecords != null
         sourceRecords.size() == 2
     }
 
+    def "Should return the records of each job as soon as the job is fetched"() {
+        given:
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Accumulo-1.8/,http://localhost:8181/job/New-Job/,http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.fetch.parallelism'   : '3']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords*.key() as Set == ['Accumulo-1.8', 'Abdera-trunk'] as Set
+    }
+
+    def "Bulk change detection should fetch the details of the changed jobs only"() {
+        given: "The lastBuild of Abdera-trunk is already saved"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2546L]]))
+
+        def taskProps = ['job.urls'                     : 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Accumulo-1.8/,http://localhost:8181/job/New-Job/',
+                         'jenkins.pollIntervalInMillis' : '3600000',
+                         'jenkins.change.detection.mode': 'bulk']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.key() == ['Accumulo-1.8']
+    }
+
+    def "Bulk change detection should fetch the jobs missing from the listing individually"() {
+        given:
+        def taskProps = ['job.urls'                     : 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Unlisted/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis' : '3600000',
+                         'jenkins.change.detection.mode': 'bulk']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.key() == ['Abdera-trunk']
+    }
+
+    def "Catch-up should write every missed build in build order"() {
+        given: "Builds 2545 and 2546 of Abdera-trunk were run after the saved build 2544"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2544L]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.catchup.enabled'     : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords*.sourceOffset() == [[buildNumber: 2545L], [buildNumber: 2546L]]
+    }
+
+    def "Catch-up should write at most 'jenkins.catchup.max.builds.per.job' builds of a job, oldest first"() {
+        given:
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2544L]]))
+
+        def taskProps = ['job.urls'                          : 'http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.pollIntervalInMillis'      : '3600000',
+                         'jenkins.catchup.enabled'           : 'true',
+                         'jenkins.catchup.max.builds.per.job': '1']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.sourceOffset() == [[buildNumber: 2545L]]
+    }
+
+    def "Catch-up should select the missed builds by their number when older builds were discarded"() {
+        given: "Only builds 2545 and 2546 are kept by Jenkins, although 46 builds were run after the saved build 2500"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2500L]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.catchup.enabled'     : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords*.sourceOffset() == [[buildNumber: 2545L], [buildNumber: 2546L]]
+    }
+
+    def "Catch-up should write the lastBuild if none of the missed builds are listed"() {
+        given:
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2543L]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.catchup.enabled'     : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.sourceOffset() == [[buildNumber: 2546L]]
+    }
+
+    def "Catch-up should list only the oldest missed builds, and all of them if none of those are after the saved build"() {
+        given: "3 builds are missed by both jobs. Builds 11 and 12 of Skipped were never run, so its oldest missed builds are older than the saved one."
+        def server = httpServer(9303)
+        ['Windowed', 'Skipped'].each { name ->
+            server.request(and(by(uri("/job/$name/api/json".toString())), eq(query('tree'), BuildCollection.TREE))).response(job(name, 13, 9303))
+        }
+        server.request(and(by(uri('/job/Windowed/api/json')), eq(query('tree'), 'allBuilds[number,url]{1,3}'))).response(allBuilds('Windowed', 12, 11))
+        server.request(and(by(uri('/job/Skipped/api/json')), eq(query('tree'), 'allBuilds[number,url]{1,3}'))).response(allBuilds('Skipped', 10, 9))
+        server.request(and(by(uri('/job/Skipped/api/json')), eq(query('tree'), 'allBuilds[number,url]{0,3}'))).response(allBuilds('Skipped', 13, 10, 9))
+        [[name: 'Windowed', number: 11], [name: 'Windowed', number: 12], [name: 'Skipped', number: 13]].each { b ->
+            server.request(by(uri("/job/$b.name/$b.number/api/json".toString()))).response("{\"number\": $b.number}")
+        }
+        def jobs = runner(server)
+        jobs.start()
+
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Windowed']: [buildNumber: 10L],
+                                                  [jobName: 'Skipped'] : [buildNumber: 10L]]))
+        def taskProps = ['job.urls'                          : 'http://localhost:9303/job/Windowed/,http://localhost:9303/job/Skipped/',
+                         'jenkins.pollIntervalInMillis'      : '3600000',
+                         'jenkins.catchup.enabled'           : 'true',
+                         'jenkins.catchup.max.builds.per.job': '2']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(3)
+
+        then:
+        sourceRecords.findAll { it.key() == 'Windowed' }*.sourceOffset() == [[buildNumber: 11L], [buildNumber: 12L]]
+        sourceRecords.findAll { it.key() == 'Skipped' }*.sourceOffset() == [[buildNumber: 13L]]
+
+        cleanup:
+        jobs.stop()
+    }
+
+    def "A build whose record can't be created should be skipped after a few polls"() {
+        given: "The details of build 2 can't be read"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Broken']: [buildNumber: 1L]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Broken/',
+                         'jenkins.pollIntervalInMillis': '100',
+                         'jenkins.catchup.enabled'     : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then: "The builds after it are written"
+        sourceRecords*.sourceOffset() == [[buildNumber: 3L]]
+    }
+
+    def "Without catch-up only the lastBuild is written"() {
+        given:
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2544L]]))
+
+        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '3600000']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.sourceOffset() == [[buildNumber: 2546L]]
+    }
+
+    def "Struct value format should write the build details as a Struct"() {
+        given:
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.record.value.format' : 'struct']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords.size() == 2
+        def abdera = sourceRecords.find { it.key() == 'Abdera-trunk' }
+        abdera.value() instanceof Struct
+        abdera.value().getInt64("number") == 2546
+        abdera.value().getString("result") == "SUCCESS"
+        abdera.valueSchema().is(abdera.value().schema())
+    }
+
+    def "Build details should only keep the included fields and drop the excluded ones"() {
+        given:
+        def taskProps = ['job.urls'                                : 'http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis'            : '3600000',
+                         'jenkins.build.details.include'           : 'number,result,actions.causes,changeSet',
+                         'jenkins.build.details.exclude'           : 'changeSet.items.paths',
+                         'jenkins.build.details.max.array.elements': '1']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+        def details = new JsonSlurper().parseText(sourceRecords[0].value())
+
+        then:
+        details.keySet() == ['actions', 'number', 'result', 'changeSet'] as Set
+        details.number == 18
+        details.actions.size() == 1
+        details.changeSet.items.size() == 1
+        !details.changeSet.items[0].containsKey('paths')
+    }
+
+    def "Console log of the last build should be written after its details"() {
+        given:
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'topic'                       : 'builds',
+                         'jenkins.console.log.enabled' : 'true',
+                         'jenkins.console.log.topic'   : 'logs']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords*.topic() == ['builds', 'logs']
+        def log = sourceRecords[1]
+        log.sourcePartition() == [consoleLog: 'Accumulo-1.8']
+        log.sourceOffset() == [buildNumber: 18L, logOffset: 56L, logComplete: true]
+        log.key() == 'Accumulo-1.8'
+        log.value().getInt64("build") == 18
+        log.value().getInt64("start") == 0
+        log.value().getString("text") == "Started by timer\nBuilding in workspace\nFinished: SUCCESS"
+        log.value().getBoolean("complete")
+    }
+
+    def "Console log should resume from the saved byte offset"() {
+        given:
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Accumulo-1.8']   : [buildNumber: 18L],
+                                                  [consoleLog: 'Accumulo-1.8']: [buildNumber: 18L, logOffset: 39L, logComplete: false]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.console.log.enabled' : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords.size() == 1
+        sourceRecords[0].sourceOffset() == [buildNumber: 18L, logOffset: 56L, logComplete: true]
+        sourceRecords[0].value().getInt64("start") == 39
+        sourceRecords[0].value().getString("text") == "Finished: SUCCESS"
+    }
+
+    def "Complete console log of the last saved build shouldn't be read again"() {
+        given:
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Accumulo-1.8']   : [buildNumber: 18L],
+                                                  [consoleLog: 'Accumulo-1.8']: [buildNumber: 18L, logOffset: 56L, logComplete: true]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.console.log.enabled' : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(0)
+
+        then:
+        sourceRecords.isEmpty()
+    }
+
+    def "Test results should be written as a record per suite and per failed case after the build details"() {
+        given:
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'topic'                       : 'builds',
+                         'jenkins.test.report.enabled' : 'true',
+                         'jenkins.test.report.topic'   : 'tests']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(5)
+
+        then:
+        sourceRecords*.topic() == ['builds', 'tests', 'tests', 'tests', 'tests']
+        def results = sourceRecords.tail()
+        results*.key() as Set == ['Accumulo-1.8'] as Set
+        results*.sourceOffset() as Set == [[buildNumber: 18L, pendingBuilds: []]] as Set
+        results*.sourcePartition() as Set == [[buildReports: 'Accumulo-1.8']] as Set
+        results*.value()*.getString("type") == ['suite', 'suite', 'case', 'case']
+        results[0].value().getInt32("passCount") == 2
+        results[0].value().getInt32("failCount") == 1
+        results[2].value().getString("name") == "testInvalidReadaheadValues"
+        results[2].value().getString("status") == "REGRESSION"
+        results[3].value().getString("suite") == "org.apache.accumulo.server.util.FileUtilTest"
+    }
+
+    def "Test results of a build that is still running shouldn't be read"() {
+        given:
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Running/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.test.report.enabled' : 'true',
+                         'jenkins.pipeline.stages.enabled' : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then: "only the build details are written"
+        sourceRecords*.sourceOffset() == [[buildNumber: 7L]]
+        sourceRecords*.sourcePartition() == [[jobName: 'Running']]
+    }
+
+    def "Test results of the last saved build should be read once it is finished, also after a restart"() {
+        given: "build 5 was written before the restart but not its test results"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Finished']: [buildNumber: 5L]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Finished/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.test.report.enabled' : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords.size() == 1
+        sourceRecords[0].sourcePartition() == [buildReports: 'Finished']
+        sourceRecords[0].sourceOffset() == [buildNumber: 5L, pendingBuilds: []]
+        sourceRecords[0].value().getString("suite") == "org.example.SmokeTest"
+        sourceRecords[0].value().getInt32("passCount") == 1
+    }
+
+    def "Pipeline stages of a build that is still running shouldn't be read"() {
+        given:
+        def taskProps = ['job.urls'                       : 'http://localhost:8181/job/Running/',
+                         'jenkins.pollIntervalInMillis'   : '3600000',
+                         'jenkins.pipeline.stages.enabled': 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.sourcePartition() == [[jobName: 'Running']]
+    }
+
+    def "Test results of a saved build shouldn't be read again"() {
+        given:
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Finished']    : [buildNumber: 5L],
+                                                  [buildReports: 'Finished']: [buildNumber: 5L]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Finished/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.test.report.enabled' : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(0)
+
+        then:
+        sourceRecords.isEmpty()
+    }
+
+    def "Test results and Pipeline stages of a build that is still running should be written once it is finished, also after those of a later build"() {
+        given: "build 8 is running when it is written and finishes after build 9"
+        def server = httpServer(9302)
+        server.request(by(uri('/job/Nightly/api/json'))).response(seq(job('Nightly', 8), job('Nightly', 9)))
+        server.request(and(by(uri('/job/Nightly/8/api/json')), eq(query('tree'), 'number,building')))
+                .response(seq(buildState(8, true), buildState(8, true), buildState(8, false)))
+        server.request(and(by(uri('/job/Nightly/9/api/json')), eq(query('tree'), 'number,building'))).response(buildState(9, false))
+        [8, 9].each { n ->
+            server.request(by(uri("/job/Nightly/$n/api/json".toString()))).response(buildState(n, false))
+            server.request(by(uri("/job/Nightly/$n/testReport/api/json".toString()))).response(file('src/test/resources/accumulo-trunk-18-test-report.json'))
+            server.request(by(uri("/job/Nightly/$n/wfapi/describe".toString()))).response(file('src/test/resources/abdera-trunk-2546-wfapi-describe.json'))
+        }
+        def nightly = runner(server)
+        nightly.start()
+
+        def taskProps = ['job.urls'                       : 'http://localhost:9302/job/Nightly/',
+                         'jenkins.pollIntervalInMillis'   : '100',
+                         'jenkins.test.report.enabled'    : 'true',
+                         'jenkins.test.report.topic'      : 'tests',
+                         'jenkins.pipeline.stages.enabled': 'true',
+                         'jenkins.pipeline.stages.topic'  : 'stages']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(16)
+
+        then:
+        sourceRecords.findAll { it.sourcePartition() == [jobName: 'Nightly'] }*.sourceOffset() == [[buildNumber: 8L], [buildNumber: 9L]]
+        def reports = sourceRecords.findAll { it.sourcePartition() == [buildReports: 'Nightly'] }
+        reports.findAll { it.topic() == 'tests' }*.value()*.getInt64("build") == [9L] * 4 + [8L] * 4
+        reports.findAll { it.topic() == 'stages' }*.key()*.getInt64("build") == [9L] * 3 + [8L] * 3
+        reports.findAll { it.value().getInt64("build") == 9L }*.sourceOffset() as Set == [[buildNumber: 9L, pendingBuilds: [8L]]] as Set
+        reports.findAll { it.value().getInt64("build") == 8L }*.sourceOffset() as Set == [[buildNumber: 9L, pendingBuilds: []]] as Set
+
+        cleanup:
+        nightly.stop()
+    }
+
+    def "Test results of the builds awaited by the last written report should be read after a restart"() {
+        given: "build 5 was still running when its details were written"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Finished']    : [buildNumber: 5L],
+                                                  [buildReports: 'Finished']: [buildNumber: 5L, pendingBuilds: [5L]]]))
+
+        def taskProps = ['job.urls'                    : 'http://localhost:8181/job/Finished/',
+                         'jenkins.pollIntervalInMillis': '3600000',
+                         'jenkins.test.report.enabled' : 'true']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords.size() == 1
+        sourceRecords[0].sourcePartition() == [buildReports: 'Finished']
+        sourceRecords[0].sourceOffset() == [buildNumber: 5L, pendingBuilds: []]
+        sourceRecords[0].value().getInt64("build") == 5L
+    }
+
+    def "Pipeline stages should be written as a record per stage keyed by the job and the build"() {
+        given:
+        def taskProps = ['job.urls'                        : 'http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.pollIntervalInMillis'    : '3600000',
+                         'topic'                           : 'builds',
+                         'jenkins.pipeline.stages.enabled' : 'true',
+                         'jenkins.pipeline.stages.topic'   : 'stages']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(4)
+
+        then:
+        sourceRecords*.topic() == ['builds', 'stages', 'stages', 'stages']
+        def stages = sourceRecords.tail()
+        stages*.sourceOffset() as Set == [[buildNumber: 2546L, pendingBuilds: []]] as Set
+        stages*.sourcePartition() as Set == [[buildReports: 'Abdera-trunk']] as Set
+        stages*.key()*.getString("job") as Set == ['Abdera-trunk'] as Set
+        stages*.key()*.getInt64("build") as Set == [2546L] as Set
+        stages*.value()*.getString("name") == ['Checkout', 'Build', 'Deploy']
+        stages*.value()*.getInt32("index") == [0, 1, 2]
+        stages[1].value().getInt64("durationMillis") == 355240
+        stages[2].value().getInt64("pauseDurationMillis") == 45000
+        stages[0].value().getString("status") == 'SUCCESS'
+    }
+
+    def "Adaptive scheduling should poll every job in the first poll"() {
+        given:
+        def taskProps = ['job.urls'                            : 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis'        : '3600000',
+                         'jenkins.adaptive.scheduling.enabled' : 'true',
+                         'jenkins.poll.interval.min.ms'        : '60000']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords.size() == 2
+    }
+
+    def "Adaptive scheduling should take a job whose catch-up is left for the next poll as changed"() {
+        given: "Both jobs have missed builds but only one of them can be caught up in a poll"
+        sourceTask.initialize(contextWithOffsets([[jobName: 'Abdera-trunk']: [buildNumber: 2544L],
+                                                  [jobName: 'Broken']      : [buildNumber: 1L]]))
+
+        def taskProps = ['job.urls'                            : 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Broken/',
+                         'jenkins.pollIntervalInMillis'        : '3600000',
+                         'jenkins.catchup.enabled'             : 'true',
+                         'jenkins.catchup.max.builds.per.poll' : '1',
+                         'jenkins.adaptive.scheduling.enabled' : 'true',
+                         'jenkins.poll.interval.min.ms'        : '60000']
+
+        when:
+        sourceTask.start(taskProps)
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert sourceTask.schedule.getInterval('http://localhost:8181/job/Abdera-trunk/') == 60000
+            assert sourceTask.schedule.getInterval('http://localhost:8181/job/Broken/') == 60000
+        }
+    }
+
+    def "Fetchers should wait for poll() once the record queue is full"() {
+        given:
+        def taskProps = ['job.urls'                     : 'http://localhost:8181/job/Abdera-trunk/,http://localhost:8181/job/Accumulo-1.8/',
+                         'jenkins.pollIntervalInMillis' : '3600000',
+                         'jenkins.fetch.parallelism'    : '2',
+                         'jenkins.record.queue.capacity': '1']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(2)
+
+        then:
+        sourceRecords*.key() as Set == ['Accumulo-1.8', 'Abdera-trunk'] as Set
+    }
+
+    def "poll() should return no records while the jobs are being fetched"() {
+        given: "A job that is never due again"
+        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '3600000']
+        sourceTask.start(taskProps)
+        pollRecords(1)
+
+        when:
+        def sourceRecords = sourceTask.poll()
+
+        then:
+        sourceRecords == []
+    }
+
+    def "poll() should return null once the task is stopped"() {
+        given:
+        def taskProps = ['job.urls': 'http://localhost:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '3600000']
+        sourceTask.start(taskProps)
+
+        when:
+        sourceTask.stop()
+
+        then:
+        sourceTask.poll() == null
+    }
+
+    def "Partitions of a named controller are prefixed by its alias"() {
+        given:
+        def taskProps = ['job.urls'                       : 'ci1|http://localhost:8181/job/Abdera-trunk/',
+                         'jenkins.controllers'            : 'ci1',
+                         'jenkins.controller.ci1.base.url': 'http://localhost:8181',
+                         'jenkins.pollIntervalInMillis'   : '3600000']
+        sourceTask.start(taskProps)
+
+        when:
+        def sourceRecords = pollRecords(1)
+
+        then:
+        sourceRecords*.key() == ['ci1:Abdera-trunk']
+        sourceRecords*.sourcePartition() == [[jobName: 'ci1:Abdera-trunk']]
+    }
+
     //Negative tests
 
     def "Wrong URL should continue without any errors"() {
         given: "A wrong job url"
-        def taskProps = ['job.urls': 'http://wrong.host.name:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '0']
+        def taskProps = ['job.urls': 'http://wrong.host.name:8181/job/Abdera-trunk/', 'jenkins.pollIntervalInMillis': '3600000']
         sourceTask.start(taskProps)
 
         when:
@@ -91,7 +648,7 @@ class JenkinsSourceTaskTest extends Specification {
 
     def "A Job without any builds (May be just created) should continue without any errors"() {
         given: "A job with no lastBuild"
-        def taskProps = ['job.urls': 'http://localhost:8181/job/New-Job/', 'jenkins.pollIntervalInMillis': '0']
+        def taskProps = ['job.urls': 'http://localhost:8181/job/New-Job/', 'jenkins.pollIntervalInMillis': '3600000']
         sourceTask.start(taskProps)
 
         when:
@@ -101,4 +658,38 @@ class JenkinsSourceTaskTest extends Specification {
         then: "Exception is logged and ignored and Source records will be null"
         sourceRecords != null
     }
+
+    /**
+     * The records are fetched in the background. So poll until the expected records arrive and then once more to
+     * catch any unexpected records.
+     */
+    def pollRecords(int expected) {
+        def sourceRecords = []
+        long deadline = System.currentTimeMillis() + 10000
+        while (sourceRecords.size() < expected && System.currentTimeMillis() < deadline) {
+            sourceRecords.addAll(sourceTask.poll())
+        }
+        sourceRecords.addAll(sourceTask.poll())
+        sourceRecords
+    }
+
+    static String job(String name, long lastBuild, int port = 9302) {
+        "{\"name\": \"$name\", \"lastBuild\": {\"number\": $lastBuild, \"url\": \"http://localhost:$port/job/$name/$lastBuild/\"}}"
+    }
+
+    static String allBuilds(String name, long... numbers) {
+        "{\"allBuilds\": [" + numbers.collect { "{\"number\": $it, \"url\": \"http://localhost:9303/job/$name/$it/\"}" }.join(', ') + "]}"
+    }
+
+    static String buildState(long number, boolean building) {
+        "{\"number\": $number, \"building\": $building, \"url\": \"http://localhost:9302/job/Nightly/$number/\"}"
+    }
+
+    def contextWithOffsets(Map offsets) {
+        OffsetStorageReader reader = Mock()
+        reader.offsets(_) >> offsets
+        SourceTaskContext context = Mock()
+        context.offsetStorageReader() >> reader
+        context
+    }
 }
@@ -0,0 +1,136 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import org.aravind.oss.jenkins.JenkinsClient
+import org.aravind.oss.jenkins.domain.Jenkins
+import org.aravind.oss.jenkins.domain.Job
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.github.dreamhead.moco.Moco.pathResource
+import static com.github.dreamhead.moco.MocoJsonRunner.jsonHttpServer
+import static com.github.dreamhead.moco.Runner.runner
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class JobCrawlerTest extends Specification {
+    @Shared
+    def mock
+
+    JenkinsClient client = new JenkinsClient(100, 2000)
+    List<JobCrawler> crawlers = []
+
+    def topLevel = [item("hudson.model.FreeStyleProject", "http://localhost:9299/job/build/"),
+                    item("com.cloudbees.hudson.plugins.folder.Folder", "http://localhost:9299/job/team/"),
+                    item("org.jenkinsci.plugins.workflow.multibranch.WorkflowMultiBranchProject", "http://localhost:9299/job/app/")]
+
+    def setupSpec() {
+        def server = jsonHttpServer(9299, pathResource("JobCrawlerTest-mock-server-cfg.json"))
+        mock = runner(server)
+        mock.start()
+    }
+
+    def cleanup() {
+        crawlers*.stop()
+    }
+
+    def cleanupSpec() {
+        mock.stop()
+    }
+
+    def "Jobs inside folders and multibranch projects are discovered in listing order"() {
+        when:
+        def jobs = crawler(5, 4).crawl(topLevel)
+
+        then:
+        jobs*.getUrl() == ["http://localhost:9299/job/build/",
+                           "http://localhost:9299/job/team/job/build/",
+                           "http://localhost:9299/job/team/job/nested/job/build/",
+                           "http://localhost:9299/job/app/job/master/",
+                           "http://localhost:9299/job/app/job/feature%252Fx/"]
+    }
+
+    def "Jobs with the same name in different folders have different partitions"() {
+        when:
+        def jobs = crawler(5, 4).crawl(topLevel)
+
+        then:
+        jobs.collect { Util.urlDecode(Util.extractJobName(it.getUrl())) } == ["build", "team/build", "team/nested/build", "app/master", "app/feature%2Fx"]
+    }
+
+    def "Folders nested deeper than the maximum depth are skipped"() {
+        when:
+        def jobs = crawler(1, 1).crawl(topLevel)
+
+        then:
+        jobs*.getUrl() == ["http://localhost:9299/job/build/",
+                           "http://localhost:9299/job/team/job/build/",
+                           "http://localhost:9299/job/app/job/master/",
+                           "http://localhost:9299/job/app/job/feature%252Fx/"]
+    }
+
+    def "Folders are returned as is if crawling is disabled"() {
+        expect:
+        crawler(0, 1).crawl(topLevel) == topLevel
+    }
+
+    def "Folders that can't be listed fail the crawl with the jobs of the other folders"() {
+        when:
+        crawler(5, 4).crawl([item("com.cloudbees.hudson.plugins.folder.Folder", "http://localhost:9299/job/missing/"),
+                             item("hudson.model.FreeStyleProject", "http://localhost:9299/job/build/")])
+
+        then:
+        def e = thrown(JobCrawler.IncompleteCrawlException)
+        e.getCrawledJobs()*.getUrl() == ["http://localhost:9299/job/build/"]
+        e.getMessage().contains("http://localhost:9299/job/missing/")
+    }
+
+    def "Folders listed concurrently are limited by the parallelism"() {
+        given: "Every folder holds two folders, 3 levels deep"
+        def listing = new AtomicInteger()
+        def maxListing = new AtomicInteger()
+        def slowClient = new JenkinsClient(100, 2000) {
+            @Override
+            <T> Optional<T> get(URL url, Class<T> type) {
+                maxListing.accumulateAndGet(listing.incrementAndGet(), Math.&max)
+                Thread.sleep(20)
+                listing.decrementAndGet()
+                def jenkins = new Jenkins()
+                def folderUrl = url.toString() - 'api/json?tree=' - URLEncoder.encode(Jenkins.TREE, 'UTF-8')
+                jenkins.setJobs(folderUrl.count('/job/') < 3
+                        ? [folder(folderUrl + 'job/a/'), folder(folderUrl + 'job/b/')]
+                        : [item("hudson.model.FreeStyleProject", folderUrl + 'job/build/')])
+                Optional.of(type.cast(jenkins))
+            }
+        }
+        def crawler = new JobCrawler(slowClient, 5, 2, Jenkins.TREE)
+        crawlers << crawler
+
+        when:
+        def jobs = crawler.crawl([folder("http://localhost/job/a/"), folder("http://localhost/job/b/")])
+
+        then:
+        jobs.size() == 8
+        maxListing.get() <= 2
+    }
+
+    JobCrawler crawler(int maxDepth, int parallelism) {
+        def crawler = new JobCrawler(client, maxDepth, parallelism, Jenkins.TREE)
+        crawlers << crawler
+        crawler
+    }
+
+    static Job folder(String url) {
+        item("com.cloudbees.hudson.plugins.folder.Folder", url)
+    }
+
+    static Job item(String type, String url) {
+        def job = new Job()
+        job.setType(type)
+        job.setUrl(url)
+        job
+    }
+}
@@ -0,0 +1,135 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import org.apache.kafka.connect.connector.ConnectorContext
+import org.aravind.oss.jenkins.JenkinsClient
+import org.aravind.oss.jenkins.domain.Jenkins
+import org.aravind.oss.jenkins.domain.Job
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.github.dreamhead.moco.Moco.pathResource
+import static com.github.dreamhead.moco.MocoJsonRunner.jsonHttpServer
+import static com.github.dreamhead.moco.Runner.runner
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class JobMonitorTest extends Specification {
+    @Shared
+    def mock
+
+    ConnectorContext context = Mock()
+    JenkinsClient client = new JenkinsClient(100, 500)
+
+    def setupSpec() {
+        def server = jsonHttpServer(9298, pathResource("jenkins-mock-server-three-job-cfg.json"))
+        mock = runner(server)
+        mock.start()
+    }
+
+    def cleanupSpec() {
+        mock.stop()
+    }
+
+    def "Created or deleted jobs should request the reconfiguration of the tasks once"() {
+        given:
+        def monitor = new JobMonitor(client, new URL("http://localhost:9298/api/json"), new JobCrawler(client, 0, 1, Jenkins.TREE), context)
+        monitor.setKnownJobs([job("https://builds.apache.org/job/Abdera-trunk/")])
+
+        when:
+        monitor.run()
+        monitor.run()
+
+        then:
+        1 * context.requestTaskReconfiguration()
+    }
+
+    def "Same jobs in a different order should not request the reconfiguration"() {
+        given:
+        def monitor = new JobMonitor(client, new URL("http://localhost:9298/api/json"), new JobCrawler(client, 0, 1, Jenkins.TREE), context)
+        monitor.setKnownJobs([job("https://builds.apache.org/job/Allura/"),
+                              job("https://builds.apache.org/job/Abdera-trunk/"),
+                              job("https://builds.apache.org/job/Accumulo-1.8/")])
+
+        when:
+        monitor.run()
+
+        then:
+        0 * context.requestTaskReconfiguration()
+    }
+
+    def "Unreadable jobs should not request the reconfiguration"() {
+        given:
+        def monitor = new JobMonitor(client, new URL("http://localhost:9298/missing/api/json"), new JobCrawler(client, 0, 1, Jenkins.TREE), context)
+        monitor.setKnownJobs([job("https://builds.apache.org/job/Abdera-trunk/")])
+
+        when:
+        monitor.run()
+
+        then:
+        0 * context.requestTaskReconfiguration()
+    }
+
+    def "A folder that can't be listed for a moment should not request the reconfiguration"() {
+        given: "The folder fails to list in the first run only"
+        def listings = new AtomicInteger()
+        def folderClient = new JenkinsClient(100, 500) {
+            @Override
+            <T> Optional<T> getIfModified(URL url, Class<T> type) {
+                def jenkins = new Jenkins()
+                jenkins.setJobs([job("http://localhost/job/build/"), folder("http://localhost/job/team/")])
+                Optional.of(type.cast(jenkins))
+            }
+
+            @Override
+            <T> Optional<T> get(URL url, Class<T> type) {
+                if (listings.incrementAndGet() == 1) {
+                    return Optional.empty()
+                }
+                def team = new Jenkins()
+                team.setJobs([job("http://localhost/job/team/job/build/")])
+                Optional.of(type.cast(team))
+            }
+        }
+        def crawler = new JobCrawler(folderClient, 5, 1, Jenkins.TREE)
+        def monitor = new JobMonitor(folderClient, new URL("http://localhost/api/json"), crawler, context)
+        monitor.setKnownJobs([job("http://localhost/job/build/"), job("http://localhost/job/team/job/build/")])
+
+        when:
+        monitor.run()
+        monitor.run()
+
+        then:
+        listings.get() == 2
+        0 * context.requestTaskReconfiguration()
+
+        cleanup:
+        crawler.stop()
+    }
+
+    def "Nothing is compared until the task configurations are built"() {
+        given:
+        def monitor = new JobMonitor(client, new URL("http://localhost:9298/api/json"), new JobCrawler(client, 0, 1, Jenkins.TREE), context)
+
+        when:
+        monitor.run()
+
+        then:
+        0 * context.requestTaskReconfiguration()
+    }
+
+    static Job folder(String url) {
+        def folder = job(url)
+        folder.setType("com.cloudbees.hudson.plugins.folder.Folder")
+        folder
+    }
+
+    static Job job(String url) {
+        def job = new Job()
+        job.setUrl(url)
+        job
+    }
+}
@@ -0,0 +1,49 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import org.aravind.oss.jenkins.domain.Build
+import org.aravind.oss.jenkins.domain.Job
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class JobWeightExtractorTest extends Specification {
+
+    static final long NOW = TimeUnit.DAYS.toMillis(30)
+
+    @Unroll
+    def "A job last built #age millis ago weighs #weight"() {
+        given:
+        def job = new Job()
+        job.setColor("blue")
+        if (age != null) {
+            def build = new Build()
+            build.setTimestamp(NOW - age)
+            job.setLastBuild(build)
+        }
+
+        expect:
+        new JobWeightExtractor(NOW).extract(job) == weight
+
+        where:
+        age                          | weight
+        null                         | JobWeightExtractor.IDLE_WEIGHT
+        TimeUnit.MINUTES.toMillis(5) | JobWeightExtractor.HOURLY_WEIGHT
+        TimeUnit.HOURS.toMillis(5)   | JobWeightExtractor.DAILY_WEIGHT
+        TimeUnit.DAYS.toMillis(5)    | JobWeightExtractor.WEEKLY_WEIGHT
+        TimeUnit.DAYS.toMillis(20)   | JobWeightExtractor.IDLE_WEIGHT
+    }
+
+    def "A job that is building now is the heaviest"() {
+        given:
+        def job = new Job()
+        job.setColor("red_anime")
+
+        expect:
+        new JobWeightExtractor(NOW).extract(job) == JobWeightExtractor.HOURLY_WEIGHT
+    }
+}
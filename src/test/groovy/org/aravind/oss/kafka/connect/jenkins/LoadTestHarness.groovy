@@ -0,0 +1,147 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.apache.kafka.connect.connector.ConnectorContext
+import org.apache.kafka.connect.data.Struct
+import org.apache.kafka.connect.source.SourceRecord
+import org.apache.kafka.connect.source.SourceTaskContext
+import org.apache.kafka.connect.storage.OffsetStorageReader
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Runs a {@link JenkinsSourceConnector} and its tasks the way a Connect worker does, without Kafka: the task configs
+ * are taken from the connector, every task is polled by a thread of its own and the offsets of the polled records
+ * are committed to an in-memory offset store. It reports the throughput, the end-to-end latency of the builds that
+ * completed during the run (from the <i>timestamp</i> of the build to the poll of its record) and the heap use.
+ *
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class LoadTestHarness {
+    private static final ObjectMapper mapper = new ObjectMapper()
+
+    Map<String, String> connectorProps
+    int maxTasks = 4
+    long durationMillis = 60000
+    long heapSampleIntervalMillis = 1000
+
+    private final Map<Map<String, ?>, Map<String, Object>> committedOffsets = new ConcurrentHashMap<>()
+    private final Set<String> delivered = ConcurrentHashMap.newKeySet()
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>()
+    private final AtomicLong records = new AtomicLong()
+    private final AtomicLong duplicates = new AtomicLong()
+    private final AtomicInteger reconfigurations = new AtomicInteger()
+    private final List<Long> heapSamples = Collections.synchronizedList([])
+
+    LoadReport run() {
+        def memory = ManagementFactory.memoryMXBean
+        memory.gc()
+        long heapAtStart = memory.heapMemoryUsage.used
+
+        def connector = new JenkinsSourceConnector()
+        connector.initialize([requestTaskReconfiguration: { reconfigurations.incrementAndGet() }, raiseError: { Exception e -> throw e }] as ConnectorContext)
+        def sampler = Executors.newSingleThreadScheduledExecutor()
+        List<JenkinsSourceTask> tasks = []
+        List<Thread> pollers = []
+        long startedAt = System.currentTimeMillis()
+        try {
+            connector.start(connectorProps)
+            sampler.scheduleAtFixedRate({ heapSamples << memory.heapMemoryUsage.used }, 0, heapSampleIntervalMillis, TimeUnit.MILLISECONDS)
+
+            long deadline = startedAt + durationMillis
+            connector.taskConfigs(maxTasks).eachWithIndex { Map<String, String> taskProps, int i ->
+                def task = new JenkinsSourceTask()
+                task.initialize([offsetStorageReader: { -> offsetStore() }] as SourceTaskContext)
+                task.start(taskProps)
+                tasks << task
+                pollers << Thread.start("load-test-poller-$i") { poll(task, startedAt, deadline) }
+            }
+            pollers*.join()
+        } finally {
+            sampler.shutdownNow()
+            tasks*.stop()
+            connector.stop()
+        }
+        long elapsed = System.currentTimeMillis() - startedAt
+
+        memory.gc()
+        new LoadReport(
+                tasks: tasks.size(),
+                durationMillis: elapsed,
+                records: records.get(),
+                duplicates: duplicates.get(),
+                reconfigurations: reconfigurations.get(),
+                latencies: latencies.toList().sort(),
+                heapAtStart: heapAtStart,
+                heapMax: heapSamples.max() ?: 0L,
+                heapAtEnd: memory.heapMemoryUsage.used)
+    }
+
+    private void poll(JenkinsSourceTask task, long startedAt, long deadline) {
+        while (System.currentTimeMillis() < deadline) {
+            List<SourceRecord> polled = task.poll()
+            if (polled == null) continue
+            long receivedAt = System.currentTimeMillis()
+            for (SourceRecord record : polled) {
+                records.incrementAndGet()
+                if (!delivered.add("${record.sourcePartition()}#${record.sourceOffset()}")) {
+                    duplicates.incrementAndGet()
+                }
+                //the builds that completed before the run are only caught up with
+                Long timestamp = buildTimestamp(record.value())
+                if (timestamp != null && timestamp >= startedAt) latencies << receivedAt - timestamp
+                committedOffsets.put(record.sourcePartition(), record.sourceOffset() as Map<String, Object>)
+            }
+        }
+    }
+
+    private static Long buildTimestamp(Object value) {
+        if (value instanceof Struct) {
+            return value.schema().field("timestamp") ? (Long) value.get("timestamp") : null
+        }
+        def timestamp = mapper.readTree(value as String).get("timestamp")
+        timestamp?.isNumber() ? timestamp.asLong() : null
+    }
+
+    private OffsetStorageReader offsetStore() {
+        [offset : { Map partition -> committedOffsets.get(partition) },
+         offsets: { Collection<Map> partitions -> partitions.collectEntries { [(it): committedOffsets.get(it)] } }] as OffsetStorageReader
+    }
+
+    static class LoadReport {
+        int tasks
+        long durationMillis
+        long records
+        long duplicates
+        int reconfigurations
+        List<Long> latencies
+        long heapAtStart
+        long heapMax
+        long heapAtEnd
+
+        double getRecordsPerSecond() {
+            durationMillis == 0 ? 0 : records * 1000d / durationMillis
+        }
+
+        long latencyPercentile(double percentile) {
+            latencies.isEmpty() ? 0 : latencies[Math.min(latencies.size() - 1, (int) Math.ceil(percentile / 100 * latencies.size()) - 1)]
+        }
+
+        @Override
+        String toString() {
+            String.format("%d tasks ran for %d ms: %d records (%.1f/s), %d duplicates, %d reconfigurations%n" +
+                    "end-to-end latency ms: p50 %d, p95 %d, p99 %d, max %d%n" +
+                    "heap MB: %.1f at start, %.1f max, %.1f at end",
+                    tasks, durationMillis, records, recordsPerSecond, duplicates, reconfigurations,
+                    latencyPercentile(50), latencyPercentile(95), latencyPercentile(99), latencyPercentile(100),
+                    heapAtStart / 1048576d, heapMax / 1048576d, heapAtEnd / 1048576d)
+        }
+    }
+}
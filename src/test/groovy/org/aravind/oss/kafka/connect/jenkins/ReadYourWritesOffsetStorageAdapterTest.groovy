@@ -73,4 +73,21 @@ class ReadYourWritesOffsetStorageAdapterTest extends Specification {
         then:
         result.isPresent() == false
     }
+
+    def "getOffset - cached offset takes precedence over the stored offset"() {
+        given:
+        OffsetStorageReader reader = Mock()
+        SourcePartition p = partitions.make('Hadoop-Trunk')
+
+        when:
+        def adapter = new ReadYourWritesOffsetStorageAdapter(reader, 'http://localhost/job/Hadoop-Trunk/', partitions)
+        def stored = adapter.getOffset(p).get().value
+        adapter.cache(p, SourceOffset.make(JenkinsSourceTask.BUILD_NUMBER, 15L))
+        adapter.cache(p, SourceOffset.make(JenkinsSourceTask.BUILD_NUMBER, 16L))
+
+        then: "the offsets are read from the storage only once"
+        1 * reader.offsets([['jobName': 'Hadoop-Trunk']]) >> [(['jobName': 'Hadoop-Trunk']): ['buildNumber': 14L]]
+        stored == 14L
+        adapter.getOffset(p).get().value == 16L
+    }
 }
@@ -0,0 +1,93 @@
+package org.aravind.oss.kafka.connect.jenkins
+
+import org.apache.kafka.common.utils.Time
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.management.ObjectName
+import java.lang.management.ManagementFactory
+import java.util.concurrent.TimeUnit
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class TaskMetricsTest extends Specification {
+
+    def time = [milliseconds: { 1000000L }, nanoseconds: { 1000000000000L }, sleep: { long ms -> }] as Time
+    def metrics = new TaskMetrics("test-connector", "7", 10000, time)
+    def mbeans = ManagementFactory.getPlatformMBeanServer()
+
+    def cleanup() {
+        metrics.close()
+    }
+
+    @Unroll
+    def "#url is a request to the '#endpoint' endpoint"() {
+        expect:
+        TaskMetrics.endpointOf(new URL(url)) == endpoint
+
+        where:
+        url                                                                      | endpoint
+        'http://localhost/api/json?tree=jobs%5Bname%2Curl%2Ccolor%5D'            | 'jobs'
+        'http://localhost/api/json'                                              | 'jobs'
+        'http://localhost/job/folder/api/json?tree=jobs%5Bname%5D'               | 'jobs'
+        'http://localhost/job/Abdera-trunk/api/json?tree=name%2ClastBuild'       | 'job'
+        'http://localhost/job/folder/job/Abdera-trunk/2546/api/json'             | 'build'
+        'http://localhost/job/2546/api/json?tree=name%2ClastBuild'               | 'job'
+        'http://localhost/job/folder/job/2546/api/json'                          | 'job'
+        'http://localhost/job/2546/18/api/json'                                  | 'build'
+        'http://localhost/job/Abdera-trunk/2546/logText/progressiveText?start=0' | 'console'
+        'http://localhost/job/Abdera-trunk/2546/testReport/api/json'             | 'testReport'
+        'http://localhost/job/Abdera-trunk/2546/wfapi/describe'                  | 'wfapi'
+    }
+
+    def "The metrics are reported over JMX tagged by connector and task"() {
+        given:
+        def task = new ObjectName("kafka.connect.jenkins:type=jenkins-source-task-metrics,connector=test-connector,task=7")
+        def job = new ObjectName("kafka.connect.jenkins:type=jenkins-source-task-metrics,connector=test-connector,task=7,endpoint=job")
+
+        when:
+        metrics.recordPollCycle(1500, 3, 2)
+        metrics.recordPollCycle(500, 1, 0)
+        metrics.recordFailedJob()
+        metrics.setNextPollAt(time.milliseconds() + 60000)
+        metrics.onExchange(new URL('http://localhost/job/Abdera-trunk/api/json'), 200, TimeUnit.MILLISECONDS.toNanos(20), TimeUnit.MILLISECONDS.toNanos(5), 1024)
+        metrics.onExchange(new URL('http://localhost/job/Accumulo-1.8/api/json'), 500, TimeUnit.MILLISECONDS.toNanos(40), 0, 0)
+
+        then:
+        mbeans.getAttribute(task, "poll-cycle-time-max") == 1500
+        mbeans.getAttribute(task, "records-per-cycle-avg") == 2
+        mbeans.getAttribute(task, "records-total") == 4
+        mbeans.getAttribute(task, "jobs-skipped-total") == 2
+        mbeans.getAttribute(task, "jobs-failed-total") == 1
+        mbeans.getAttribute(task, "time-to-next-poll") == 60000
+        mbeans.getAttribute(job, "request-time-avg") == 30
+        mbeans.getAttribute(job, "request-time-max") == 40
+        mbeans.getAttribute(job, "request-errors-total") == 1
+        mbeans.getAttribute(job, "bytes-received-total") == 1024
+        mbeans.getAttribute(job, "read-time-max") == 5
+    }
+
+    def "Request time percentiles are accurate for the short request times"() {
+        given:
+        def job = new ObjectName("kafka.connect.jenkins:type=jenkins-source-task-metrics,connector=test-connector,task=7,endpoint=job")
+
+        when:
+        (1..100).each {
+            metrics.onExchange(new URL('http://localhost/job/Abdera-trunk/api/json'), 200, TimeUnit.MILLISECONDS.toNanos(it), 0, 0)
+        }
+
+        then:
+        Math.abs(mbeans.getAttribute(job, "request-time-p50") - 50) <= 3
+        Math.abs(mbeans.getAttribute(job, "request-time-p95") - 95) <= 3
+    }
+
+    def "The metrics are unregistered once closed"() {
+        when:
+        metrics.close()
+
+        then:
+        mbeans.queryNames(new ObjectName("kafka.connect.jenkins:connector=test-connector,task=7,*"), null).isEmpty()
+    }
+}
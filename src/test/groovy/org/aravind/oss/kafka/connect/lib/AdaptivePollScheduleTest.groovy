@@ -0,0 +1,121 @@
+package org.aravind.oss.kafka.connect.lib
+
+import spock.lang.Specification
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class AdaptivePollScheduleTest extends Specification {
+
+    def "All the sources are due immediately"() {
+        when:
+        def schedule = new AdaptivePollSchedule(["a", "b"], 60000, 10000, 3600000, 1000)
+
+        then:
+        schedule.nextDue() == 1000
+        schedule.takeDue(1000) == ["a", "b"]
+        schedule.nextDue() == Long.MAX_VALUE
+    }
+
+    def "Sources are due in the order of their next poll"() {
+        given:
+        def schedule = new AdaptivePollSchedule(["dormant", "active"], 60000, 10000, 3600000, 0)
+        schedule.takeDue(0)
+
+        when:
+        schedule.reschedule("dormant", false, 0)
+        schedule.reschedule("active", true, 0)
+
+        then:
+        schedule.getInterval("active") == 10000
+        schedule.getInterval("dormant") == 90000
+        schedule.takeDue(10000) == ["active"]
+        schedule.takeDue(89999) == []
+        schedule.takeDue(90000) == ["dormant"]
+    }
+
+    def "Active sources are polled twice per expected change"() {
+        given:
+        def schedule = new AdaptivePollSchedule(["job"], 60000, 1000, 3600000, 0)
+
+        when: "The job builds every 40 seconds"
+        schedule.reschedule("job", true, 0)
+        schedule.reschedule("job", true, 40000)
+        schedule.reschedule("job", true, 80000)
+
+        then:
+        schedule.getInterval("job") == 20000
+    }
+
+    def "Dormant sources are backed off up to the maximum interval"() {
+        given:
+        def schedule = new AdaptivePollSchedule(["job"], 60000, 10000, 100000, 0)
+
+        when:
+        long now = 0
+        5.times {
+            now += schedule.getInterval("job")
+            schedule.reschedule("job", false, now)
+        }
+
+        then:
+        schedule.getInterval("job") == 100000
+        schedule.nextDue() == now + 100000
+    }
+
+    def "Intervals are kept within the bounds"() {
+        given:
+        def schedule = new AdaptivePollSchedule(["job"], 0, 5000, 100000, 0)
+
+        expect:
+        schedule.getInterval("job") == 5000
+
+        when: "The job builds every second"
+        schedule.reschedule("job", true, 0)
+        schedule.reschedule("job", true, 1000)
+
+        then:
+        schedule.getInterval("job") == 5000
+    }
+
+    def "Minimum interval should not be greater than the maximum"() {
+        when:
+        new AdaptivePollSchedule(["job"], 0, 2, 1, 0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "Sources are backed off from the initial interval when the minimum interval is 0"() {
+        given:
+        def schedule = new AdaptivePollSchedule(["job"], 60000, 0, 3600000, 0)
+        schedule.takeDue(0)
+        schedule.reschedule("job", true, 0)
+
+        expect:
+        schedule.getInterval("job") == 0
+
+        when:
+        schedule.takeDue(0)
+        schedule.reschedule("job", false, 0)
+        schedule.takeDue(60000)
+        schedule.reschedule("job", false, 60000)
+
+        then:
+        schedule.getInterval("job") == 90000
+    }
+
+    def "Sources taken due are put back once"() {
+        given:
+        def schedule = new AdaptivePollSchedule(["a", "b"], 60000, 10000, 3600000, 0)
+
+        when:
+        schedule.takeDue(0).each { schedule.reschedule(it, false, 0) }
+        schedule.reschedule("a", true, 0)
+
+        then: "a is rescheduled without being taken and so is queued only once"
+        schedule.takeDue(Long.MAX_VALUE - 1) == ["a", "b"]
+        schedule.nextDue() == Long.MAX_VALUE
+    }
+}
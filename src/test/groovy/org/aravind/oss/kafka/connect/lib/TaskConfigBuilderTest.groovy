@@ -0,0 +1,49 @@
+package org.aravind.oss.kafka.connect.lib
+
+import org.apache.kafka.common.config.AbstractConfig
+import org.apache.kafka.common.config.ConfigDef
+import spock.lang.Specification
+
+/**
+ * @author Aravind R Yarram
+ * @since 0.5.0
+ */
+class TaskConfigBuilderTest extends Specification {
+
+    def cfg = new AbstractConfig(new ConfigDef(), [:])
+    def extractor = { it } as TaskConfigExtractor<String>
+    def weights = [a: 100L, b: 1L, c: 1L, d: 1L, e: 100L, f: 1L]
+
+    def "Groups the work by count without a weight extractor"() {
+        given:
+        def builder = new TaskConfigBuilder<String>(2, "units", cfg, extractor)
+
+        when:
+        def taskCfgs = builder.build(["a", "b", "c", "d", "e", "f"])
+
+        then:
+        taskCfgs*.get("units") == ["a,b,c", "d,e,f"]
+    }
+
+    def "Balances the total weight of the groups"() {
+        given:
+        def builder = new TaskConfigBuilder<String>(2, "units", cfg, extractor)
+                .setTaskWeightExtractor({ weights[it] } as TaskWeightExtractor<String>)
+
+        when:
+        def taskCfgs = builder.build(["a", "b", "c", "d", "e", "f"])
+
+        then: "each heavy unit gets a task of its own and the units keep their order"
+        taskCfgs*.get("units") == ["a,b,d", "c,e,f"]
+    }
+
+    def "Never creates more groups than the units of work"() {
+        given:
+        def builder = new TaskConfigBuilder<String>(10, "units", cfg, extractor)
+                .setTaskWeightExtractor({ 0L } as TaskWeightExtractor<String>)
+
+        expect:
+        builder.build(["a", "b"])*.get("units") == ["a", "b"]
+        builder.build([]) == []
+    }
+}